@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller;
+
+import mediathek.gui.messages.DownloadRateLimitChangedEvent;
+import mediathek.tool.ApplicationConfiguration;
+import mediathek.tool.FileUtils;
+import mediathek.tool.MessageBus;
+import net.engio.mbassy.listener.Handler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket which limits the bandwidth of all running downloads together.
+ * <p>
+ * Every download registers as a {@link Participant}. When the limit is reached, waiting participants are served
+ * in the order of their virtual time, which is the amount of data received divided by their weight.
+ * This shares the bandwidth fairly according to the weights, a stalled download leaves its share to the others.
+ * A limit change takes effect immediately for all waiting downloads.
+ */
+public class BandwidthLimiter {
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    /**
+     * Tokens which may accumulate while nobody downloads, in seconds of the rate.
+     */
+    private static final double BURST_SECONDS = 0.5;
+    /**
+     * Maximum debt from accounted external downloads, in seconds of the rate.
+     * Keeps the budget from being blocked for long after an external program has finished.
+     */
+    private static final double MAX_DEBT_SECONDS = 1.0;
+    private static final long MAX_WAIT_NS = TimeUnit.MILLISECONDS.toNanos(100);
+    /**
+     * A participant without requests for this time is considered idle.
+     */
+    private static final long IDLE_NS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final Logger logger = LogManager.getLogger();
+    private final List<Participant> participants = new ArrayList<>();
+    /**
+     * Explicit lock instead of synchronized as waiting in a monitor would pin the carrier of a virtual thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private volatile long rate;
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+
+    /**
+     * @param bytesPerSecond the limit or {@link #UNLIMITED}.
+     */
+    public BandwidthLimiter(long bytesPerSecond) {
+        rate = bytesPerSecond;
+    }
+
+    /**
+     * @return the limiter used by all downloads, configured from the settings and following
+     * {@link DownloadRateLimitChangedEvent}s.
+     */
+    public static BandwidthLimiter getInstance() {
+        return LimiterHolder.INSTANCE;
+    }
+
+    private static BandwidthLimiter createFromConfig() {
+        final var config = ApplicationConfiguration.getConfiguration();
+        final long limit = config.getLong(ApplicationConfiguration.DownloadRateLimiter.LIMIT, 0);
+        final boolean active = config.getBoolean(ApplicationConfiguration.DownloadRateLimiter.ACTIVE, false);
+
+        var limiter = new BandwidthLimiter(calculateRate(limit, active));
+        MessageBus.getMessageBus().subscribe(limiter);
+        return limiter;
+    }
+
+    /**
+     * @param limit  the limit in KB/s, 0 or less means unlimited.
+     * @param active whether the limit is enabled.
+     * @return the rate in bytes per second.
+     */
+    static long calculateRate(long limit, boolean active) {
+        if (limit <= 0 || !active)
+            return UNLIMITED;
+        else
+            return limit * FileUtils.ONE_KB;
+    }
+
+    @Handler
+    private void handleRateLimitChanged(@NotNull DownloadRateLimitChangedEvent evt) {
+        final long newRate = calculateRate(evt.newLimit, evt.active);
+        logger.info("changing download speed limit to {} bytes/s", newRate);
+        setRate(newRate);
+    }
+
+    public long getRate() {
+        return rate;
+    }
+
+    /**
+     * Change the limit, waiting downloads are rebalanced immediately.
+     *
+     * @param bytesPerSecond the new limit or {@link #UNLIMITED}.
+     */
+    public void setRate(long bytesPerSecond) {
+        lock.lock();
+        try {
+            refill();
+            rate = bytesPerSecond;
+            tokens = Math.min(tokens, getBurst());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Register a download.
+     *
+     * @param name   used for logging.
+     * @param weight relative share of the bandwidth, must be positive.
+     * @return the participant which must be closed when the download has finished.
+     */
+    public Participant register(@NotNull String name, double weight) {
+        var participant = new Participant(name, weight);
+        lock.lock();
+        try {
+            // a new download starts level with the others instead of making up for their past downloads
+            double min = Double.MAX_VALUE;
+            for (var other : participants) {
+                min = Math.min(min, other.virtualTime);
+            }
+            if (min != Double.MAX_VALUE)
+                participant.virtualTime = min;
+            participants.add(participant);
+        } finally {
+            lock.unlock();
+        }
+        return participant;
+    }
+
+    private double getBurst() {
+        return rate * BURST_SECONDS;
+    }
+
+    private void refill() {
+        final long now = System.nanoTime();
+        if (rate != UNLIMITED) {
+            tokens = Math.min(getBurst(), tokens + (now - lastRefill) * (rate / 1e9));
+        }
+        lastRefill = now;
+    }
+
+    /**
+     * @return true if the participant is the waiting one with the smallest virtual time.
+     */
+    private boolean isNextInLine(@NotNull Participant participant) {
+        for (var other : participants) {
+            if (other != participant && other.waiting > 0 && other.virtualTime < participant.virtualTime)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * A participant which starts again after a pause must not make up for the time it didn´t use.
+     */
+    private void catchUp(@NotNull Participant participant) {
+        double min = Double.MAX_VALUE;
+        for (var other : participants) {
+            if (other != participant && other.waiting > 0)
+                min = Math.min(min, other.virtualTime);
+        }
+        if (min != Double.MAX_VALUE)
+            participant.virtualTime = Math.max(participant.virtualTime, min);
+    }
+
+    private void acquire(@NotNull Participant participant, int bytes) throws InterruptedIOException {
+        lock.lock();
+        final long now = System.nanoTime();
+        if (participant.waiting++ == 0 && now - participant.lastRequest > IDLE_NS)
+            catchUp(participant);
+        participant.lastRequest = now;
+        try {
+            while (rate != UNLIMITED) {
+                refill();
+                if (tokens > 0 && isNextInLine(participant)) {
+                    // the bucket may run into debt so that large reads don´t need a large burst size
+                    tokens -= bytes;
+                    participant.virtualTime += bytes / participant.weight;
+                    changed.signalAll();
+                    return;
+                }
+
+                long waitNs = MAX_WAIT_NS;
+                if (tokens <= 0)
+                    waitNs = Math.min(waitNs, Math.max(1, (long) (-tokens / rate * 1e9)));
+                changed.awaitNanos(waitNs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for bandwidth");
+        } finally {
+            participant.waiting--;
+            lock.unlock();
+        }
+    }
+
+    private void account(@NotNull Participant participant, long bytes) {
+        lock.lock();
+        try {
+            if (rate == UNLIMITED)
+                return;
+
+            refill();
+            // only the accounted bytes are capped, debt from acquired bytes is kept
+            tokens = Math.min(tokens, Math.max(-rate * MAX_DEBT_SECONDS, tokens - bytes));
+            participant.virtualTime += bytes / participant.weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unregister(@NotNull Participant participant) {
+        lock.lock();
+        try {
+            participants.remove(participant);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Part of the Bill Pugh Singleton implementation
+     */
+    private static class LimiterHolder {
+        private static final BandwidthLimiter INSTANCE = createFromConfig();
+    }
+
+    /**
+     * One download using the shared bandwidth.
+     */
+    public final class Participant implements AutoCloseable {
+        private final String name;
+        private final double weight;
+        /**
+         * Number of threads waiting for bandwidth, segmented downloads use several threads.
+         */
+        private int waiting;
+        private double virtualTime;
+        private long lastRequest = System.nanoTime();
+
+        private Participant(@NotNull String name, double weight) {
+            if (weight <= 0)
+                throw new IllegalArgumentException("weight must be positive: " + weight);
+            this.name = name;
+            this.weight = weight;
+        }
+
+        /**
+         * Wait until the bytes may be downloaded.
+         *
+         * @param bytes the number of bytes.
+         * @throws InterruptedIOException if the thread was interrupted while waiting.
+         */
+        public void acquire(int bytes) throws InterruptedIOException {
+            if (rate != UNLIMITED)
+                BandwidthLimiter.this.acquire(this, bytes);
+        }
+
+        /**
+         * Record bytes downloaded without this limiter being able to throttle them, e.g. by external programs.
+         * They reduce the bandwidth available to the other downloads.
+         *
+         * @param bytes the number of bytes.
+         */
+        public void account(long bytes) {
+            if (bytes > 0)
+                BandwidthLimiter.this.account(this, bytes);
+        }
+
+        @Override
+        public void close() {
+            unregister(this);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import mediathek.tool.FileUtils;
 import mediathek.tool.timer.TimerPool;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.concurrent.ScheduledFuture;
@@ -54,6 +55,45 @@ public class MVBandwidthCountingInputStream extends InputStream {
         return bytesRead;
     }
 
+    @Override
+    public int read(byte @NotNull [] b, int off, int len) throws IOException {
+        final int bytesRead = iStream.read(b, off, len);
+        if (bytesRead != -1) {
+            calculationTask.incrementBytesRead(bytesRead);
+        }
+
+        return bytesRead;
+    }
+
+    /**
+     * Create a stream which adds all bytes read from it to the bandwidth calculation of this stream.
+     * Used when several connections contribute to one download.
+     *
+     * @param in the stream to count.
+     * @return the counting stream, closing it does not stop the bandwidth calculation of this stream.
+     */
+    public InputStream createCountingStream(@NotNull InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                final int data = super.read();
+                if (data != -1) {
+                    calculationTask.incrementBytesRead(1);
+                }
+                return data;
+            }
+
+            @Override
+            public int read(byte @NotNull [] b, int off, int len) throws IOException {
+                final int bytesRead = super.read(b, off, len);
+                if (bytesRead != -1) {
+                    calculationTask.incrementBytesRead(bytesRead);
+                }
+                return bytesRead;
+            }
+        };
+    }
+
     /**
      * Return the akt bandwidth used by this InputStream.
      *
@@ -1,40 +1,45 @@
 package mediathek.controller;
 
-import com.google.common.util.concurrent.RateLimiter;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.InputStream;
 
 /**
- * InputStream which limits reads based on an {@link RateLimiter}.
+ * InputStream which limits reads based on a {@link BandwidthLimiter}.
  */
 public class ThrottlingInputStream extends InputStream {
 
     private final InputStream target;
-    private final RateLimiter maxBytesPerSecond;
+    private final BandwidthLimiter.Participant bandwidth;
 
-    public ThrottlingInputStream(InputStream target, RateLimiter maxBytesPerSecond) {
+    public ThrottlingInputStream(InputStream target, BandwidthLimiter.Participant bandwidth) {
         this.target = target;
-        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.bandwidth = bandwidth;
     }
 
     @Override
     public int read() throws IOException {
-        maxBytesPerSecond.acquire(1);
+        bandwidth.acquire(1);
         return target.read();
     }
 
     @Override
-    public int read(byte[] b) throws IOException {
-        maxBytesPerSecond.acquire(b.length);
-        return target.read(b);
+    public int read(byte @NotNull [] b) throws IOException {
+        return read(b, 0, b.length);
     }
 
+    /**
+     * Permits are acquired for the bytes actually read, not for the buffer size.
+     * Otherwise large buffers which are only partially filled by the network would slow down the download.
+     */
     @Override
     public int read(byte @NotNull [] b, int off, int len) throws IOException {
-        maxBytesPerSecond.acquire(len);
-        return target.read(b, off, len);
+        final int bytesRead = target.read(b, off, len);
+        if (bytesRead > 0) {
+            bandwidth.acquire(bytesRead);
+        }
+        return bytesRead;
     }
 
     @Override
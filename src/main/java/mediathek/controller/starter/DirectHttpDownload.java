@@ -1,8 +1,8 @@
 package mediathek.controller.starter;
 
-import com.google.common.util.concurrent.RateLimiter;
 import mediathek.config.Daten;
 import mediathek.config.Konstanten;
+import mediathek.controller.BandwidthLimiter;
 import mediathek.controller.MVBandwidthCountingInputStream;
 import mediathek.controller.ThrottlingInputStream;
 import mediathek.controller.history.SeenHistoryController;
@@ -13,11 +13,9 @@ import mediathek.gui.messages.*;
 import mediathek.mainwindow.MediathekGui;
 import mediathek.tool.*;
 import mediathek.tool.http.MVHttpClient;
+import mediathek.tool.timer.TimerPool;
 import net.engio.mbassy.bus.MBassador;
-import net.engio.mbassy.listener.Handler;
 import okhttp3.*;
-import okio.Okio;
-import okio.Sink;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
@@ -26,26 +24,35 @@ import javax.swing.*;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
 import java.net.HttpURLConnection;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 
-public class DirectHttpDownload extends Thread {
+public class DirectHttpDownload implements Runnable {
 
     private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
     private static final Logger logger = LogManager.getLogger(DirectHttpDownload.class);
+    /**
+     * Interval in which the progress display of a running download gets updated.
+     */
+    private static final long PROGRESS_INTERVAL_MS = 250;
     private final Daten daten;
     private final DatenDownload datenDownload;
     private final Start start;
     /**
-     * Instance which will limit the download speed
+     * Share of the download speed limit, registered while the download is running.
      */
-    private final RateLimiter rateLimiter;
+    private BandwidthLimiter.Participant bandwidth;
     private final MBassador<BaseEvent> messageBus;
     private final OkHttpClient httpClient;
     private HttpDownloadState state = HttpDownloadState.DOWNLOAD;
@@ -56,76 +63,44 @@ public class DirectHttpDownload extends Thread {
     private long alreadyDownloaded;
     private File file;
     private boolean retAbbrechen;
-    private boolean dialogAbbrechenIsVis;
-    private CompletableFuture<Void> infoFuture;
-    private CompletableFuture<Void> subtitleFuture;
+    private final String name;
+    /**
+     * Info file and subtitle downloads of the running download.
+     */
+    private DownloadSubtasks subtasks;
+    /**
+     * Guards the progress display which gets updated by the progress timer and the download thread.
+     */
+    private final Object progressLock = new Object();
+    /**
+     * Progress display state, see {@link #updateProgress()}.
+     */
+    private long aktSize;
+    private long lastPercent;
+    private long startPercent = -1;
 
     public DirectHttpDownload(Daten daten, DatenDownload d) {
-        super();
-
         httpClient = MVHttpClient.getInstance().getHttpClient();
-        rateLimiter = RateLimiter.create(getDownloadLimit());
         messageBus = MessageBus.getMessageBus();
-        messageBus.subscribe(this);
 
         this.daten = daten;
         datenDownload = d;
         start = datenDownload.start;
-        setName("DIRECT DL THREAD_" + d.arr[DatenDownload.DOWNLOAD_TITEL]);
+        name = "DIRECT DL_" + d.arr[DatenDownload.DOWNLOAD_TITEL];
 
         start.status = Start.STATUS_RUN;
         StarterClass.notifyStartEvent(datenDownload);
     }
 
     /**
-     * Handles the rate limit change launched somewhere in the UI
-     *
-     * @param evt the new limit
-     */
-    @Handler
-    private void handleRateLimitChanged(@NotNull DownloadRateLimitChangedEvent evt) {
-        final long limit = calculateDownloadLimit(evt);
-        logger.info("thread changing download speed limit to {} KB", limit);
-        rateLimiter.setRate(limit);
-    }
-
-    private long calculateDownloadLimit(@NotNull DownloadRateLimitChangedEvent evt) {
-        return calcLimit(evt.newLimit, evt.active);
-    }
-
-    private long calcLimit(long limit, boolean active) {
-        long newLimit;
-
-        if (limit <= 0 || !active)
-            newLimit = Long.MAX_VALUE;
-        else
-            newLimit = limit * FileUtils.ONE_KB;
-
-        return newLimit;
-    }
-
-    private long calculateDownloadLimit(long limit) {
-        var active = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.DownloadRateLimiter.ACTIVE, false);
-        return calcLimit(limit, active);
-    }
-    /**
-     * Try to read the download limit from config file, other set to artificial limit 1GB/s!
-     *
-     * @return the limit in KB/s
-     */
-    private long getDownloadLimit() {
-        final long downloadLimit = ApplicationConfiguration.getConfiguration().getLong(ApplicationConfiguration.DownloadRateLimiter.LIMIT, 0);
-        return calculateDownloadLimit(downloadLimit);
-    }
-
-    /**
-     * Return the content length of the requested Url.
+     * Return the content length of the requested Url and whether the server supports range requests.
      *
      * @param url {@link java.net.URL} to the specified content.
      * @return Length in bytes or -1 on error.
      */
-    private long getContentLength(@NotNull HttpUrl url) throws IOException {
+    private ContentInfo getContentInfo(@NotNull HttpUrl url) throws IOException {
         long contentSize = -1;
+        boolean acceptsRanges = false;
 
         final Request request = new Request.Builder().url(url).head()
                 .header("User-Agent", getUserAgent())
@@ -139,37 +114,58 @@ public class DirectHttpDownload extends Thread {
                 if (contentSize < 300_000) {
                     contentSize = -1;
                 }
+                acceptsRanges = "bytes".equalsIgnoreCase(response.header("Accept-Ranges"));
             }
         }
 
-        return contentSize;
+        return new ContentInfo(contentSize, acceptsRanges);
     }
 
-    private String getUserAgent() {
-        return ApplicationConfiguration.getConfiguration().getString(ApplicationConfiguration.APPLICATION_USER_AGENT);
+    private int getMaxSegments() {
+        return ApplicationConfiguration.getConfiguration().getInt(ApplicationConfiguration.DOWNLOAD_MAX_SEGMENTS_NUM, 4);
     }
 
-    private void startInfoFileDownload() {
-        final boolean downloadInfoFile = Boolean.parseBoolean(datenDownload.arr[DatenDownload.DOWNLOAD_INFODATEI]);
-        if (downloadInfoFile) {
-            infoFuture = CompletableFuture.runAsync(() -> {
-                try {
-                    MVInfoFile infoFile = new MVInfoFile();
-                    infoFile.writeInfoFile(datenDownload);
-                } catch (IOException ex) {
-                    logger.error("Failed to write info file", ex);
-                }
-            });
+    /**
+     * Decide whether the download gets split into segments which are downloaded in parallel.
+     * A download continued from a segmented run must use the stored segments as its part file has not been written
+     * sequentially.
+     *
+     * @return the segments to download or null if a single connection is used.
+     */
+    private List<SegmentedDownload.Segment> planSegments(@NotNull ContentInfo contentInfo) throws IOException {
+        final var path = file.toPath();
+        if (alreadyDownloaded != 0 && Files.exists(SegmentedDownload.getPartPath(path))) {
+            if (contentInfo.acceptsRanges()) {
+                final var segments = SegmentedDownload.readState(path, contentInfo.length());
+                if (segments != null)
+                    return segments;
+            }
+            logger.warn("Segmented download of {} can´t be continued, restarting", path);
+            alreadyDownloaded = 0;
         }
-    }
 
-    private void downloadSubtitleFile() {
-        if (Boolean.parseBoolean(datenDownload.arr[DatenDownload.DOWNLOAD_SUBTITLE])) {
-            subtitleFuture = CompletableFuture.runAsync(() -> {
-                MVSubtitle subtitleFile = new MVSubtitle();
-                subtitleFile.writeSubtitle(datenDownload);
-            });
+        if (alreadyDownloaded == 0) {
+            SegmentedDownload.deleteTemporaryFiles(path);
+            if (contentInfo.acceptsRanges()) {
+                final int count = SegmentedDownload.getSegmentCount(contentInfo.length(), getMaxSegments());
+                if (count > 1)
+                    return SegmentedDownload.plan(contentInfo.length(), count);
+            }
         }
+
+        return null;
+    }
+
+    private String getUserAgent() {
+        return ApplicationConfiguration.getConfiguration().getString(ApplicationConfiguration.APPLICATION_USER_AGENT);
+    }
+
+    private void startDownload() {
+        subtasks.startInfoFileDownload();
+
+        subtasks.startSubtitleFileDownload();
+
+        datenDownload.interruptRestart();
     }
 
     /**
@@ -178,75 +174,118 @@ public class DirectHttpDownload extends Thread {
      * @throws IOException the io errors that may occur.
      */
     private void downloadContent(InputStream inputStream) throws IOException {
-        startInfoFileDownload();
+        startDownload();
 
-        downloadSubtitleFile();
+        final OpenOption[] options = alreadyDownloaded != 0
+                ? new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND}
+                : new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING};
+        try (var channel = FileChannel.open(file.toPath(), options);
+             ThrottlingInputStream tis = new ThrottlingInputStream(inputStream, bandwidth);
+             MVBandwidthCountingInputStream mvis = new MVBandwidthCountingInputStream(tis)) {
+            start.mVBandwidthCountingInputStream = mvis;
+            datenDownload.mVFilmSize.addAktSize(alreadyDownloaded);
 
-        datenDownload.interruptRestart();
+            // the copy loop only counts, the display gets updated by the timer
+            final var transferred = new AtomicLong();
+            final var progressFuture = TimerPool.getTimerPool().scheduleAtFixedRate(() -> reportTransferred(transferred),
+                    PROGRESS_INTERVAL_MS, PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            try {
+                FileTransfer.copy(mvis, channel, transferred, () -> start.stoppen);
+            } finally {
+                progressFuture.cancel(false);
+                reportTransferred(transferred);
+            }
+        }
 
-        Sink fileSink;
-        if (alreadyDownloaded != 0)
-            fileSink = Okio.appendingSink(file);
-        else
-            fileSink = Okio.sink(file);
-        try (fileSink;
-             var bufferedSink = Okio.buffer(fileSink);
-             ThrottlingInputStream tis = new ThrottlingInputStream(inputStream, rateLimiter);
-             MVBandwidthCountingInputStream mvis = new MVBandwidthCountingInputStream(tis)) {
+        finishDownload();
+    }
+
+    /**
+     * Add the bytes written since the last call to the progress display.
+     * Called from the progress timer and the download thread, therefore guarded by its own lock.
+     */
+    private void reportTransferred(@NotNull AtomicLong transferred) {
+        synchronized (progressLock) {
+            final long len = transferred.getAndSet(0);
+            alreadyDownloaded += len;
+            datenDownload.mVFilmSize.addAktSize(len);
+            updateProgress();
+        }
+    }
+
+    /**
+     * Download with several connections in parallel.
+     * Bandwidth is counted and limited for all connections together.
+     *
+     * @throws IOException the io errors that may occur.
+     */
+    private void downloadSegmented(@NotNull HttpUrl url, long contentLength, @NotNull List<SegmentedDownload.Segment> segments) throws IOException {
+        startDownload();
+
+        final var download = new SegmentedDownload(httpClient, url, getUserAgent(), file.toPath(), contentLength, segments, bandwidth);
+        try (var mvis = new MVBandwidthCountingInputStream(InputStream.nullInputStream())) {
             start.mVBandwidthCountingInputStream = mvis;
+            alreadyDownloaded = download.getDownloaded();
             datenDownload.mVFilmSize.addAktSize(alreadyDownloaded);
-            final byte[] buffer = new byte[1024];
-            long p, pp = 0, startProzent = -1;
-            int len;
-            long aktBandwidth, aktSize = 0;
-            boolean melden = false;
+            logger.trace("Downloading {} with {} segments", file, segments.size());
 
-            while ((len = start.mVBandwidthCountingInputStream.read(buffer)) != -1 && (!start.stoppen)) {
+            download.download(mvis, () -> start.stoppen, len -> {
                 alreadyDownloaded += len;
-                bufferedSink.write(buffer, 0, len);
                 datenDownload.mVFilmSize.addAktSize(len);
+                updateProgress();
+            });
+        }
 
-                //für die Anzeige prüfen ob sich was geändert hat
-                if (aktSize != datenDownload.mVFilmSize.getAktSize()) {
-                    aktSize = datenDownload.mVFilmSize.getAktSize();
-                    melden = true;
-                }
-                if (datenDownload.mVFilmSize.getSize() > 0) {
-                    p = (aktSize * (long) 1000) / datenDownload.mVFilmSize.getSize();
-                    if (startProzent == -1) {
-                        startProzent = p;
-                    }
-                    // p muss zwischen 1 und 999 liegen
-                    if (p == 0) {
-                        p = Start.PROGRESS_GESTARTET;
-                    } else if (p >= 1000) {
-                        p = 999;
-                    }
-                    start.percent = (int) p;
-                    if (p != pp) {
-                        pp = p;
-                        // Restzeit ermitteln
-                        if (p > 2 && p > startProzent) {
-                            // sonst macht es noch keinen Sinn
-                            final var diffZeit = Duration.between(start.startTime, LocalDateTime.now()).toSeconds();
-                            final long restProzent = 1000L - p;
-                            start.restSekunden = (diffZeit * restProzent / (p - startProzent));
-                        }
-                        melden = true;
-                    }
-                }
-                aktBandwidth = start.mVBandwidthCountingInputStream.getBandwidth(); // bytes per second
-                if (aktBandwidth != start.bandbreite) {
-                    start.bandbreite = aktBandwidth;
-                    melden = true;
-                }
-                if (melden) {
-                    MessageBus.getMessageBus().publishAsync(new DownloadProgressChangedEvent());
-                    melden = false;
+        finishDownload();
+    }
+
+    /**
+     * Update the progress display after new data has been written.
+     */
+    private void updateProgress() {
+        long p;
+        boolean melden = false;
+
+        //für die Anzeige prüfen ob sich was geändert hat
+        if (aktSize != datenDownload.mVFilmSize.getAktSize()) {
+            aktSize = datenDownload.mVFilmSize.getAktSize();
+            melden = true;
+        }
+        if (datenDownload.mVFilmSize.getSize() > 0) {
+            p = (aktSize * (long) 1000) / datenDownload.mVFilmSize.getSize();
+            if (startPercent == -1) {
+                startPercent = p;
+            }
+            // p muss zwischen 1 und 999 liegen
+            if (p == 0) {
+                p = Start.PROGRESS_GESTARTET;
+            } else if (p >= 1000) {
+                p = 999;
+            }
+            start.percent = (int) p;
+            if (p != lastPercent) {
+                lastPercent = p;
+                // Restzeit ermitteln
+                if (p > 2 && p > startPercent) {
+                    // sonst macht es noch keinen Sinn
+                    final var diffZeit = Duration.between(start.startTime, LocalDateTime.now()).toSeconds();
+                    final long restProzent = 1000L - p;
+                    start.restSekunden = (diffZeit * restProzent / (p - startPercent));
                 }
+                melden = true;
             }
         }
+        final long aktBandwidth = start.mVBandwidthCountingInputStream.getBandwidth(); // bytes per second
+        if (aktBandwidth != start.bandbreite) {
+            start.bandbreite = aktBandwidth;
+            melden = true;
+        }
+        if (melden) {
+            MessageBus.getMessageBus().publishAsync(new DownloadProgressChangedEvent());
+        }
+    }
 
+    private void finishDownload() {
         start.bandbreite = start.mVBandwidthCountingInputStream.getSumBandwidth();
         if (!start.stoppen) {
             if (datenDownload.quelle == DatenDownload.QUELLE_BUTTON) {
@@ -285,56 +324,82 @@ public class DirectHttpDownload extends Thread {
         return request.build();
     }
 
+    /**
+     * Download with one connection, continuing a previous download if possible.
+     *
+     * @throws IOException the io errors that may occur.
+     */
+    private void downloadWithSingleConnection(@NotNull HttpUrl url) throws IOException {
+        Response response = null;
+        ResponseBody body = null;
+        try {
+            Request request = buildDownloadRequest(url);
+            response = httpClient.newCall(request).execute();
+            body = response.body();
+            if (response.isSuccessful() && body != null) {
+                downloadContent(body.byteStream());
+            } else {
+                final int responseCode = response.code();
+                if (responseCode == HTTP_RANGE_NOT_SATISFIABLE) {
+                    //close old stuff first
+                    if (body != null)
+                        body.close();
+                    response.close();
+
+                    //reset download count
+                    alreadyDownloaded = 0;
+                    request = buildDownloadRequest(url);
+                    response = httpClient.newCall(request).execute();
+                    body = response.body();
+                    if (response.isSuccessful() && body != null)
+                        downloadContent(body.byteStream());
+                    else {
+                        printHttpErrorMessage(response);
+                    }
+                } else {
+                    if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                        logger.error("HTTP error 404 received for URL: {}", request.url().toString());
+                        state = HttpDownloadState.ERROR;
+                        start.status = Start.STATUS_ERR;
+                    } else {
+                        printHttpErrorMessage(response);
+                    }
+                }
+            }
+        } finally {
+            if (body != null)
+                body.close();
+
+            if (response != null)
+                response.close();
+        }
+    }
+
     @Override
-    public synchronized void run() {
+    public void run() {
         StarterClass.startmeldung(datenDownload, start);
 
         messageBus.publishAsync(new DownloadStartEvent());
 
-        Response response = null;
-        ResponseBody body = null;
-        try {
+        bandwidth = BandwidthLimiter.getInstance().register(name, datenDownload.getBandwidthWeight());
+        // the info file and subtitle tasks are finished when this block is left
+        try (var downloadSubtasks = new DownloadSubtasks(datenDownload)) {
+            subtasks = downloadSubtasks;
             createDirectory();
             file = new File(datenDownload.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME]);
 
             if (!cancelDownload()) {
                 HttpUrl url = HttpUrl.parse(datenDownload.arr[DatenDownload.DOWNLOAD_URL]);
                 assert url != null;
-                datenDownload.mVFilmSize.setSize(getContentLength(url));
+                final var contentInfo = getContentInfo(url);
+                datenDownload.mVFilmSize.setSize(contentInfo.length());
                 datenDownload.mVFilmSize.setAktSize(0);
 
-                Request request = buildDownloadRequest(url);
-                response = httpClient.newCall(request).execute();
-                body = response.body();
-                if (response.isSuccessful() && body != null) {
-                    downloadContent(body.byteStream());
+                final var segments = planSegments(contentInfo);
+                if (segments != null) {
+                    downloadSegmented(url, contentInfo.length(), segments);
                 } else {
-                    final int responseCode = response.code();
-                    if (responseCode == HTTP_RANGE_NOT_SATISFIABLE) {
-                        //close old stuff first
-                        if (body != null)
-                            body.close();
-                        response.close();
-
-                        //reset download count
-                        alreadyDownloaded = 0;
-                        request = buildDownloadRequest(url);
-                        response = httpClient.newCall(request).execute();
-                        body = response.body();
-                        if (response.isSuccessful() && body != null)
-                            downloadContent(body.byteStream());
-                        else {
-                            printHttpErrorMessage(response);
-                        }
-                    } else {
-                        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
-                            logger.error("HTTP error 404 received for URL: {}", request.url().toString());
-                            state = HttpDownloadState.ERROR;
-                            start.status = Start.STATUS_ERR;
-                        } else {
-                            printHttpErrorMessage(response);
-                        }
-                    }
+                    downloadWithSingleConnection(url);
                 }
             }
         } catch (IOException ex) {
@@ -346,19 +411,17 @@ public class DirectHttpDownload extends Thread {
 
             SwingUtilities.invokeLater(() -> new MeldungDownloadfehler(MediathekGui.ui(), ex.getLocalizedMessage(), datenDownload).setVisible(true));
         } finally {
-            if (body != null)
-                body.close();
-
-            if (response != null)
-                response.close();
+            bandwidth.close();
         }
 
-        waitForPendingDownloads();
+        if (start.stoppen && !daten.getListeDownloads().contains(datenDownload)) {
+            // deleted while running, the incomplete segments can´t be continued anymore
+            StarterClass.deleteTemporaryFiles(datenDownload);
+        }
 
         StarterClass.finalizeDownload(datenDownload, start, state);
 
         messageBus.publishAsync(new DownloadFinishedEvent());
-        messageBus.unsubscribe(this);
     }
 
     private void removeSeenHistoryEntry() {
@@ -370,40 +433,30 @@ public class DirectHttpDownload extends Thread {
         }
     }
 
-    private void waitForPendingDownloads() {
-        try {
-            if (infoFuture != null)
-                infoFuture.get();
-
-            if (subtitleFuture != null)
-                subtitleFuture.get();
-
-        } catch (InterruptedException | ExecutionException e) {
-            logger.error("waitForPendingDownloads().", e);
-        }
+    /**
+     * @return true if a previous download left a target or part file.
+     */
+    private boolean fileExists() {
+        return file.exists() || Files.exists(SegmentedDownload.getPartPath(file.toPath()));
     }
 
     private boolean cancelDownload() {
-        if (!file.exists()) {
+        if (!fileExists()) {
             // dann ist alles OK
             return false;
         }
 
-        dialogAbbrechenIsVis = true;
         retAbbrechen = true;
         if (SwingUtilities.isEventDispatchThread()) {
             retAbbrechen = abbrechen_();
         } else {
-            SwingUtilities.invokeLater(() -> {
-                retAbbrechen = abbrechen_();
-                dialogAbbrechenIsVis = false;
-            });
-        }
-        while (dialogAbbrechenIsVis) {
             try {
-                wait(100);
-            } catch (Exception ignored) {
-
+                SwingUtilities.invokeAndWait(() -> retAbbrechen = abbrechen_());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state = HttpDownloadState.CANCEL;
+            } catch (InvocationTargetException e) {
+                logger.error("cancelDownload()", e);
             }
         }
         return retAbbrechen;
@@ -418,7 +471,7 @@ public class DirectHttpDownload extends Thread {
 
     private boolean abbrechen_() {
         boolean result = false;
-        if (file.exists()) {
+        if (fileExists()) {
             DialogContinueDownload dialogContinueDownload = new DialogContinueDownload(MediathekGui.ui(), datenDownload, true /*weiterführen*/);
             dialogContinueDownload.setVisible(true);
 
@@ -430,11 +483,13 @@ public class DirectHttpDownload extends Thread {
                     break;
 
                 case CONTINUE:
-                    alreadyDownloaded = file.length();
+                    final var partFile = SegmentedDownload.getPartPath(file.toPath()).toFile();
+                    alreadyDownloaded = partFile.exists() ? partFile.length() : file.length();
                     break;
 
                 case RESTART_WITH_NEW_NAME:
                     if (dialogContinueDownload.isNewName()) {
+                        StarterClass.deleteTemporaryFiles(file.toPath());
                         MessageBus.getMessageBus().publishAsync(new DownloadListChangedEvent());
                         createDirectory();
                         file = new File(datenDownload.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME]);
@@ -445,4 +500,10 @@ public class DirectHttpDownload extends Thread {
         return result;
     }
 
+    /**
+     * @param length         content length in bytes or -1 if unknown.
+     * @param acceptsRanges true if the server announced support for byte range requests.
+     */
+    private record ContentInfo(long length, boolean acceptsRanges) {
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import mediathek.daten.DatenDownload;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Waiting and running downloads of the download list as seen by the starter.
+ * Waiting downloads are kept in one priority queue per sender, ordered by their position in the download list.
+ * The next download is taken from a sender without running downloads if possible, so that parallel downloads
+ * get spread over the senders.
+ * Taking and finishing a download only touches the queues and does not scan the download list.
+ * Not thread-safe, access must be guarded by the caller.
+ */
+final class DownloadQueue {
+    private final Map<String, PriorityQueue<Entry>> waiting = new HashMap<>();
+    /**
+     * Start of a running download -> sender.
+     * Keyed by start as a download may be restarted with a new start while its old run is still ending.
+     */
+    private final Map<Start, String> running = new IdentityHashMap<>();
+    private final Map<String, Integer> runningPerSender = new HashMap<>();
+
+    private static String getSender(@NotNull DatenDownload download) {
+        return download.arr[DatenDownload.DOWNLOAD_SENDER];
+    }
+
+    /**
+     * Replace the waiting downloads.
+     *
+     * @param downloads the waiting downloads in list order. Downloads whose start is already running are ignored.
+     */
+    void rebuild(@NotNull List<DatenDownload> downloads) {
+        waiting.clear();
+        int rank = 0;
+        for (var download : downloads) {
+            if (download.start == null || running.containsKey(download.start))
+                continue;
+            waiting.computeIfAbsent(getSender(download), _ -> new PriorityQueue<>())
+                    .add(new Entry(download, download.start, rank++));
+        }
+    }
+
+    /**
+     * Take the next download to be started and mark it as running.
+     *
+     * @param maxRunning the maximum number of downloads running in parallel.
+     * @return the download or null if none can be started now.
+     */
+    @Nullable DatenDownload next(int maxRunning) {
+        if (running.size() >= maxRunning)
+            return null;
+
+        PriorityQueue<Entry> best = null;
+        PriorityQueue<Entry> bestIdleSender = null;
+        var it = waiting.entrySet().iterator();
+        while (it.hasNext()) {
+            final var senderEntry = it.next();
+            final var queue = senderEntry.getValue();
+            // downloads which got removed, cancelled or restarted meanwhile are dropped lazily
+            while (!queue.isEmpty() && !queue.peek().isWaiting())
+                queue.poll();
+            if (queue.isEmpty()) {
+                it.remove();
+                continue;
+            }
+
+            if (best == null || queue.peek().compareTo(best.peek()) < 0)
+                best = queue;
+            if (!runningPerSender.containsKey(senderEntry.getKey())
+                    && (bestIdleSender == null || queue.peek().compareTo(bestIdleSender.peek()) < 0))
+                bestIdleSender = queue;
+        }
+
+        final var selected = bestIdleSender != null ? bestIdleSender : best;
+        if (selected == null)
+            return null;
+
+        final var entry = selected.poll();
+        markRunning(entry.download);
+        return entry.download;
+    }
+
+    /**
+     * Count a download started outside of the queue, e.g. the restart of a failed download.
+     */
+    void markRunning(@NotNull DatenDownload download) {
+        final var sender = getSender(download);
+        if (running.put(download.start, sender) == null)
+            runningPerSender.merge(sender, 1, Integer::sum);
+    }
+
+    /**
+     * @param start the start the download was launched with.
+     */
+    void finished(@NotNull Start start) {
+        final var sender = running.remove(start);
+        if (sender != null)
+            runningPerSender.computeIfPresent(sender, (_, count) -> count > 1 ? count - 1 : null);
+    }
+
+    int getRunning() {
+        return running.size();
+    }
+
+    private record Entry(DatenDownload download, Start start, int rank) implements Comparable<Entry> {
+        boolean isWaiting() {
+            return download.start == start && start.status == Start.STATUS_INIT;
+        }
+
+        @Override
+        public int compareTo(@NotNull Entry o) {
+            return Integer.compare(rank, o.rank);
+        }
+    }
+}
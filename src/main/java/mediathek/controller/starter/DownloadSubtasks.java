@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import mediathek.daten.DatenDownload;
+import mediathek.tool.MVInfoFile;
+import mediathek.tool.MVSubtitle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Info file and subtitle downloads which run next to the main transfer of a download.
+ * Every task gets its own virtual thread. The tasks are bound to the download, {@link #close()} waits for all of them,
+ * so no task outlives the download that started it.
+ */
+class DownloadSubtasks implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("DOWNLOAD_SUBTASK_", 0).factory());
+    private final DatenDownload datenDownload;
+
+    DownloadSubtasks(@NotNull DatenDownload datenDownload) {
+        this.datenDownload = datenDownload;
+    }
+
+    void startInfoFileDownload() {
+        if (Boolean.parseBoolean(datenDownload.arr[DatenDownload.DOWNLOAD_INFODATEI])) {
+            logger.trace("Starting info file download");
+            executor.execute(() -> {
+                try {
+                    MVInfoFile infoFile = new MVInfoFile();
+                    infoFile.writeInfoFile(datenDownload);
+                } catch (IOException ex) {
+                    logger.error("Failed to write info file", ex);
+                }
+            });
+        }
+    }
+
+    void startSubtitleFileDownload() {
+        if (Boolean.parseBoolean(datenDownload.arr[DatenDownload.DOWNLOAD_SUBTITLE])) {
+            logger.trace("Starting subtitle file download");
+            executor.execute(() -> {
+                try {
+                    MVSubtitle subtitleFile = new MVSubtitle();
+                    subtitleFile.writeSubtitle(datenDownload);
+                } catch (Exception ex) {
+                    logger.error("Failed to write subtitle file", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Wait until all started tasks are finished.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
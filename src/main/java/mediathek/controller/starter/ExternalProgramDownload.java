@@ -2,6 +2,7 @@ package mediathek.controller.starter;
 
 import mediathek.config.Daten;
 import mediathek.config.Konstanten;
+import mediathek.controller.BandwidthLimiter;
 import mediathek.daten.DatenDownload;
 import mediathek.gui.dialog.DialogContinueDownload;
 import mediathek.gui.dialog.MeldungDownloadfehler;
@@ -9,8 +10,6 @@ import mediathek.gui.messages.DownloadFinishedEvent;
 import mediathek.gui.messages.DownloadListChangedEvent;
 import mediathek.gui.messages.DownloadStartEvent;
 import mediathek.mainwindow.MediathekGui;
-import mediathek.tool.MVInfoFile;
-import mediathek.tool.MVSubtitle;
 import mediathek.tool.MessageBus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,15 +17,15 @@ import org.apache.logging.log4j.Logger;
 import javax.swing.*;
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Download files via an external program.
  */
-public class ExternalProgramDownload extends Thread {
+public class ExternalProgramDownload implements Runnable {
 
     private static final Logger logger = LogManager.getLogger();
     private static final int STAT_START = 0;
@@ -41,13 +40,15 @@ public class ExternalProgramDownload extends Thread {
     private final Start start;
     private File file;
     private boolean retAbbrechen;
-    private boolean dialogAbbrechenIsVis;
+    private final String name;
     private HttpDownloadState state = HttpDownloadState.DOWNLOAD;
-    private CompletableFuture<Void> infoFuture;
-    private CompletableFuture<Void> subtitleFuture;
+    /**
+     * External programs can´t be throttled, their traffic is only accounted for in the speed limit of the other downloads.
+     */
+    private BandwidthLimiter.Participant bandwidth;
 
     public ExternalProgramDownload(DatenDownload d) {
-        setName("EXTERNAL PROGRAM DL THREAD: " + d.arr[DatenDownload.DOWNLOAD_TITEL]);
+        name = "EXTERNAL PROGRAM DL: " + d.arr[DatenDownload.DOWNLOAD_TITEL];
 
         datenDownload = d;
         start = datenDownload.start;
@@ -63,165 +64,133 @@ public class ExternalProgramDownload extends Thread {
     }
 
     @Override
-    public synchronized void run() {
+    public void run() {
         long filesize = -1;
         int stat = STAT_START;
 
         MessageBus.getMessageBus().publishAsync(new DownloadStartEvent());
 
-        startInfoFileDownload();
+        // the info file and subtitle tasks are finished when this block is left
+        try (var subtasks = new DownloadSubtasks(datenDownload)) {
+            subtasks.startInfoFileDownload();
 
-        startSubtitleFileDownload();
+            subtasks.startSubtitleFileDownload();
 
-        try {
-            if (!cancelDownload()) {
-                while (stat < STAT_ENDE) {
-                    switch (stat) {
-                        case STAT_START:
-                            // versuch das Programm zu Starten
-                            if (starten()) {
-                                if (datenDownload.isDownloadManager()) {
-                                    stat = STAT_FERTIG_OK;
-                                } else {
-                                    stat = STAT_LAUFEN;
-                                }
-                            } else {
-                                stat = STAT_RESTART;
-                            }
-                            break;
-                        case STAT_LAUFEN:
-                            //hier läuft der Download bis zum Abbruch oder Ende
-                            try {
-                                if (start.stoppen) {
-                                    stat = STAT_FERTIG_OK;
-                                    if (start.process != null) {
-                                        start.process.destroy();
-                                    }
-                                } else {
-                                    if (start.process.exitValue() != 0) {
-                                        stat = STAT_RESTART;
+            bandwidth = BandwidthLimiter.getInstance().register(name, datenDownload.getBandwidthWeight());
+            try {
+                if (!cancelDownload()) {
+                    while (stat < STAT_ENDE) {
+                        switch (stat) {
+                            case STAT_START:
+                                // versuch das Programm zu Starten
+                                if (starten()) {
+                                    if (datenDownload.isDownloadManager()) {
+                                        stat = STAT_FERTIG_OK;
                                     } else {
-                                        /*
-                                        in case of ffmpeg there may be frames skipped which prevents correct progress calculation,
-                                        we therefore make percent max when the process terminated without error.
-                                         */
-                                        if (start.percent > 990)
-                                            start.percent = 1000;
-                                        stat = STAT_PRUEFEN;
+                                        stat = STAT_LAUFEN;
                                     }
+                                } else {
+                                    stat = STAT_RESTART;
                                 }
-                            } catch (Exception ex) {
+                                break;
+                            case STAT_LAUFEN:
+                                //hier läuft der Download bis zum Abbruch oder Ende
                                 try {
-                                    this.wait(2000);
-                                } catch (InterruptedException ignored) {
+                                    if (start.stoppen) {
+                                        stat = STAT_FERTIG_OK;
+                                        if (start.process != null) {
+                                            start.process.destroy();
+                                        }
+                                    } else {
+                                        if (start.process.exitValue() != 0) {
+                                            stat = STAT_RESTART;
+                                        } else {
+                                            /*
+                                            in case of ffmpeg there may be frames skipped which prevents correct progress calculation,
+                                            we therefore make percent max when the process terminated without error.
+                                             */
+                                            if (start.percent > 990)
+                                                start.percent = 1000;
+                                            stat = STAT_PRUEFEN;
+                                        }
+                                    }
+                                } catch (Exception ex) {
+                                    try {
+                                        TimeUnit.SECONDS.sleep(2);
+                                    } catch (InterruptedException e) {
+                                        // download executor is shutting down, stop the program with the next round
+                                        Thread.currentThread().interrupt();
+                                        start.stoppen = true;
+                                    }
                                 }
-                            }
-                            break;
-                        case STAT_RESTART:
-                            if (!datenDownload.isRestart()) {
-                                // dann wars das
-                                stat = STAT_FERTIG_FEHLER;
-                            } else if (filesize == -1) {
-                                //noch nichts geladen
-                                StarterClass.deleteIfEmpty(file.toPath());
-                                if (file.exists()) {
-                                    // dann bestehende Datei weitermachen
-                                    filesize = file.length();
-                                    stat = STAT_START;
-                                } else // counter prüfen und bei einem Maxwert cancelDownload, sonst endlos
-                                    if (start.startcounter < Konstanten.MAX_EXTERNAL_STARTS) {
-                                        // dann nochmal von vorne
+                                break;
+                            case STAT_RESTART:
+                                if (!datenDownload.isRestart()) {
+                                    // dann wars das
+                                    stat = STAT_FERTIG_FEHLER;
+                                } else if (filesize == -1) {
+                                    //noch nichts geladen
+                                    StarterClass.deleteIfEmpty(file.toPath());
+                                    if (file.exists()) {
+                                        // dann bestehende Datei weitermachen
+                                        filesize = file.length();
+                                        stat = STAT_START;
+                                    } else // counter prüfen und bei einem Maxwert cancelDownload, sonst endlos
+                                        if (start.startcounter < Konstanten.MAX_EXTERNAL_STARTS) {
+                                            // dann nochmal von vorne
+                                            stat = STAT_START;
+                                        } else {
+                                            // dann wars das
+                                            stat = STAT_FERTIG_FEHLER;
+                                        }
+                                } else //jetzt muss das File wachsen, sonst kein Restart
+                                    if (!file.exists()) {
+                                        // dann wars das
+                                        stat = STAT_FERTIG_FEHLER;
+                                    } else if (file.length() > filesize) {
+                                        //nur weitermachen wenn die Datei tasächlich wächst
+                                        filesize = file.length();
                                         stat = STAT_START;
                                     } else {
                                         // dann wars das
                                         stat = STAT_FERTIG_FEHLER;
                                     }
-                            } else //jetzt muss das File wachsen, sonst kein Restart
-                                if (!file.exists()) {
-                                    // dann wars das
-                                    stat = STAT_FERTIG_FEHLER;
-                                } else if (file.length() > filesize) {
-                                    //nur weitermachen wenn die Datei tasächlich wächst
-                                    filesize = file.length();
-                                    stat = STAT_START;
+                                break;
+                            case STAT_PRUEFEN:
+                                if (datenDownload.quelle == DatenDownload.QUELLE_BUTTON || datenDownload.isDownloadManager()) {
+                                    //für die direkten Starts mit dem Button und die remote downloads wars das dann
+                                    stat = STAT_FERTIG_OK;
+                                } else if (StarterClass.pruefen(Daten.getInstance(), datenDownload, start)) {
+                                    //fertig und OK
+                                    stat = STAT_FERTIG_OK;
                                 } else {
-                                    // dann wars das
+                                    //fertig und fehlerhaft
                                     stat = STAT_FERTIG_FEHLER;
                                 }
-                            break;
-                        case STAT_PRUEFEN:
-                            if (datenDownload.quelle == DatenDownload.QUELLE_BUTTON || datenDownload.isDownloadManager()) {
-                                //für die direkten Starts mit dem Button und die remote downloads wars das dann
-                                stat = STAT_FERTIG_OK;
-                            } else if (StarterClass.pruefen(Daten.getInstance(), datenDownload, start)) {
-                                //fertig und OK
-                                stat = STAT_FERTIG_OK;
-                            } else {
-                                //fertig und fehlerhaft
-                                stat = STAT_FERTIG_FEHLER;
-                            }
-                            break;
-                        case STAT_FERTIG_FEHLER:
-                            start.status = Start.STATUS_ERR;
-                            stat = STAT_ENDE;
-                            break;
-                        case STAT_FERTIG_OK:
-                            start.status = Start.STATUS_FERTIG;
-                            stat = STAT_ENDE;
-                            break;
+                                break;
+                            case STAT_FERTIG_FEHLER:
+                                start.status = Start.STATUS_ERR;
+                                stat = STAT_ENDE;
+                                break;
+                            case STAT_FERTIG_OK:
+                                start.status = Start.STATUS_FERTIG;
+                                stat = STAT_ENDE;
+                                break;
+                        }
                     }
                 }
+            } catch (Exception ex) {
+                logger.error("run()", ex);
+                SwingUtilities.invokeLater(() ->
+                        new MeldungDownloadfehler(MediathekGui.ui(), ex.getLocalizedMessage(), datenDownload).setVisible(true));
+            } finally {
+                bandwidth.close();
             }
-        } catch (Exception ex) {
-            logger.error("run()", ex);
-            SwingUtilities.invokeLater(() ->
-                    new MeldungDownloadfehler(MediathekGui.ui(), ex.getLocalizedMessage(), datenDownload).setVisible(true));
-        }
-
-        StarterClass.finalizeDownload(datenDownload, start, state);
-
-        waitForPendingDownloads();
-
-        MessageBus.getMessageBus().publish(new DownloadFinishedEvent());
-    }
-
-    private void startInfoFileDownload() {
-        final boolean downloadInfoFile = Boolean.parseBoolean(datenDownload.arr[DatenDownload.DOWNLOAD_INFODATEI]);
-        if (downloadInfoFile) {
-            logger.trace("Starting info file download");
-
-            infoFuture = CompletableFuture.runAsync(() -> {
-                try {
-                    MVInfoFile infoFile = new MVInfoFile();
-                    infoFile.writeInfoFile(datenDownload);
-                } catch (IOException ex) {
-                    logger.error("Failed to write info file", ex);
-                }
-            });
-        }
-    }
 
-    private void startSubtitleFileDownload() {
-        if (Boolean.parseBoolean(datenDownload.arr[DatenDownload.DOWNLOAD_SUBTITLE])) {
-            logger.trace("Starting subtitle file download");
-            subtitleFuture = CompletableFuture.runAsync(() -> {
-                MVSubtitle subtitleFile = new MVSubtitle();
-                subtitleFile.writeSubtitle(datenDownload);
-            });
+            StarterClass.finalizeDownload(datenDownload, start, state);
         }
-    }
-
-    private void waitForPendingDownloads() {
-        try {
-            if (infoFuture != null)
-                infoFuture.get();
-
-            if (subtitleFuture != null)
-                subtitleFuture.get();
 
-        } catch (InterruptedException | ExecutionException e) {
-            logger.error("waitForPendingDownloads().", e);
-        }
+        MessageBus.getMessageBus().publish(new DownloadFinishedEvent());
     }
 
     private boolean starten() {
@@ -229,7 +198,7 @@ public class ExternalProgramDownload extends Thread {
         // die Reihenfolge: startcounter - startmeldung ist wichtig!
         start.startcounter++;
         StarterClass.startmeldung(datenDownload, start);
-        RuntimeExec runtimeExec = new RuntimeExec(datenDownload.mVFilmSize, datenDownload.start,
+        RuntimeExec runtimeExec = new RuntimeExec(datenDownload.mVFilmSize, datenDownload.start, bandwidth,
                 datenDownload.arr[DatenDownload.DOWNLOAD_PROGRAMM_AUFRUF], datenDownload.arr[DatenDownload.DOWNLOAD_PROGRAMM_AUFRUF_ARRAY]);
         start.process = runtimeExec.exec(true);
         if (start.process != null) {
@@ -248,21 +217,17 @@ public class ExternalProgramDownload extends Thread {
             return false;
         }
 
-        dialogAbbrechenIsVis = true;
         retAbbrechen = true;
         if (SwingUtilities.isEventDispatchThread()) {
             retAbbrechen = abbrechen_();
         } else {
-            SwingUtilities.invokeLater(() ->
-            {
-                retAbbrechen = abbrechen_();
-                dialogAbbrechenIsVis = false;
-            });
-        }
-        while (dialogAbbrechenIsVis) {
             try {
-                wait(100);
-            } catch (Exception ignored) {
+                SwingUtilities.invokeAndWait(() -> retAbbrechen = abbrechen_());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                state = HttpDownloadState.CANCEL;
+            } catch (InvocationTargetException e) {
+                logger.error("cancelDownload()", e);
             }
         }
         return retAbbrechen;
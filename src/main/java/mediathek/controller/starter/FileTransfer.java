@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Copy loop of direct downloads.
+ * Data is read in blocks of up to {@link #BUFFER_SIZE} and written to a {@link FileChannel} without any per-block bookkeeping,
+ * the progress is published through a counter which is sampled by the caller.
+ */
+final class FileTransfer {
+    static final int BUFFER_SIZE = 256 * 1024;
+
+    private FileTransfer() {
+    }
+
+    /**
+     * Copy a stream to the current position of a channel.
+     *
+     * @param in            the source.
+     * @param channel       the target.
+     * @param transferred   gets incremented after every written block.
+     * @param stopRequested checked before every block, the copy stops as soon as it returns true.
+     * @return the number of bytes copied.
+     */
+    static long copy(@NotNull InputStream in, @NotNull FileChannel channel, @NotNull AtomicLong transferred,
+                     @NotNull BooleanSupplier stopRequested) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final var byteBuffer = ByteBuffer.wrap(buffer);
+        long total = 0;
+        int len;
+        // read() returns what is available instead of waiting for a full buffer, slow or throttled sources
+        // would otherwise delay stop requests and progress updates by seconds
+        while (!stopRequested.getAsBoolean() && (len = in.read(buffer)) != -1) {
+            byteBuffer.clear().limit(len);
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+            transferred.addAndGet(len);
+            total += len;
+        }
+        return total;
+    }
+}
@@ -23,6 +23,7 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import mediathek.config.Config;
+import mediathek.controller.BandwidthLimiter;
 import mediathek.gui.messages.DownloadProgressChangedEvent;
 import mediathek.tool.MVFilmSize;
 import mediathek.tool.MessageBus;
@@ -33,12 +34,13 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.StringTokenizer;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -65,13 +67,19 @@ public class RuntimeExec {
     private long oldSize;
     private long oldSecs;
     private MVFilmSize mVFilmSize;
+    private BandwidthLimiter.Participant bandwidth;
+    /**
+     * Bytes reported by the program which have already been accounted for in the bandwidth limit.
+     */
+    private final AtomicLong accountedBytes = new AtomicLong();
     private String[] arrProgCallArray;
     private String strProgCallArray = "";
 
-    public RuntimeExec(MVFilmSize mVFilmSize, Start start,
+    public RuntimeExec(MVFilmSize mVFilmSize, Start start, BandwidthLimiter.Participant bandwidth,
                        String strProgCall, String strProgCallArray) {
         this.mVFilmSize = mVFilmSize;
         this.start = start;
+        this.bandwidth = bandwidth;
         this.strProgCall = strProgCall;
         this.arrProgCallArray = strProgCallArray.split(TRENNER_PROG_ARRAY);
         this.strProgCallArray = strProgCallArray;
@@ -93,7 +101,7 @@ public class RuntimeExec {
                     logger.info(" -> " + strProgCallArray);
                     logger.info("=====================");
                 }
-                process = Runtime.getRuntime().exec(arrProgCallArray);
+                process = new ProcessBuilder(arrProgCallArray).redirectErrorStream(true).start();
             } else {
                 if (log) {
                     logger.info("=====================");
@@ -101,22 +109,42 @@ public class RuntimeExec {
                     logger.info(" -> " + strProgCall);
                     logger.info("=====================");
                 }
-                process = Runtime.getRuntime().exec(strProgCall);
+                process = new ProcessBuilder(splitCommand(strProgCall)).redirectErrorStream(true).start();
             }
 
-            Thread clearIn = new Thread(new ClearInOut(IoType.INPUT, process));
-            Thread clearOut = new Thread(new ClearInOut(IoType.ERROR, process));
-            clearIn.setName("ClearIn: " + clearIn.threadId());
-            clearOut.setName("ClearOut: " + clearOut.threadId());
-            clearIn.start();
-            clearOut.start();
+            // error output is merged into the input stream, one virtual thread drains both
+            Thread.ofVirtual()
+                    .name("ClearInOut: " + processNr.incrementAndGet())
+                    .start(new ClearInOut(process));
         } catch (Exception ex) {
             logger.error("Fehler beim Starten", ex);
         }
         return process;
     }
 
-    private enum IoType {INPUT, ERROR}
+    /**
+     * Report the growth of the output to the bandwidth limiter.
+     *
+     * @param bytes the total number of bytes written by the program.
+     */
+    private void accountBandwidth(long bytes) {
+        if (bandwidth != null) {
+            final long previous = accountedBytes.getAndAccumulate(bytes, Math::max);
+            bandwidth.account(bytes - previous);
+        }
+    }
+
+    /**
+     * Split a command line at whitespace like {@link Runtime#exec(String)} does.
+     */
+    private static String[] splitCommand(@NotNull String command) {
+        final var tokenizer = new StringTokenizer(command);
+        final String[] result = new String[tokenizer.countTokens()];
+        for (int i = 0; tokenizer.hasMoreTokens(); i++) {
+            result[i] = tokenizer.nextToken();
+        }
+        return result;
+    }
 
     /**
      * This loader will compile regexp patterns when they are not in cache.
@@ -131,29 +159,18 @@ public class RuntimeExec {
     }
 
     private class ClearInOut implements Runnable {
-        private final IoType art;
         private final Process process;
         private int percent;
         private int percent_start = -1;
 
-        public ClearInOut(IoType art, Process process) {
-            this.art = art;
+        public ClearInOut(Process process) {
             this.process = process;
         }
 
         @Override
         public void run() {
-            final String titel;
-            final InputStream in;
-            if (art == IoType.INPUT) {
-                in = process.getInputStream();
-                titel = "INPUTSTREAM";
-            } else {
-                in = process.getErrorStream();
-                titel = String.format("ERRORSTREAM [%d]", processNr.incrementAndGet());
-            }
-
-            try (in;
+            final String titel = Thread.currentThread().getName();
+            try (var in = process.getInputStream();
                  var isr = new InputStreamReader(in);
                  var buff = new BufferedReader(isr)) {
                 String inStr;
@@ -194,6 +211,7 @@ public class RuntimeExec {
                         try {
                             final long aktSize = Integer.parseInt(StringUtils.replace(s, "kB", ""));
                             mVFilmSize.setAktSize(aktSize * 1_000);
+                            accountBandwidth(aktSize * 1_000);
                             final var akt = Duration.between(start.startTime, LocalDateTime.now()).toSeconds();
                             if (oldSecs < akt - 5) {
                                 start.bandbreite = (aktSize - oldSize) * 1_000 / (akt - oldSecs);
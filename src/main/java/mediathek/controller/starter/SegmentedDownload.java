@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import mediathek.controller.BandwidthLimiter;
+import mediathek.controller.MVBandwidthCountingInputStream;
+import mediathek.controller.ThrottlingInputStream;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Download of one file with several parallel HTTP range requests.
+ * Every segment writes at its own offset into a preallocated part file which replaces the target file once all
+ * segments are complete.
+ * The progress of all segments is stored next to the target file so that an interrupted download can be continued.
+ */
+class SegmentedDownload {
+    /**
+     * Segments smaller than this are not worth an extra connection.
+     */
+    static final long MIN_SEGMENT_SIZE = 8L * 1024 * 1024;
+    private static final String STATE_FILE_SUFFIX = ".segments";
+    private static final String PART_FILE_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL_MS = 250;
+    private static final long STATE_SAVE_INTERVAL_NS = TimeUnit.SECONDS.toNanos(2);
+    private static final Logger logger = LogManager.getLogger();
+    private final OkHttpClient httpClient;
+    private final HttpUrl url;
+    private final String userAgent;
+    private final Path file;
+    private final long contentLength;
+    private final List<Segment> segments;
+    private final BandwidthLimiter.Participant bandwidth;
+
+    SegmentedDownload(@NotNull OkHttpClient httpClient, @NotNull HttpUrl url, @NotNull String userAgent,
+                      @NotNull Path file, long contentLength, @NotNull List<Segment> segments,
+                      @NotNull BandwidthLimiter.Participant bandwidth) {
+        this.httpClient = httpClient;
+        this.url = url;
+        this.userAgent = userAgent;
+        this.file = file;
+        this.contentLength = contentLength;
+        this.segments = segments;
+        this.bandwidth = bandwidth;
+    }
+
+    /**
+     * Calculate how many segments should be used for a download.
+     *
+     * @param contentLength the size of the download in bytes.
+     * @param maxSegments   the configured maximum number of connections.
+     * @return the number of segments, 1 if the download should not be split.
+     */
+    static int getSegmentCount(long contentLength, int maxSegments) {
+        return (int) Math.max(1, Math.min(maxSegments, contentLength / MIN_SEGMENT_SIZE));
+    }
+
+    /**
+     * Split a download into segments of nearly equal size.
+     *
+     * @param contentLength the size of the download in bytes.
+     * @param count         the number of segments.
+     * @return the segments in file order.
+     */
+    static List<Segment> plan(long contentLength, int count) {
+        List<Segment> result = new ArrayList<>(count);
+        final long segmentSize = contentLength / count;
+        long start = 0;
+        for (int i = 0; i < count; i++) {
+            final long end = i == count - 1 ? contentLength : start + segmentSize;
+            result.add(new Segment(start, end, 0));
+            start = end;
+        }
+        return result;
+    }
+
+    static Path getStatePath(@NotNull Path file) {
+        return file.resolveSibling(file.getFileName() + STATE_FILE_SUFFIX);
+    }
+
+    /**
+     * @return the file which receives the data until the download is complete.
+     */
+    static Path getPartPath(@NotNull Path file) {
+        return file.resolveSibling(file.getFileName() + PART_FILE_SUFFIX);
+    }
+
+    /**
+     * Store the progress of all segments.
+     * The first line contains the content length, every following line start, end and downloaded bytes of a segment.
+     */
+    static void writeState(@NotNull Path file, long contentLength, @NotNull List<Segment> segments) throws IOException {
+        final var statePath = getStatePath(file);
+        final var tempPath = statePath.resolveSibling(statePath.getFileName() + ".tmp");
+        StringBuilder sb = new StringBuilder();
+        sb.append(contentLength).append('\n');
+        for (var segment : segments) {
+            sb.append(segment.start).append(' ')
+                    .append(segment.end).append(' ')
+                    .append(segment.getDownloaded()).append('\n');
+        }
+        Files.writeString(tempPath, sb, StandardCharsets.UTF_8);
+        Files.move(tempPath, statePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the progress of a previous run.
+     *
+     * @param file          the download target.
+     * @param contentLength the current size of the download.
+     * @return the segments or null if there is no usable state for this content length.
+     */
+    static @Nullable List<Segment> readState(@NotNull Path file, long contentLength) {
+        final var statePath = getStatePath(file);
+        if (!Files.exists(statePath))
+            return null;
+
+        try {
+            final var lines = Files.readAllLines(statePath, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || Long.parseLong(lines.getFirst().trim()) != contentLength)
+                return null;
+
+            List<Segment> result = new ArrayList<>();
+            long expectedStart = 0;
+            for (var line : lines.subList(1, lines.size())) {
+                if (line.isBlank())
+                    continue;
+                final var parts = line.trim().split(" ");
+                if (parts.length != 3)
+                    return null;
+                final long start = Long.parseLong(parts[0]);
+                final long end = Long.parseLong(parts[1]);
+                final long downloaded = Long.parseLong(parts[2]);
+                if (start != expectedStart || end <= start || downloaded < 0 || downloaded > end - start)
+                    return null;
+                result.add(new Segment(start, end, downloaded));
+                expectedStart = end;
+            }
+            return expectedStart == contentLength ? result : null;
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Failed to read segment state {}", statePath, e);
+            return null;
+        }
+    }
+
+    static void deleteState(@NotNull Path file) throws IOException {
+        Files.deleteIfExists(getStatePath(file));
+    }
+
+    /**
+     * Remove the part file and the segment state of an incomplete download.
+     */
+    static void deleteTemporaryFiles(@NotNull Path file) throws IOException {
+        Files.deleteIfExists(getPartPath(file));
+        deleteState(file);
+    }
+
+    /**
+     * @return the number of bytes already downloaded by all segments.
+     */
+    long getDownloaded() {
+        return segments.stream().mapToLong(Segment::getDownloaded).sum();
+    }
+
+    /**
+     * Download all incomplete segments in parallel.
+     * The segment state is saved regularly. Once the download is complete the part file gets moved to the target
+     * file and the state is removed.
+     *
+     * @param counter       all bytes read get counted here.
+     * @param stopRequested checked regularly, the download stops as soon as it returns true.
+     * @param progress      receives the number of newly downloaded bytes. Called on the calling thread only.
+     * @throws IOException if a segment failed. Progress of the other segments is kept for a later continuation.
+     */
+    void download(@NotNull MVBandwidthCountingInputStream counter, @NotNull BooleanSupplier stopRequested,
+                  @NotNull LongConsumer progress) throws IOException {
+        final var failed = new AtomicBoolean();
+        final BooleanSupplier cancelled = () -> failed.get() || stopRequested.getAsBoolean();
+        final var incomplete = segments.stream().filter(s -> !s.isComplete()).toList();
+        long reported = getDownloaded();
+        Throwable error = null;
+
+        // the executor must be closed first so that all segments are finished before the channel gets closed
+        try (var channel = FileChannel.open(getPartPath(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             var executor = Executors.newThreadPerTaskExecutor(
+                     Thread.ofVirtual().name("SEGMENT_" + file.getFileName() + "_", 0).factory())) {
+            preallocate(channel);
+            writeState(file, contentLength, segments);
+
+            final var futures = incomplete.stream()
+                    .map(segment -> CompletableFuture.runAsync(() -> {
+                        try {
+                            downloadSegment(segment, channel, counter, cancelled);
+                        } catch (IOException e) {
+                            failed.set(true);
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            final var allSegments = CompletableFuture.allOf(futures);
+
+            long lastSave = System.nanoTime();
+            while (true) {
+                try {
+                    allSegments.get(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException ignored) {
+                } catch (ExecutionException e) {
+                    failed.set(true);
+                    error = e.getCause() instanceof UncheckedIOException ex ? ex.getCause() : e.getCause();
+                    break;
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                    error = e;
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                reported = reportProgress(progress, reported);
+                if (System.nanoTime() - lastSave >= STATE_SAVE_INTERVAL_NS) {
+                    writeState(file, contentLength, segments);
+                    lastSave = System.nanoTime();
+                }
+            }
+        }
+        reportProgress(progress, reported);
+
+        if (segments.stream().allMatch(Segment::isComplete)) {
+            Files.move(getPartPath(file), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteState(file);
+        } else {
+            writeState(file, contentLength, segments);
+        }
+
+        if (error instanceof IOException ex)
+            throw ex;
+        else if (error != null)
+            throw new IOException("Segmented download failed", error);
+    }
+
+    private long reportProgress(@NotNull LongConsumer progress, long reported) {
+        final long downloaded = getDownloaded();
+        if (downloaded != reported)
+            progress.accept(downloaded - reported);
+        return downloaded;
+    }
+
+    /**
+     * Bring the file to its final size so that every segment can write at its offset.
+     */
+    private void preallocate(@NotNull FileChannel channel) throws IOException {
+        final long size = channel.size();
+        if (size > contentLength) {
+            channel.truncate(contentLength);
+        } else if (size < contentLength) {
+            channel.write(ByteBuffer.wrap(new byte[1]), contentLength - 1);
+        }
+    }
+
+    private void downloadSegment(@NotNull Segment segment, @NotNull FileChannel channel,
+                                 @NotNull MVBandwidthCountingInputStream counter,
+                                 @NotNull BooleanSupplier cancelled) throws IOException {
+        final long position = segment.getPosition();
+        final var request = new Request.Builder().url(url).get()
+                .header("User-Agent", userAgent)
+                .header("Range", "bytes=" + position + '-' + (segment.end - 1))
+                .build();
+
+        try (var response = httpClient.newCall(request).execute()) {
+            final var contentRange = response.header("Content-Range");
+            if (response.code() != HttpURLConnection.HTTP_PARTIAL
+                    || contentRange == null || !contentRange.startsWith("bytes " + position + '-')) {
+                throw new IOException("Range request " + request.header("Range") + " failed, HTTP " + response.code());
+            }
+
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            final var byteBuffer = ByteBuffer.wrap(buffer);
+            try (var in = counter.createCountingStream(new ThrottlingInputStream(response.body().byteStream(), bandwidth))) {
+                while (!segment.isComplete() && !cancelled.getAsBoolean()) {
+                    final int len = in.read(buffer, 0, (int) Math.min(buffer.length, segment.getRemaining()));
+                    if (len == -1)
+                        throw new EOFException("Segment ended at " + segment.getPosition() + ", expected end " + segment.end);
+
+                    byteBuffer.clear().limit(len);
+                    long writePosition = segment.getPosition();
+                    while (byteBuffer.hasRemaining()) {
+                        writePosition += channel.write(byteBuffer, writePosition);
+                    }
+                    segment.addDownloaded(len);
+                }
+            }
+        }
+    }
+
+    /**
+     * A byte range of the download.
+     */
+    static final class Segment {
+        /**
+         * First byte of the segment.
+         */
+        final long start;
+        /**
+         * First byte after the segment.
+         */
+        final long end;
+        private final AtomicLong downloaded;
+
+        Segment(long start, long end, long downloaded) {
+            this.start = start;
+            this.end = end;
+            this.downloaded = new AtomicLong(downloaded);
+        }
+
+        long getDownloaded() {
+            return downloaded.get();
+        }
+
+        void addDownloaded(long len) {
+            downloaded.addAndGet(len);
+        }
+
+        /**
+         * @return the file position where the next byte of this segment is written.
+         */
+        long getPosition() {
+            return start + downloaded.get();
+        }
+
+        long getRemaining() {
+            return end - getPosition();
+        }
+
+        boolean isComplete() {
+            return getRemaining() <= 0;
+        }
+    }
+}
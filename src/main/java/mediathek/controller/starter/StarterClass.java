@@ -7,15 +7,14 @@ import mediathek.controller.history.SeenHistoryController;
 import mediathek.daten.DatenDownload;
 import mediathek.daten.DatenFilm;
 import mediathek.daten.DatenPset;
-import mediathek.gui.messages.ButtonStartEvent;
-import mediathek.gui.messages.DownloadProgressChangedEvent;
-import mediathek.gui.messages.StartEvent;
+import mediathek.gui.messages.*;
 import mediathek.mac.SpotlightCommentWriter;
 import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.FileUtils;
 import mediathek.tool.MessageBus;
 import mediathek.tool.notification.MessageType;
 import mediathek.tool.notification.NotificationMessage;
+import net.engio.mbassy.listener.Handler;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,19 +30,31 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class StarterClass {
     private static final Logger logger = LogManager.getLogger(StarterClass.class);
     private final Daten daten;
     private final StarterThread starterThread;
-    private final AtomicBoolean pause = new AtomicBoolean(false);
+    /**
+     * {@link System#nanoTime()} until which no new downloads get started.
+     */
+    private volatile long pauseUntil = System.nanoTime();
+    /**
+     * Every running download gets its own virtual thread, so even large abo runs use only a few platform threads.
+     */
+    private final ExecutorService downloadExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("DOWNLOAD_", 0).factory());
 
     public StarterClass(Daten daten) {
         this.daten = daten;
         starterThread = new StarterThread();
         starterThread.start();
+        MessageBus.getMessageBus().subscribe(this);
     }
 
     static boolean pruefen(Daten daten, DatenDownload datenDownload, Start start) {
@@ -94,6 +105,26 @@ public class StarterClass {
         }
     }
 
+    /**
+     * Delete the part file and segment state an incomplete download left next to its target file.
+     *
+     * @param datenDownload the download which will not be continued.
+     */
+    public static void deleteTemporaryFiles(@NotNull DatenDownload datenDownload) {
+        final var fileName = datenDownload.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME];
+        if (!fileName.isEmpty()) {
+            deleteTemporaryFiles(Paths.get(fileName));
+        }
+    }
+
+    static void deleteTemporaryFiles(@NotNull Path path) {
+        try {
+            SegmentedDownload.deleteTemporaryFiles(path);
+        } catch (IOException ex) {
+            logger.warn("Failed to delete temporary files of {}", path, ex);
+        }
+    }
+
     static void startmeldung(DatenDownload datenDownload, Start start) {
         ArrayList<String> text = new ArrayList<>();
         boolean abspielen = datenDownload.quelle == DatenDownload.QUELLE_BUTTON;
@@ -269,6 +300,24 @@ public class StarterClass {
         return starterThread;
     }
 
+    /**
+     * Stop starting new downloads and cancel the running ones.
+     * Downloads should have been asked to stop via {@link Start#stoppen} before, remaining ones get interrupted.
+     *
+     * @param timeout maximum time to wait for the downloads to finish.
+     */
+    public void shutdown(@NotNull Duration timeout) {
+        starterThread.interrupt();
+        downloadExecutor.shutdownNow();
+        try {
+            if (!downloadExecutor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Downloads did not finish within {}", timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public synchronized void urlMitProgrammStarten(DatenPset pSet, DatenFilm film, String aufloesung) {
         // url mit dem Programm mit der Nr. starten (Button oder TabDownload "rechte Maustaste")
         // Quelle "Button" ist immer ein vom User gestarteter Film, also Quelle_Button!!!!!!!!!!!
@@ -292,7 +341,7 @@ public class StarterClass {
     }
 
     public void delayNewStarts() {
-        pause.set(true);
+        pauseUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
     }
 
     private void reStartmeldung(DatenDownload datenDownload) {
@@ -303,12 +352,44 @@ public class StarterClass {
         logger.info(text);
     }
 
+    @Handler
+    private void handleStartEvent(StartEvent e) {
+        starterThread.downloadListChanged();
+    }
+
+    @Handler
+    private void handleDownloadListChanged(DownloadListChangedEvent e) {
+        starterThread.downloadListChanged();
+    }
+
+    @Handler
+    private void handleDownloadQueueRankChanged(DownloadQueueRankChangedEvent e) {
+        starterThread.downloadListChanged();
+    }
+
+    @Handler
+    private void handleParallelDownloadNumberChanged(ParallelDownloadNumberChangedEvent e) {
+        starterThread.wakeUp();
+    }
+
     // ********************************************
     // Hier wird dann gestartet
     // Ewige Schleife die die Downloads startet
     // ********************************************
     public class StarterThread extends Thread {
-        private static final long DOWNLOAD_DELAY = 2;
+        /**
+         * Fallback in case a change of the download list is not announced by an event.
+         */
+        private static final long MAX_IDLE_SECONDS = 30;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        /**
+         * Guarded by {@link #lock}.
+         */
+        private final DownloadQueue queue = new DownloadQueue();
+        private boolean listChanged = true;
+        private boolean pendingWakeUp;
+
         public StarterThread() {
             setName(StarterThread.class.toString());
         }
@@ -317,16 +398,17 @@ public class StarterClass {
         public void run() {
             while (!isInterrupted()) {
                 try {
-                    DatenDownload datenDownload;
-                    while ((datenDownload = getNextStart()) != null) {
-                        launchDownloadThread(datenDownload);
-                        //alle 2 Sekunden einen Download starten
-                        TimeUnit.SECONDS.sleep(DOWNLOAD_DELAY);
+                    awaitWakeUp();
+                    final long pauseNanos = pauseUntil - System.nanoTime();
+                    if (pauseNanos > 0) {
+                        // beim Löschen der Downloads, kann das Starten etwas "pausiert" werden
+                        // damit ein zu Löschender Download nicht noch schnell gestartet wird
+                        TimeUnit.NANOSECONDS.sleep(pauseNanos);
                     }
-                    daten.getListeDownloadsButton().buttonStartsPutzen(); // Button Starts aus der Liste löschen
-                    TimeUnit.SECONDS.sleep(DOWNLOAD_DELAY);
+                    startDownloads();
                 }
                 catch (InterruptedException ignored) {
+                    interrupt();
                 }
                 catch (Exception ex) {
                     logger.error("Fehler in Starten Thread:", ex);
@@ -334,50 +416,129 @@ public class StarterClass {
             }
         }
 
-        private synchronized DatenDownload getNextStart() throws InterruptedException {
-            // get: erstes passendes Element der Liste zurückgeben oder null
-            // und versuchen dass bei mehreren laufenden Downloads ein anderer Sender gesucht wird
-            if (pause.get()) {
-                // beim Löschen der Downloads, kann das Starten etwas "pausiert" werden
-                // damit ein zu Löschender Download nicht noch schnell gestartet wird
-                TimeUnit.SECONDS.sleep(5);
-                pause.set(false);
+        /**
+         * Waiting downloads were added, removed or reordered.
+         */
+        void downloadListChanged() {
+            lock.lock();
+            try {
+                listChanged = true;
+                pendingWakeUp = true;
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Check again if downloads can be started, e.g. because the number of parallel downloads changed.
+         */
+        void wakeUp() {
+            lock.lock();
+            try {
+                pendingWakeUp = true;
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void awaitWakeUp() throws InterruptedException {
+            lock.lock();
+            try {
+                long nanos = TimeUnit.SECONDS.toNanos(MAX_IDLE_SECONDS);
+                while (!pendingWakeUp) {
+                    if (nanos <= 0) {
+                        listChanged = true;
+                        break;
+                    }
+                    nanos = changed.awaitNanos(nanos);
+                }
+                pendingWakeUp = false;
+            } finally {
+                lock.unlock();
             }
+        }
 
+        /**
+         * Start as many waiting downloads as allowed.
+         * The download list is only read if it has changed since the last call.
+         */
+        private void startDownloads() {
             final var listeDownloads = daten.getListeDownloads();
-            DatenDownload download = listeDownloads.getNextStart();
-            if (download == null) {
-                // dann versuchen einen Fehlerhaften nochmal zu starten
-                download = listeDownloads.getRestartDownload();
-                if (download != null) {
-                    reStartmeldung(download);
+            final int maxNumDownloads = ApplicationConfiguration.getConfiguration().getInt(ApplicationConfiguration.DOWNLOAD_MAX_SIMULTANEOUS_NUM, 1);
+
+            lock.lock();
+            try {
+                if (listChanged) {
+                    listChanged = false;
+                    queue.rebuild(listeDownloads.getWaitingDownloads());
+                }
+
+                DatenDownload datenDownload;
+                while ((datenDownload = queue.next(maxNumDownloads)) != null) {
+                    launchDownloadThread(datenDownload);
                 }
+
+                if (queue.getRunning() == 0) {
+                    // dann versuchen einen Fehlerhaften nochmal zu starten
+                    datenDownload = listeDownloads.getRestartDownload();
+                    if (datenDownload != null) {
+                        reStartmeldung(datenDownload);
+                        queue.markRunning(datenDownload);
+                        launchDownloadThread(datenDownload);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void downloadFinished(@NotNull DatenDownload datenDownload, @NotNull Start start) {
+            lock.lock();
+            try {
+                queue.finished(start);
+                pendingWakeUp = true;
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+
+            if (datenDownload.quelle == DatenDownload.QUELLE_BUTTON) {
+                daten.getListeDownloadsButton().buttonStartsPutzen(); // Button Starts aus der Liste löschen
             }
-            return download;
         }
 
         /**
          * This will start the download process.
+         * The starter gets notified when the download has finished.
          *
          * @param datenDownload The {@link mediathek.daten.DatenDownload} info object for download.
          */
         private void launchDownloadThread(DatenDownload datenDownload) {
-            datenDownload.start.startTime = LocalDateTime.now();
+            // the download may be restarted with a new start before this run has ended
+            final var start = datenDownload.start;
+            start.startTime = LocalDateTime.now();
             MessageBus.getMessageBus().publishAsync(new DownloadProgressChangedEvent());
 
-            Thread downloadThread;
+            final Runnable download = switch (datenDownload.art) {
+                case DatenDownload.ART_PROGRAMM -> new ExternalProgramDownload(datenDownload);
+                case DatenDownload.ART_DOWNLOAD -> new DirectHttpDownload(daten, datenDownload);
+                default -> null;
+            };
+            if (download == null) {
+                logger.error("StarterClass.Starten - Switch-default");
+                downloadFinished(datenDownload, start);
+                return;
+            }
 
-            switch (datenDownload.art) {
-                case DatenDownload.ART_PROGRAMM -> {
-                    downloadThread = new ExternalProgramDownload(datenDownload);
-                    downloadThread.start();
-                }
-                case DatenDownload.ART_DOWNLOAD -> {
-                    downloadThread = new DirectHttpDownload(daten, datenDownload);
-                    downloadThread.start();
+            downloadExecutor.execute(() -> {
+                try {
+                    download.run();
+                } finally {
+                    downloadFinished(datenDownload, start);
                 }
-                default -> logger.error("StarterClass.Starten - Switch-default");
-            }
+            });
         }
     }
 }
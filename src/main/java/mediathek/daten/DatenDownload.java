@@ -546,6 +546,16 @@ public final class DatenDownload implements Comparable<DatenDownload> {
         return Boolean.parseBoolean(arr[DOWNLOAD_PROGRAMM_RESTART]);
     }
 
+    /**
+     * Share of a limited download bandwidth.
+     * Downloads started by the user get twice the share of abo downloads.
+     *
+     * @return the weight for {@link mediathek.controller.BandwidthLimiter#register(String, double)}.
+     */
+    public double getBandwidthWeight() {
+        return quelle == QUELLE_ABO ? 1.0 : 2.0;
+    }
+
     public boolean isDownloadManager() {
         if (arr[DOWNLOAD_PROGRAMM_DOWNLOADMANAGER].isEmpty()) {
             return false;
@@ -1,7 +1,5 @@
 package mediathek.daten;
 
-import com.google.common.hash.HashCode;
-import com.google.common.hash.Hashing;
 import mediathek.config.Config;
 import mediathek.daten.abo.DatenAbo;
 import mediathek.javafx.bookmark.BookmarkData;
@@ -16,7 +14,6 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -55,15 +52,30 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * List of countries which can view this film.
      */
     public final EnumSet<Country> countrySet = EnumSet.noneOf(Country.class);
-    private final EnumSet<DatenFilmFlags> flags = EnumSet.noneOf(DatenFilmFlags.class);
     /**
      * File size in MByte
      */
     private final FilmSize filmSize = new FilmSize();
+    private final int filmNr;
     /**
-     * Stores all URLs, some keys may not exist.
+     * Bit mask of {@link DatenFilmFlags}, indexed by ordinal.
+     * Plain fields instead of EnumSet/EnumMap keep the footprint of the 600k+ films in a list small.
      */
-    private final EnumMap<MapKeys, Object> dataMap = new EnumMap<>(MapKeys.class);
+    private int flags;
+    /**
+     * URLs, null if not available.
+     */
+    private String urlNormalQuality;
+    private String urlHighQuality;
+    private String urlLowQuality;
+    private String urlSubtitle;
+    private String urlWebsite;
+    private BookmarkData bookmark;
+    private DatenAbo abo;
+    /**
+     * Raw film date in seconds as read from the filmlist, evaluated by {@link #init()}.
+     */
+    private long datumLong;
     /**
      * film date stored IN SECONDS!!!
      */
@@ -78,12 +90,26 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * film duration or film length in seconds.
      */
     private int filmLength;
+    /**
+     * Cached identity, reset whenever one of its source fields changes.
+     */
+    private FilmIdentity identity;
 
     public DatenFilm() {
-        dataMap.put(MapKeys.FILM_NR, FILMNR_GENERATOR.getAndIncrement());
+        this(FILMNR_GENERATOR.getAndIncrement());
+    }
+
+    /**
+     * Create a film object with a film number previously obtained by {@link #reserveFilmNumbers(int)}.
+     *
+     * @param filmNr the reserved film number.
+     */
+    public DatenFilm(int filmNr) {
+        this.filmNr = filmNr;
     }
 
     public DatenFilm(@NotNull DatenFilm other) {
+        this.filmNr = other.filmNr;
         this.datumFilm = other.datumFilm;
         this.filmSize.setSize(other.filmSize.toString());
         this.description = other.description;
@@ -91,10 +117,29 @@ public class DatenFilm implements Comparable<DatenFilm> {
         this.thema = other.thema;
         this.titel = other.titel;
         this.countrySet.addAll(other.countrySet);
-        this.dataMap.putAll(other.dataMap);
+        this.urlNormalQuality = other.urlNormalQuality;
+        this.urlHighQuality = other.urlHighQuality;
+        this.urlLowQuality = other.urlLowQuality;
+        this.urlSubtitle = other.urlSubtitle;
+        this.urlWebsite = other.urlWebsite;
+        this.bookmark = other.bookmark;
+        this.abo = other.abo;
+        this.datumLong = other.datumLong;
         this.datum = other.datum;
         this.sendeZeit = other.sendeZeit;
         this.filmLength = other.filmLength;
+        this.identity = other.identity;
+    }
+
+    /**
+     * Reserve a consecutive block of film numbers.
+     * Used when film objects are created out of order but must be numbered as if created sequentially.
+     *
+     * @param count the number of film numbers to reserve.
+     * @return the first reserved film number.
+     */
+    public static int reserveFilmNumbers(int count) {
+        return FILMNR_GENERATOR.getAndAdd(count);
     }
 
     /**
@@ -140,20 +185,26 @@ public class DatenFilm implements Comparable<DatenFilm> {
         }
     }
 
+    /**
+     * Set the film's length or duration.
+     *
+     * @param seconds length in seconds.
+     */
+    public void setFilmLength(int seconds) {
+        filmLength = seconds;
+    }
+
     public Optional<DatenAbo> getAboOptional() {
         var abo = getAbo();
         return abo == null ? Optional.empty() : Optional.of(abo);
     }
 
     public @Nullable DatenAbo getAbo() {
-        return (DatenAbo) dataMap.getOrDefault(MapKeys.ABO_DATA, null);
+        return abo;
     }
 
     public void setAbo(@Nullable DatenAbo abo) {
-        if (abo == null)
-            dataMap.remove(MapKeys.ABO_DATA);
-        else
-            dataMap.put(MapKeys.ABO_DATA, abo);
+        this.abo = abo;
     }
 
     public DatumFilm getDatumFilm() {
@@ -161,28 +212,25 @@ public class DatenFilm implements Comparable<DatenFilm> {
     }
 
     public String getLowQualityUrl() {
-        return (String)dataMap.getOrDefault(MapKeys.LOW_QUALITY_URL, "");
+        return StringUtils.defaultString(urlLowQuality);
     }
 
     public void setLowQualityUrl(@NotNull String url_low_quality) {
-        if (url_low_quality.isEmpty())
-            dataMap.remove(MapKeys.LOW_QUALITY_URL);
-        else
-            dataMap.put(MapKeys.LOW_QUALITY_URL, url_low_quality);
+        urlLowQuality = url_low_quality.isEmpty() ? null : url_low_quality;
     }
 
     public String getHighQualityUrl() {
-        return (String)dataMap.getOrDefault(MapKeys.HIGH_QUALITY_URL, "");
+        return StringUtils.defaultString(urlHighQuality);
     }
 
     public void setHighQualityUrl(@NotNull String urlHd) {
         if (urlHd.isEmpty())
-            dataMap.remove(MapKeys.HIGH_QUALITY_URL);
+            urlHighQuality = null;
         else {
             if (isCompressedUrl(urlHd)) {
                 urlHd = decompressUrl(urlHd);
             }
-            dataMap.put(MapKeys.HIGH_QUALITY_URL, urlHd);
+            urlHighQuality = urlHd;
         }
     }
 
@@ -202,11 +250,20 @@ public class DatenFilm implements Comparable<DatenFilm> {
             }
             datum_long = 0;
         }
-        dataMap.put(MapKeys.TEMP_DATUM_LONG, datum_long);
+        this.datumLong = datum_long;
+    }
+
+    /**
+     * Set the raw film date, evaluated by {@link #init()}.
+     *
+     * @param seconds film date in seconds, 0 if unknown.
+     */
+    public void setDatumLong(long seconds) {
+        this.datumLong = seconds;
     }
 
     public boolean isTrailerTeaser() {
-        return flags.contains(DatenFilmFlags.TRAILER_TEASER);
+        return hasFlag(DatenFilmFlags.TRAILER_TEASER);
     }
 
     /**
@@ -214,7 +271,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return true if it was seen before, false otherwise.
      */
     public boolean isDuplicate() {
-        return flags.contains(DatenFilmFlags.DUPLICATE);
+        return hasFlag(DatenFilmFlags.DUPLICATE);
     }
 
     /**
@@ -222,56 +279,35 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @param duplicate are we a duplicate?
      */
     public void setDuplicate(boolean duplicate) {
-        if (duplicate) {
-            flags.add(DatenFilmFlags.DUPLICATE);
-        }
-        else {
-            flags.remove(DatenFilmFlags.DUPLICATE);
-        }
+        setFlag(DatenFilmFlags.DUPLICATE, duplicate);
     }
 
     public void setTrailerTeaser(boolean val) {
-        if (val) {
-            flags.add(DatenFilmFlags.TRAILER_TEASER);
-        } else {
-            flags.remove(DatenFilmFlags.TRAILER_TEASER);
-        }
+        setFlag(DatenFilmFlags.TRAILER_TEASER, val);
     }
 
     public boolean isAudioVersion() {
-        return flags.contains(DatenFilmFlags.AUDIO_VERSION);
+        return hasFlag(DatenFilmFlags.AUDIO_VERSION);
     }
 
     public void setAudioVersion(boolean val) {
-        if (val) {
-            flags.add(DatenFilmFlags.AUDIO_VERSION);
-        } else {
-            flags.remove(DatenFilmFlags.AUDIO_VERSION);
-        }
+        setFlag(DatenFilmFlags.AUDIO_VERSION, val);
     }
 
     public boolean isPlayList() {
-        return flags.contains(DatenFilmFlags.PLAYLIST);
+        return hasFlag(DatenFilmFlags.PLAYLIST);
     }
 
     public void setPlayList(boolean val) {
-        if (val) {
-            flags.add(DatenFilmFlags.PLAYLIST);
-        } else {
-            flags.remove(DatenFilmFlags.PLAYLIST);
-        }
+        setFlag(DatenFilmFlags.PLAYLIST, val);
     }
 
     public boolean isSignLanguage() {
-        return flags.contains(DatenFilmFlags.SIGN_LANGUAGE);
+        return hasFlag(DatenFilmFlags.SIGN_LANGUAGE);
     }
 
     public void setSignLanguage(boolean val) {
-        if (val) {
-            flags.add(DatenFilmFlags.SIGN_LANGUAGE);
-        } else {
-            flags.remove(DatenFilmFlags.SIGN_LANGUAGE);
-        }
+        setFlag(DatenFilmFlags.SIGN_LANGUAGE, val);
     }
 
     /**
@@ -284,7 +320,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return the original internal film number
      */
     public int getFilmNr() {
-        return (int)dataMap.get(MapKeys.FILM_NR);
+        return filmNr;
     }
 
     /**
@@ -317,16 +353,12 @@ public class DatenFilm implements Comparable<DatenFilm> {
     }
 
     public String getWebsiteUrl() {
-        return (String)dataMap.getOrDefault(MapKeys.WEBSITE_URL, "");
+        return StringUtils.defaultString(urlWebsite);
     }
 
     public void setWebsiteUrl(String link) {
-        if (link == null || link.isEmpty()) {
-            dataMap.remove(MapKeys.WEBSITE_URL);
-        }
-        else {
-            dataMap.put(MapKeys.WEBSITE_URL, link);
-        }
+        identity = null;
+        urlWebsite = (link == null || link.isEmpty()) ? null : link;
     }
 
     /**
@@ -335,35 +367,23 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return true if it is a new entry, false otherwise.
      */
     public boolean isNew() {
-        return flags.contains(DatenFilmFlags.NEW_ENTRY);
+        return hasFlag(DatenFilmFlags.NEW_ENTRY);
     }
 
     public void setNew(final boolean newFilm) {
-        if (newFilm) {
-            flags.add(DatenFilmFlags.NEW_ENTRY);
-        } else {
-            flags.remove(DatenFilmFlags.NEW_ENTRY);
-        }
+        setFlag(DatenFilmFlags.NEW_ENTRY, newFilm);
     }
 
     public boolean isLivestream() {
-        return flags.contains(DatenFilmFlags.LIVESTREAM);
+        return hasFlag(DatenFilmFlags.LIVESTREAM);
     }
 
     public void setLivestream(boolean val) {
-        if (val) {
-            flags.add(DatenFilmFlags.LIVESTREAM);
-        } else {
-            flags.remove(DatenFilmFlags.LIVESTREAM);
-        }
+        setFlag(DatenFilmFlags.LIVESTREAM, val);
     }
 
     public void setBurnedInSubtitles(boolean val) {
-        if (val) {
-            flags.add(DatenFilmFlags.BURNED_IN_SUBTITLES);
-        } else {
-            flags.remove(DatenFilmFlags.BURNED_IN_SUBTITLES);
-        }
+        setFlag(DatenFilmFlags.BURNED_IN_SUBTITLES, val);
     }
 
     /**
@@ -372,7 +392,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return true if they are burned in, false othewise.
      */
     public boolean hasBurnedInSubtitles() {
-        return flags.contains(DatenFilmFlags.BURNED_IN_SUBTITLES);
+        return hasFlag(DatenFilmFlags.BURNED_IN_SUBTITLES);
     }
 
     /**
@@ -380,7 +400,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return true if a downloadable subtitle is available.
      */
     public boolean hasSubtitle() {
-        return dataMap.containsKey(MapKeys.SUBTITLE_URL);
+        return urlSubtitle != null;
     }
 
     /**
@@ -409,17 +429,18 @@ public class DatenFilm implements Comparable<DatenFilm> {
     }
 
     /**
-     * Return a unique index for comparison during updating the filmlist from diff.
+     * Return a unique identity for comparison during updating the filmlist from diff.
+     * Calculated only once, usually during {@link #init()}.
      *
-     * @return a unique hash
+     * @return the film identity
      */
-    public HashCode getSha256() {
-        return Hashing.sha256().newHasher()
-                .putUnencodedChars(getSender())
-                .putUnencodedChars(getThema())
-                .putUnencodedChars(getUrlNormalQuality())
-                .putUnencodedChars(getWebsiteUrl())
-                .hash();
+    public FilmIdentity getIdentity() {
+        var id = identity;
+        if (id == null) {
+            id = FilmIdentity.of(this);
+            identity = id;
+        }
+        return id;
     }
 
     /**
@@ -428,11 +449,11 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return true if HQ url is not empty.
      */
     public boolean isHighQuality() {
-        return dataMap.containsKey(MapKeys.HIGH_QUALITY_URL);
+        return urlHighQuality != null;
     }
 
     public boolean hasLowQuality() {
-        return dataMap.containsKey(MapKeys.LOW_QUALITY_URL);
+        return urlLowQuality != null;
     }
 
     @Override
@@ -447,23 +468,21 @@ public class DatenFilm implements Comparable<DatenFilm> {
     private void setupDatumFilm() {
         if (!getSendeDatum().isEmpty()) {
             // nur dann gibts ein Datum
-            long datum_long = (long)dataMap.getOrDefault(MapKeys.TEMP_DATUM_LONG, 0L);
-            if (datum_long == 0)
+            if (datumLong == 0)
             {
                 setSendeDatum("");
                 setSendeZeit("");
                 datumFilm = new DatumFilm(0);
-                dataMap.remove(MapKeys.TEMP_DATUM_LONG);
             }
             else {
-                datumFilm = new DatumFilm(TimeUnit.MILLISECONDS.convert(datum_long, TimeUnit.SECONDS));
-                dataMap.put(MapKeys.TEMP_DATUM_LONG, datum_long);
+                datumFilm = new DatumFilm(TimeUnit.MILLISECONDS.convert(datumLong, TimeUnit.SECONDS));
             }
         }
     }
 
     public void init() {
         setupDatumFilm();
+        identity = FilmIdentity.of(this);
     }
 
     /**
@@ -520,6 +539,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
 
     public void setSender(String sender) {
         this.sender = sender;
+        identity = null;
     }
 
     public String getThema() {
@@ -528,6 +548,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
 
     public void setThema(String thema) {
         this.thema = thema;
+        identity = null;
     }
 
     public String getTitle() {
@@ -570,26 +591,20 @@ public class DatenFilm implements Comparable<DatenFilm> {
     }
 
     public String getUrlNormalQuality() {
-        return (String)dataMap.getOrDefault(MapKeys.NORMAL_QUALITY_URL, "");
+        return StringUtils.defaultString(urlNormalQuality);
     }
 
     public void setNormalQualityUrl(@NotNull String url_normal_quality) {
-        if (url_normal_quality.isEmpty())
-            dataMap.remove(MapKeys.NORMAL_QUALITY_URL);
-        else
-            dataMap.put(MapKeys.NORMAL_QUALITY_URL, url_normal_quality);
+        identity = null;
+        urlNormalQuality = url_normal_quality.isEmpty() ? null : url_normal_quality;
     }
 
     public String getSubtitleUrl() {
-        return (String)dataMap.getOrDefault(MapKeys.SUBTITLE_URL,"");
+        return StringUtils.defaultString(urlSubtitle);
     }
 
     public void setSubtitleUrl(@NotNull String urlSubtitle) {
-        if (urlSubtitle.isEmpty())
-            dataMap.remove(MapKeys.SUBTITLE_URL);
-        else {
-            dataMap.put(MapKeys.SUBTITLE_URL, urlSubtitle);
-        }
+        this.urlSubtitle = urlSubtitle.isEmpty() ? null : urlSubtitle;
     }
 
     /**
@@ -598,7 +613,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return BookmarkData entry
      */
     public @Nullable BookmarkData getBookmark() {
-        return (BookmarkData) dataMap.getOrDefault(MapKeys.BOOKMARK_DATA, null);
+        return bookmark;
     }
 
     /**
@@ -607,10 +622,7 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @param bookmark Bookmark entry
      */
     public void setBookmark(@Nullable BookmarkData bookmark) {
-        if (bookmark == null)
-            dataMap.remove(MapKeys.BOOKMARK_DATA);
-        else
-            dataMap.put(MapKeys.BOOKMARK_DATA, bookmark);
+        this.bookmark = bookmark;
     }
 
     /**
@@ -619,12 +631,36 @@ public class DatenFilm implements Comparable<DatenFilm> {
      * @return boolean true
      */
     public boolean isBookmarked() {
-        return dataMap.containsKey(MapKeys.BOOKMARK_DATA);
+        return bookmark != null;
+    }
+
+    /**
+     * Get all flags which are determined by the film itself, i.e. without {@link DatenFilmFlags#DUPLICATE}.
+     *
+     * @return bit mask of {@link DatenFilmFlags}, indexed by ordinal.
+     */
+    public int getFilmFlags() {
+        return flags & ~(1 << DatenFilmFlags.DUPLICATE.ordinal());
     }
 
-    enum MapKeys {FILM_NR, SUBTITLE_URL, WEBSITE_URL, LOW_QUALITY_URL, NORMAL_QUALITY_URL, HIGH_QUALITY_URL,
-        BOOKMARK_DATA,
-        ABO_DATA,
-        TEMP_DATUM_LONG
+    /**
+     * Restore the flags previously obtained by {@link #getFilmFlags()}.
+     *
+     * @param filmFlags bit mask of {@link DatenFilmFlags}, indexed by ordinal.
+     */
+    public void setFilmFlags(int filmFlags) {
+        flags = (flags & (1 << DatenFilmFlags.DUPLICATE.ordinal()))
+                | (filmFlags & ~(1 << DatenFilmFlags.DUPLICATE.ordinal()));
+    }
+
+    private boolean hasFlag(@NotNull DatenFilmFlags flag) {
+        return (flags & (1 << flag.ordinal())) != 0;
+    }
+
+    private void setFlag(@NotNull DatenFilmFlags flag, boolean val) {
+        if (val)
+            flags |= 1 << flag.ordinal();
+        else
+            flags &= ~(1 << flag.ordinal());
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.daten;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Longs;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compact 128-bit identity of a film, used to recognize the same film in different film lists.
+ * Based on sender, thema, normal quality url and website url.
+ *
+ * @param high upper 64 bits of the hash.
+ * @param low  lower 64 bits of the hash.
+ */
+public record FilmIdentity(long high, long low) {
+
+    static FilmIdentity of(@NotNull DatenFilm film) {
+        // length prefixes make sure that different field boundaries produce different hashes
+        final var sender = film.getSender();
+        final var thema = film.getThema();
+        final var url = film.getUrlNormalQuality();
+        final var website = film.getWebsiteUrl();
+        var hashCode = Hashing.murmur3_128().newHasher()
+                .putInt(sender.length()).putUnencodedChars(sender)
+                .putInt(thema.length()).putUnencodedChars(thema)
+                .putInt(url.length()).putUnencodedChars(url)
+                .putInt(website.length()).putUnencodedChars(website)
+                .hash();
+        return fromHashCode(hashCode);
+    }
+
+    /**
+     * Split a 128-bit hash code into two longs.
+     *
+     * @param hashCode hash with at least 128 bits.
+     * @return the identity.
+     */
+    public static FilmIdentity fromHashCode(@NotNull HashCode hashCode) {
+        final byte[] b = hashCode.asBytes();
+        return new FilmIdentity(Longs.fromBytes(b[0], b[1], b[2], b[3], b[4], b[5], b[6], b[7]),
+                Longs.fromBytes(b[8], b[9], b[10], b[11], b[12], b[13], b[14], b[15]));
+    }
+
+    /**
+     * Derive a distinct identity for the n-th film sharing this identity within one list.
+     *
+     * @param occurrence 0 for the first film with this identity.
+     * @return this for the first occurrence, otherwise an identity derived from this one and the occurrence.
+     */
+    public FilmIdentity withOccurrence(int occurrence) {
+        if (occurrence == 0)
+            return this;
+
+        return fromHashCode(Hashing.murmur3_128().newHasher()
+                .putLong(high)
+                .putLong(low)
+                .putInt(occurrence)
+                .hash());
+    }
+
+    /**
+     * @return the identity as 16 bytes, big endian.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[16];
+        System.arraycopy(Longs.toByteArray(high), 0, bytes, 0, 8);
+        System.arraycopy(Longs.toByteArray(low), 0, bytes, 8, 8);
+        return bytes;
+    }
+}
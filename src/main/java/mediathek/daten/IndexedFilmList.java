@@ -1,16 +1,33 @@
 package mediathek.daten;
 
+import com.google.common.hash.HashCode;
 import mediathek.config.StandardLocations;
+import mediathek.gui.tasks.LuceneIndexKeys;
+import mediathek.tool.LongPairHashSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 
 public class IndexedFilmList extends ListeFilme {
     private static final Logger logger = LogManager.getLogger();
     private Directory luceneDirectory;
-    private DirectoryReader reader;
+    /**
+     * The current reader together with the film keys of its documents.
+     */
+    private IndexSnapshot snapshot;
 
     public IndexedFilmList() {
         try  {
@@ -21,15 +38,178 @@ public class IndexedFilmList extends ListeFilme {
         }
     }
 
-    public DirectoryReader getReader() {
-        return reader;
+    public synchronized DirectoryReader getReader() {
+        return snapshot == null ? null : snapshot.reader;
+    }
+
+    /**
+     * Set the current index reader and read the film keys of all documents.
+     * Film keys are stable across restarts, so an index may be reused as long as it contains the same films.
+     * Searches still running on the previous reader keep their own snapshot.
+     *
+     * @param reader the new reader.
+     * @throws IOException if the film keys could not be read.
+     */
+    public void setReader(DirectoryReader reader) throws IOException {
+        final var keys = new LongPairHashSet(reader.numDocs());
+        final int[] keyOrdinals = new int[reader.maxDoc()];
+        Arrays.fill(keyOrdinals, -1);
+        for (var leafContext : reader.leaves()) {
+            var leaf = leafContext.reader();
+            var terms = leaf.terms(LuceneIndexKeys.FILM_KEY);
+            if (terms == null)
+                continue;
+
+            final var liveDocs = leaf.getLiveDocs();
+            var termsEnum = terms.iterator();
+            PostingsEnum postings = null;
+            BytesRef term;
+            while ((term = termsEnum.next()) != null) {
+                final var filmKey = FilmIdentity.fromHashCode(HashCode.fromBytes(BytesRef.deepCopyOf(term).bytes));
+                final int ordinal = keys.addOrGetOrdinal(filmKey.high(), filmKey.low());
+                postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc))
+                        keyOrdinals[leafContext.docBase + doc] = ordinal;
+                }
+            }
+        }
+
+        synchronized (this) {
+            snapshot = new IndexSnapshot(reader, keys, keyOrdinals);
+        }
+    }
+
+    /**
+     * Get the current reader for a search. The reader stays open until the snapshot is closed,
+     * even if it gets replaced meanwhile.
+     *
+     * @return the snapshot or null if there is no index yet.
+     */
+    public synchronized IndexSnapshot acquireSnapshot() {
+        if (snapshot == null)
+            return null;
+
+        snapshot.reader.incRef();
+        return snapshot;
+    }
+
+    /**
+     * Map Lucene docIds to film objects of this list.
+     * No stored fields are read and the list is not scanned as long as it was not modified since the last call.
+     *
+     * @param indexSnapshot the snapshot whose reader was searched.
+     * @param hits          the search result.
+     * @return the films in list order.
+     */
+    public synchronized List<DatenFilm> getFilmsForHits(@NotNull IndexSnapshot indexSnapshot, @NotNull ScoreDoc[] hits) {
+        if (indexSnapshot.docMappingModCount != modCount) {
+            buildDocIdToListIndexMapping(indexSnapshot);
+        }
+
+        final int[] docIdToListIndex = indexSnapshot.docIdToListIndex;
+        BitSet listIndices = new BitSet(size());
+        for (var hit : hits) {
+            final int listIndex = docIdToListIndex[hit.doc];
+            if (listIndex != -1)
+                listIndices.set(listIndex);
+        }
+
+        List<DatenFilm> films = new ArrayList<>(listIndices.cardinality());
+        for (int idx = listIndices.nextSetBit(0); idx >= 0; idx = listIndices.nextSetBit(idx + 1)) {
+            films.add(get(idx));
+        }
+        return films;
+    }
+
+    /**
+     * Calculate the unique index keys of films.
+     * Films sharing the same identity are told apart by their occurrence within the list.
+     *
+     * @param films the films in list order.
+     * @return the key per film.
+     */
+    public static FilmIdentity[] createDocumentKeys(@NotNull List<DatenFilm> films) {
+        final var identities = new LongPairHashSet(films.size());
+        int[] occurrences = new int[Math.max(films.size(), 16)];
+        final FilmIdentity[] keys = new FilmIdentity[films.size()];
+        for (int i = 0; i < keys.length; i++) {
+            final var identity = films.get(i).getIdentity();
+            final int ordinal = identities.addOrGetOrdinal(identity.high(), identity.low());
+            if (ordinal == occurrences.length)
+                occurrences = Arrays.copyOf(occurrences, occurrences.length * 2);
+            keys[i] = identity.withOccurrence(occurrences[ordinal]++);
+        }
+        return keys;
     }
 
-    public void setReader(DirectoryReader reader) {
-        this.reader = reader;
+    /**
+     * Every document has a unique key, so documents are assigned to films by key only.
+     */
+    private void buildDocIdToListIndexMapping(@NotNull IndexSnapshot indexSnapshot) {
+        final var docKeys = indexSnapshot.docKeys;
+        final var docIdToKeyOrdinal = indexSnapshot.docIdToKeyOrdinal;
+        final int[] listIndexOfKey = new int[docKeys.size()];
+        Arrays.fill(listIndexOfKey, -1);
+        final var keys = createDocumentKeys(this);
+        for (int i = 0; i < keys.length; i++) {
+            final int ordinal = docKeys.ordinalOf(keys[i].high(), keys[i].low());
+            if (ordinal != -1)
+                listIndexOfKey[ordinal] = i;
+        }
+
+        final int[] mapping = new int[docIdToKeyOrdinal.length];
+        for (int doc = 0; doc < mapping.length; doc++) {
+            final int ordinal = docIdToKeyOrdinal[doc];
+            mapping[doc] = ordinal == -1 ? -1 : listIndexOfKey[ordinal];
+        }
+
+        indexSnapshot.docIdToListIndex = mapping;
+        indexSnapshot.docMappingModCount = modCount;
     }
 
     public Directory getLuceneDirectory() {
         return luceneDirectory;
     }
+
+    /**
+     * A reader together with the film keys of its documents.
+     * Hits must always be mapped with the snapshot of the reader they were found with.
+     */
+    public static final class IndexSnapshot implements AutoCloseable {
+        private final DirectoryReader reader;
+        /**
+         * Film keys of all live documents.
+         */
+        private final LongPairHashSet docKeys;
+        /**
+         * Ordinal in {@link #docKeys} for each Lucene docId, -1 for deleted documents.
+         */
+        private final int[] docIdToKeyOrdinal;
+        /**
+         * List position for each Lucene docId, -1 if film is not in the list.
+         * Only valid as long as the list was not modified since {@link #docMappingModCount}.
+         * Guarded by the list.
+         */
+        private int[] docIdToListIndex = new int[0];
+        private int docMappingModCount = -1;
+
+        private IndexSnapshot(@NotNull DirectoryReader reader, @NotNull LongPairHashSet docKeys, int[] docIdToKeyOrdinal) {
+            this.reader = reader;
+            this.docKeys = docKeys;
+            this.docIdToKeyOrdinal = docIdToKeyOrdinal;
+        }
+
+        public DirectoryReader getReader() {
+            return reader;
+        }
+
+        /**
+         * Release the reader acquired by {@link IndexedFilmList#acquireSnapshot()}.
+         */
+        @Override
+        public void close() throws IOException {
+            reader.decRef();
+        }
+    }
 }
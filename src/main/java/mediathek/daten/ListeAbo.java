@@ -172,20 +172,18 @@ public class ListeAbo extends ArrayList<DatenAbo> {
     }
 
     /**
-     * Assign found abo to the film objects.
-     * Time-intensive procedure!
-     *
-     * @param film assignee
+     * Compile all abos into one filter which finds the first matching abo per film.
+     * Abo filter patterns must have been created before.
      */
-    private void assignAboToFilm(@NotNull DatenFilm film) {
-        stream().filter(abo
-                -> Filter.filterAufFilmPruefen(abo.getSender(), abo.getThema(),
-                abo.getTitelFilterPattern(),
-                abo.getThemaFilterPattern(),
-                abo.getIrgendwoFilterPattern(),
-                film))
-                .findAny().
-                ifPresentOrElse(film::setAbo, () -> deleteAboInFilm(film));
+    private CompiledFilmFilter<DatenAbo> compileAbos() {
+        var builder = new CompiledFilmFilter.Builder<DatenAbo>();
+        for (var abo : this) {
+            builder.addRule(abo, abo.getSender(), abo.getThema(),
+                    abo.getTitelFilterPattern(),
+                    abo.getThemaFilterPattern(),
+                    abo.getIrgendwoFilterPattern());
+        }
+        return builder.build();
     }
 
     /**
@@ -206,8 +204,9 @@ public class ListeAbo extends ArrayList<DatenAbo> {
         // und jetzt erstellen
         forEach(this::createAbo);
 
-        // das kostet die Zeit!!
-        listeFilme.parallelStream().forEach(this::assignAboToFilm);
+        // abos are indexed by sender and thema, search terms of all abos are checked at once
+        final var compiledAbos = compileAbos();
+        listeFilme.parallelStream().forEach(film -> film.setAbo(compiledAbos.findFirst(film)));
 
         // und jetzt wieder löschen
         forEach(datenAbo -> {
@@ -23,13 +23,13 @@ import mediathek.config.Daten;
 import mediathek.config.Konstanten;
 import mediathek.config.MVConfig;
 import mediathek.controller.starter.Start;
+import mediathek.controller.starter.StarterClass;
 import mediathek.daten.abo.DatenAbo;
 import mediathek.gui.dialog.DialogAboNoSet;
 import mediathek.gui.messages.ButtonStartEvent;
 import mediathek.gui.messages.DownloadListChangedEvent;
 import mediathek.gui.messages.DownloadQueueRankChangedEvent;
 import mediathek.gui.messages.StartEvent;
-import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.MessageBus;
 import mediathek.tool.models.TModelDownload;
 import org.apache.logging.log4j.LogManager;
@@ -200,6 +200,8 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
                     }
                 }
                 if (remove(down)) {
+                    // a running download deletes them again once it has stopped
+                    StarterClass.deleteTemporaryFiles(down);
                     gefunden = true;
                 }
             }
@@ -209,6 +211,11 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         }
     }
 
+    @Override
+    public synchronized boolean contains(Object o) {
+        return super.contains(o);
+    }
+
     public synchronized DatenDownload getDownloadUrlFilm(String urlFilm) {
         for (DatenDownload datenDownload : this) {
             if (datenDownload.arr[DatenDownload.DOWNLOAD_FILM_URL].equals(urlFilm)) {
@@ -473,25 +480,16 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
             MessageBus.getMessageBus().publishAsync(new ButtonStartEvent());
     }
 
-    public synchronized DatenDownload getNextStart() {
-        // get: erstes passendes Element der Liste zurückgeben oder null
-        // und versuchen dass bei mehreren laufenden Downloads ein anderer Sender gesucht wird
-        final DatenDownload[] ret = new DatenDownload[1];
-
-        final int maxNumDownloads = ApplicationConfiguration.getConfiguration().getInt(ApplicationConfiguration.DOWNLOAD_MAX_SIMULTANEOUS_NUM, 1);
-        if (this.size() > 0 && getDown(maxNumDownloads)) {
-            nextPossibleDownload().ifPresent(datenDownload -> {
-                if (datenDownload.start != null) {
-                    if (datenDownload.start.status == Start.STATUS_INIT)
-                        ret[0] = datenDownload;
-                }
-            });
-        }
-
-        return ret[0];
+    /**
+     * @return all downloads waiting to be started in list order.
+     */
+    public synchronized List<DatenDownload> getWaitingDownloads() {
+        return this.stream()
+                .filter(DatenDownload::isWaiting)
+                .collect(Collectors.toList());
     }
 
-    public DatenDownload getRestartDownload() {
+    public synchronized DatenDownload getRestartDownload() {
         // Versuch einen Fehlgeschlagenen Download zu finden um ihn wieder zu starten
         // die Fehler laufen aber einzeln, vorsichtshalber
         if (!getDown(1)) {
@@ -531,16 +529,4 @@ public class ListeDownloads extends LinkedList<DatenDownload> {
         }
         return true;
     }
-
-    private Optional<DatenDownload> nextPossibleDownload() {
-        for (DatenDownload datenDownload : this) {
-            if (datenDownload.start != null) {
-                if (datenDownload.start.status == Start.STATUS_INIT) {
-                    return Optional.of(datenDownload);
-                }
-            }
-        }
-
-        return Optional.empty();
-    }
 }
@@ -1,25 +1,23 @@
 package mediathek.daten;
 
-import com.google.common.hash.HashCode;
 import mediathek.config.Konstanten;
-import mediathek.tool.GermanStringSorter;
+import mediathek.tool.LongPairHashSet;
 import org.jetbrains.annotations.NotNull;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 public class ListeFilme extends ArrayList<DatenFilm> {
     private static final String PCS_METADATA = "metaData";
     protected final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
     private FilmListMetaData metaData = new FilmListMetaData();
+    /**
+     * Sorted themas per sender, see {@link #getThemaIndex()}.
+     */
+    private ThemaIndex themaIndex;
 
     public FilmListMetaData getMetaData() {
         return metaData;
@@ -36,14 +34,20 @@ public class ListeFilme extends ArrayList<DatenFilm> {
     }
 
     /**
-     * case-insensitive .distinct() implementation.
-     * @param keyExtractor the function to be applied to the key
-     * @return true if it has been seen already
-     * @param <T> template param
+     * @return the number of structural modifications, changes whenever films are added or removed.
      */
-    private static <T> Predicate<T> distinctByKey(Function<? super T, ?> keyExtractor) {
-        Set<Object> seen = ConcurrentHashMap.newKeySet();
-        return t -> seen.add(keyExtractor.apply(t));
+    public int getModificationCount() {
+        return modCount;
+    }
+
+    /**
+     * Get the thema index for the current content, rebuilt lazily after the list was modified.
+     */
+    private synchronized ThemaIndex getThemaIndex() {
+        if (themaIndex == null || themaIndex.getModificationCount() != modCount) {
+            themaIndex = ThemaIndex.build(this, modCount);
+        }
+        return themaIndex;
     }
 
     /**
@@ -51,46 +55,36 @@ public class ListeFilme extends ArrayList<DatenFilm> {
      * If sender is empty, return full list of themas.
      *
      * @param sender sender name as String
-     * @return IMMUTABLE List of themas as String.
+     * @return IMMUTABLE List of themas as String, distinct ignoring case.
      */
     public List<String> getThemen(String sender) {
-        Stream<DatenFilm> mystream = parallelStream();
-        //if sender is empty return all themas...
-        if (!sender.isEmpty())
-            mystream = mystream.filter(f -> f.getSender().equals(sender));
-
-        return mystream.map(DatenFilm::getThema)
-                .filter(distinctByKey(String::toLowerCase))
-                .sorted(GermanStringSorter.getInstance()).toList();
+        return getThemaIndex().getThemen(sender);
     }
 
     /**
-     * Search all themas within list based on sender.
-     * If sender is empty, return full list of themas.
-     * <p>
-     * This version does not sort nor return a unique list.
+     * Search all themas of the given senders.
+     * If senders is empty, return full list of themas.
      *
-     * @param sender sender name as String
-     * @return IMMUTABLE List of themas as String.
+     * @param senders sender names, case-insensitive.
+     * @return IMMUTABLE sorted and distinct List of themas as String.
      */
-    public List<String> getThemenUnprocessed(String sender) {
-        Stream<DatenFilm> mystream = parallelStream();
-        //if sender is empty return all themas...
-        if (!sender.isEmpty())
-            mystream = mystream.filter(f -> f.getSender().equalsIgnoreCase(sender));
-
-        return mystream.map(DatenFilm::getThema).toList();
+    public List<String> getThemen(@NotNull Collection<String> senders) {
+        return getThemaIndex().getThemen(senders);
     }
 
     public synchronized void updateFromFilmList(@NotNull ListeFilme newFilmsList) {
         // In die vorhandene Liste soll eine andere Filmliste einsortiert werden
         // es werden nur Filme, die noch nicht vorhanden sind, einsortiert
-        var hashNewFilms = new HashSet<HashCode>(newFilmsList.size() + 1, 1);
-        newFilmsList.forEach(newFilm -> hashNewFilms.add(newFilm.getSha256()));
-
-        this.removeIf(currentFilm -> hashNewFilms.contains(currentFilm.getSha256()));
+        var hashNewFilms = new LongPairHashSet(newFilmsList.size());
+        newFilmsList.forEach(newFilm -> {
+            final var id = newFilm.getIdentity();
+            hashNewFilms.add(id.high(), id.low());
+        });
 
-        hashNewFilms.clear();
+        this.removeIf(currentFilm -> {
+            final var id = currentFilm.getIdentity();
+            return hashNewFilms.contains(id.high(), id.low());
+        });
 
         newFilmsList.forEach(film -> {
             film.init();
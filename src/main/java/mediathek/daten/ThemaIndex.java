@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.daten;
+
+import mediathek.tool.GermanStringSorter;
+import org.jetbrains.annotations.NotNull;
+
+import java.text.CollationKey;
+import java.util.*;
+
+/**
+ * Sorted, distinct themas per sender of one state of a film list.
+ * Collation keys are computed once per thema so that lists for any sender selection can be merged
+ * without repeated collator calls.
+ */
+final class ThemaIndex {
+    private static final Entry[] EMPTY = new Entry[0];
+    private final int modificationCount;
+    /**
+     * sender -> sorted themas of this sender, distinct case-sensitive.
+     */
+    private final Map<String, Entry[]> themasBySender;
+    private final Entry[] allThemas;
+    /**
+     * sender -> sorted themas of this sender, distinct ignoring case.
+     */
+    private final Map<String, List<String>> distinctThemasBySender = new HashMap<>();
+    private final List<String> allDistinctThemas;
+
+    private ThemaIndex(int modificationCount, @NotNull Map<String, Entry[]> themasBySender, @NotNull Entry[] allThemas) {
+        this.modificationCount = modificationCount;
+        this.themasBySender = themasBySender;
+        this.allThemas = allThemas;
+        themasBySender.forEach((sender, themas) -> distinctThemasBySender.put(sender, distinctIgnoringCase(themas)));
+        allDistinctThemas = distinctIgnoringCase(allThemas);
+    }
+
+    /**
+     * Build the index.
+     *
+     * @param films             the films.
+     * @param modificationCount the modification count of the list, used to detect if the index is outdated.
+     */
+    static ThemaIndex build(@NotNull List<DatenFilm> films, int modificationCount) {
+        final var sorter = GermanStringSorter.getInstance();
+        Map<String, Entry> entries = new HashMap<>();
+        Map<String, Set<Entry>> senderEntries = new HashMap<>();
+        for (var film : films) {
+            final var entry = entries.computeIfAbsent(film.getThema(),
+                    thema -> new Entry(thema, sorter.getCollationKey(thema)));
+            senderEntries.computeIfAbsent(film.getSender(), _ -> new HashSet<>()).add(entry);
+        }
+
+        Map<String, Entry[]> themasBySender = new HashMap<>();
+        senderEntries.forEach((sender, set) -> themasBySender.put(sender, sorted(set)));
+        return new ThemaIndex(modificationCount, themasBySender, sorted(entries.values()));
+    }
+
+    private static List<String> distinctIgnoringCase(@NotNull Entry[] themas) {
+        Set<String> seen = new HashSet<>();
+        List<String> result = new ArrayList<>(themas.length);
+        for (var entry : themas) {
+            if (seen.add(entry.thema.toLowerCase()))
+                result.add(entry.thema);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Entry[] sorted(@NotNull Collection<Entry> entries) {
+        var array = entries.toArray(EMPTY);
+        Arrays.sort(array);
+        return array;
+    }
+
+    int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * @param sender exact sender name, empty for all senders.
+     * @return sorted themas, distinct ignoring case.
+     */
+    List<String> getThemen(@NotNull String sender) {
+        if (sender.isEmpty())
+            return allDistinctThemas;
+        return distinctThemasBySender.getOrDefault(sender, List.of());
+    }
+
+    /**
+     * @param senders sender names, case-insensitive. Empty for all senders.
+     * @return sorted, distinct themas of all given senders.
+     */
+    List<String> getThemen(@NotNull Collection<String> senders) {
+        if (senders.isEmpty())
+            return toList(allThemas);
+
+        Set<Entry> merged = new HashSet<>();
+        themasBySender.forEach((sender, themas) -> {
+            for (var selected : senders) {
+                if (sender.equalsIgnoreCase(selected)) {
+                    merged.addAll(Arrays.asList(themas));
+                    break;
+                }
+            }
+        });
+        return toList(sorted(merged));
+    }
+
+    private static List<String> toList(@NotNull Entry[] entries) {
+        return Arrays.stream(entries).map(Entry::thema).toList();
+    }
+
+    private record Entry(@NotNull String thema, @NotNull CollationKey key) implements Comparable<Entry> {
+        @Override
+        public int compareTo(@NotNull Entry other) {
+            final int result = key.compareTo(other.key);
+            return result != 0 ? result : thema.compareTo(other.thema);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry other && thema.equals(other.thema);
+        }
+
+        @Override
+        public int hashCode() {
+            return thema.hashCode();
+        }
+    }
+}
@@ -2,50 +2,43 @@ package mediathek.daten.blacklist;
 
 import mediathek.config.MVConfig;
 import mediathek.daten.DatenFilm;
-import mediathek.tool.Filter;
+import mediathek.tool.CompiledFilmFilter;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
 import java.util.function.Predicate;
 
 class ApplyBlacklistFilterPredicate implements Predicate<DatenFilm> {
     private static final String[] EMPTY_STRING = {""};
     private final boolean isWhitelist;
-    private final ListeBlacklist listeBlacklist;
-    private final Map<BlacklistRule,BlacklistPattern> rulePatternMap;
+    private final CompiledFilmFilter<BlacklistRule> compiledBlacklist;
 
-    public ApplyBlacklistFilterPredicate(ListeBlacklist listeBlacklist) {
+    public ApplyBlacklistFilterPredicate(Collection<BlacklistRule> listeBlacklist) {
         isWhitelist = Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_IST_WHITELIST));
-        this.listeBlacklist = listeBlacklist;
 
-        rulePatternMap = new ConcurrentHashMap<>(listeBlacklist.size());
-
-        //pre-create the patterns concurrently before use
-        createPatterns();
+        //compile all rules once before use
+        var builder = new CompiledFilmFilter.Builder<BlacklistRule>();
+        for (var entry : listeBlacklist) {
+            final String[] pTitel = createPattern(entry.hasTitlePattern(), entry.getTitel());
+            final String[] pThema = createPattern(entry.hasThemaPattern(), entry.getThema_titel());
+            builder.addRule(entry, entry.getSender(), entry.getThema(), pTitel, pThema);
+        }
+        compiledBlacklist = builder.build();
     }
 
     /**
-     * Create all needed patterns in parallel.
+     * Check the rules only, independent of blacklist or whitelist mode.
+     *
+     * @param film the film to check.
+     * @return true if at least one rule matches the film.
      */
-    private void createPatterns() {
-        listeBlacklist.parallelStream().forEach(entry -> {
-            final String[] pTitel = createPattern(entry.hasTitlePattern(), entry.getTitel());
-            final String[] pThema = createPattern(entry.hasThemaPattern(), entry.getThema_titel());
-            var blPattern = new BlacklistPattern(pTitel, pThema);
-            rulePatternMap.putIfAbsent(entry, blPattern);
-        });
+    public boolean matchesAnyRule(DatenFilm film) {
+        return compiledBlacklist.matches(film);
     }
 
     @Override
     public boolean test(DatenFilm film) {
-
-        for (BlacklistRule entry : listeBlacklist) {
-            var blPattern = rulePatternMap.get(entry);
-
-            if (performFiltering(entry, blPattern.pTitel, blPattern.pThema, film)) {
-                return isWhitelist;
-            }
-        }
+        if (compiledBlacklist.matches(film))
+            return isWhitelist;
 
         //found nothing
         return !isWhitelist;
@@ -65,50 +58,4 @@ class ApplyBlacklistFilterPredicate implements Predicate<DatenFilm> {
         else
             return mySplit(inputString);
     }
-
-    private boolean performFiltering(final BlacklistRule entry,
-                                     final String[] titelSuchen, final String[] themaTitelSuchen,
-                                     final DatenFilm film) {
-        // prüfen ob xxxSuchen im String imXxx enthalten ist, themaTitelSuchen wird mit Thema u. Titel verglichen
-        // senderSuchen exakt mit sender
-        // themaSuchen exakt mit thema
-        // titelSuchen muss im Titel nur enthalten sein
-
-        boolean result = false;
-        final String thema = film.getThema();
-        final String title = film.getTitle();
-
-
-        final String senderSuchen = entry.getSender();
-        final String themaSuchen = entry.getThema();
-
-        if (senderSuchen.isEmpty() || film.getSender().compareTo(senderSuchen) == 0) {
-            if (themaSuchen.isEmpty() || thema.equalsIgnoreCase(themaSuchen)) {
-                if (titelSuchen.length == 0 || Filter.pruefen(titelSuchen, title)) {
-                    if (themaTitelSuchen.length == 0
-                            || Filter.pruefen(themaTitelSuchen, thema)
-                            || Filter.pruefen(themaTitelSuchen, title)) {
-                        // die Länge soll mit geprüft werden
-                        if (checkLengthWithMin(film.getFilmLength())) {
-                            result = true;
-                        }
-                    }
-                }
-            }
-        }
-
-        return result;
-    }
-
-    public boolean lengthCheck(int filterLaengeInMinuten, long filmLaenge) {
-        return filterLaengeInMinuten == 0 || filmLaenge == 0;
-    }
-
-    private boolean checkLengthWithMin(long filmLaenge) {
-        return lengthCheck(0, filmLaenge) || filmLaenge > 0;
-    }
-
-    record BlacklistPattern(String[] pTitel, String[] pThema) {
-
-    }
 }
@@ -1,5 +1,6 @@
 package mediathek.daten.blacklist;
 
+import com.google.common.hash.Hashing;
 import mediathek.config.Daten;
 import mediathek.config.MVConfig;
 import mediathek.daten.Country;
@@ -7,19 +8,22 @@ import mediathek.daten.DatenFilm;
 import mediathek.daten.IndexedFilmList;
 import mediathek.daten.ListeFilme;
 import mediathek.gui.messages.BlacklistChangedEvent;
+import mediathek.gui.messages.BlacklistFilmsChangedEvent;
 import mediathek.gui.tabs.tab_film.filter.zeitraum.ZeitraumSpinnerFormatter;
 import mediathek.mainwindow.MediathekGui;
 import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.Filter;
 import mediathek.tool.MessageBus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 public class ListeBlacklist extends ArrayList<BlacklistRule> {
+    private static final Logger logger = LogManager.getLogger();
 
     private final GeoblockingPredicate geoblockingPredicate = new GeoblockingPredicate();
     /**
@@ -34,6 +38,15 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
      * Configuration in Settings/Blacklist panel.
      */
     private long minimumFilmLength;
+    /**
+     * Zeitraum setting used for {@link #days_lower_boundary}.
+     */
+    private String zeitraum = "";
+    /**
+     * Settings and list states of the last filter run.
+     * Rule changes can only be applied incrementally as long as nothing else has changed since then.
+     */
+    private FilterState lastFilterState;
 
     /**
      * Add item without notifying registered listeners.
@@ -47,14 +60,15 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
     @Override
     public synchronized boolean add(BlacklistRule b) {
         boolean ret = super.add(b);
-        filterListAndNotifyListeners();
+        filterIncrementallyAndNotifyListeners(List.of(b), true);
         return ret;
     }
 
     @Override
     public synchronized boolean remove(Object b) {
         boolean ret = super.remove(b);
-        filterListAndNotifyListeners();
+        if (ret)
+            filterIncrementallyAndNotifyListeners(List.of((BlacklistRule) b), false);
         return ret;
     }
 
@@ -63,16 +77,19 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
      * @param ruleList a list of objects that need to be deleted.
      */
     public synchronized void remove(List<BlacklistRule> ruleList) {
+        List<BlacklistRule> removedRules = new ArrayList<>();
         for (var rule : ruleList) {
-            super.remove(rule);
+            if (super.remove(rule))
+                removedRules.add(rule);
         }
-        filterListAndNotifyListeners();
+        if (!removedRules.isEmpty())
+            filterIncrementallyAndNotifyListeners(removedRules, false);
     }
 
     @Override
     public synchronized BlacklistRule remove(int idx) {
         BlacklistRule ret = super.remove(idx);
-        filterListAndNotifyListeners();
+        filterIncrementallyAndNotifyListeners(List.of(ret), false);
         return ret;
     }
 
@@ -109,28 +126,163 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
 
 
             var stream = completeFilmList.parallelStream();
+            if (filterDuplicates()) {
+                stream = stream.filter(film -> !film.isDuplicate());
+            }
+
+            stream.filter(createPredicate(true)).forEachOrdered(filteredList::add);
+        }
 
-            //TODO add config dialog setting
-            final var config = ApplicationConfiguration.getConfiguration();
-            //if we don't evaluate there will be no chance to filter here...
-            var evaluateDuplicates = config.getBoolean(ApplicationConfiguration.FILM_EVALUATE_DUPLICATES, true);
-            if (evaluateDuplicates) {
-                var filterBlacklistDuplicates = config.getBoolean(ApplicationConfiguration.BLACKLIST_FILTER_DUPLICATES, false);
-                if (filterBlacklistDuplicates) {
-                    stream = stream.filter(film -> !film.isDuplicate());
-                }
+        lastFilterState = captureFilterState(completeFilmList, filteredList);
+    }
+
+    /**
+     * Fingerprint of the rules and settings used by the last filter run.
+     * Time dependent filters (zeitraum, future films) are covered by their settings only.
+     *
+     * @return the fingerprint, empty if the list was not filtered yet.
+     */
+    public synchronized String getFingerprint() {
+        if (lastFilterState == null)
+            return "";
+
+        var hasher = Hashing.murmur3_128().newHasher()
+                .putUnencodedChars(lastFilterState.zeitraum())
+                .putLong(lastFilterState.minimumFilmLength())
+                .putBoolean(lastFilterState.blacklistIsActive())
+                .putBoolean(lastFilterState.doNotShowFutureFilms())
+                .putBoolean(lastFilterState.doNotShowGeoBlockedFilms())
+                .putInt(lastFilterState.geoLocation() == null ? -1 : lastFilterState.geoLocation().ordinal())
+                .putBoolean(lastFilterState.isWhitelist())
+                .putBoolean(lastFilterState.filterDuplicates());
+        for (var rule : this) {
+            hasher.putChar('\n')
+                    .putUnencodedChars(rule.getSender()).putChar('\0')
+                    .putUnencodedChars(rule.getThema()).putChar('\0')
+                    .putUnencodedChars(rule.getTitel()).putChar('\0')
+                    .putUnencodedChars(rule.getThema_titel());
+        }
+        return hasher.hash().toString();
+    }
+
+    private boolean filterDuplicates() {
+        //TODO add config dialog setting
+        final var config = ApplicationConfiguration.getConfiguration();
+        //if we don't evaluate there will be no chance to filter here...
+        var evaluateDuplicates = config.getBoolean(ApplicationConfiguration.FILM_EVALUATE_DUPLICATES, true);
+        return evaluateDuplicates && config.getBoolean(ApplicationConfiguration.BLACKLIST_FILTER_DUPLICATES, false);
+    }
+
+    private FilterState captureFilterState(ListeFilme completeFilmList, ListeFilme filteredList) {
+        return new FilterState(completeFilmList, completeFilmList == null ? 0 : completeFilmList.getModificationCount(),
+                filteredList, filteredList.getModificationCount(),
+                zeitraum, minimumFilmLength, blacklistIsActive, doNotShowFutureFilms, doNotShowGeoBlockedFilms,
+                geoblockingPredicate.geoLocation,
+                Boolean.parseBoolean(MVConfig.get(MVConfig.Configs.SYSTEM_BLACKLIST_IST_WHITELIST)),
+                filterDuplicates());
+    }
+
+    /**
+     * Apply added or removed rules to the filtered list without filtering the complete film list again.
+     * Only films matching the changed rules are touched.
+     * Falls back to {@link #filterListe()} if other filter settings or the film lists were changed since the last run.
+     *
+     * @param changedRules the added or removed rules, they must already be added to or removed from this list.
+     * @param rulesAdded   true if the rules were added, false if removed.
+     */
+    private void filterIncrementallyAndNotifyListeners(@NotNull List<BlacklistRule> changedRules, boolean rulesAdded) {
+        final Daten daten = Daten.getInstance();
+        final ListeFilme completeFilmList = daten.getListeFilme();
+        final ListeFilme filteredList = daten.getListeFilmeNachBlackList();
+
+        loadCurrentFilterSettings();
+        final var currentState = captureFilterState(completeFilmList, filteredList);
+        // an empty rule list disables rule filtering, therefore switching from or to it changes everything
+        final boolean wasEmpty = rulesAdded && size() == changedRules.size();
+        if (!currentState.isUnchangedSince(lastFilterState) || completeFilmList == null || isEmpty() || wasEmpty) {
+            filterListAndNotifyListeners();
+            return;
+        }
+
+        if (!blacklistIsActive) {
+            // rules are not applied at all
+            MessageBus.getMessageBus().publishAsync(new BlacklistChangedEvent());
+            return;
+        }
+
+        final var changedRulesSet = Collections.newSetFromMap(new IdentityHashMap<BlacklistRule, Boolean>());
+        changedRulesSet.addAll(changedRules);
+        for (var rule : changedRules) {
+            rule.convertToLowerCase();
+            rule.checkPatterns();
+        }
+        final var changedRulesPredicate = new ApplyBlacklistFilterPredicate(changedRules);
+        final var otherRulesPredicate = new ApplyBlacklistFilterPredicate(this.stream()
+                .filter(rule -> !changedRulesSet.contains(rule))
+                .toList());
+
+        List<DatenFilm> addedFilms = List.of();
+        List<DatenFilm> removedFilms = List.of();
+        // films enter the filtered list when a whitelist rule gets added or a blacklist rule gets removed
+        if (rulesAdded == currentState.isWhitelist()) {
+            var stream = completeFilmList.parallelStream();
+            if (currentState.filterDuplicates()) {
+                stream = stream.filter(film -> !film.isDuplicate());
+            }
+            addedFilms = stream.filter(changedRulesPredicate::matchesAnyRule)
+                    .filter(film -> !otherRulesPredicate.matchesAnyRule(film))
+                    .filter(createPredicate(false))
+                    .toList();
+            if (!addedFilms.isEmpty()) {
+                mergeIntoFilteredList(completeFilmList, filteredList, addedFilms);
+            }
+        } else {
+            removedFilms = filteredList.parallelStream()
+                    .filter(changedRulesPredicate::matchesAnyRule)
+                    .filter(film -> !otherRulesPredicate.matchesAnyRule(film))
+                    .toList();
+            if (!removedFilms.isEmpty()) {
+                final var removedSet = Collections.newSetFromMap(new IdentityHashMap<DatenFilm, Boolean>());
+                removedSet.addAll(removedFilms);
+                filteredList.removeIf(removedSet::contains);
             }
+        }
+        logger.trace("Incremental blacklist filtering: {} films added, {} films removed", addedFilms.size(), removedFilms.size());
+
+        lastFilterState = captureFilterState(completeFilmList, filteredList);
+        MessageBus.getMessageBus().publishAsync(new BlacklistFilmsChangedEvent(addedFilms, removedFilms));
+    }
 
-            stream.filter(createPredicate()).forEachOrdered(filteredList::add);
+    /**
+     * Insert films into the filtered list while keeping the order of the complete film list.
+     */
+    private void mergeIntoFilteredList(@NotNull ListeFilme completeFilmList, @NotNull ListeFilme filteredList,
+                                       @NotNull List<DatenFilm> addedFilms) {
+        final var addedSet = Collections.newSetFromMap(new IdentityHashMap<DatenFilm, Boolean>());
+        addedSet.addAll(addedFilms);
+
+        List<DatenFilm> merged = new ArrayList<>(filteredList.size() + addedFilms.size());
+        int filteredPos = 0;
+        for (var film : completeFilmList) {
+            if (filteredPos < filteredList.size() && filteredList.get(filteredPos) == film) {
+                merged.add(film);
+                filteredPos++;
+            } else if (addedSet.contains(film)) {
+                merged.add(film);
+            }
         }
+
+        filteredList.clear();
+        filteredList.addAll(merged);
     }
 
     /**
      * Setup dynamically the list of filter to be applied to blacklist film list
      *
+     * @param includeRules false to create only the predicates which are independent of the blacklist rules.
      * @return The reduced filter predicates.
      */
-    private Predicate<DatenFilm> createPredicate() {
+    private Predicate<DatenFilm> createPredicate(boolean includeRules) {
         final List<Predicate<DatenFilm>> filterList = new ArrayList<>();
         // we must keep it for the "old-style search. for lucene it is useless
         if (!(Daten.getInstance().getListeFilmeNachBlackList() instanceof IndexedFilmList)) {
@@ -150,7 +302,7 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
             }
 
             //add the filter predicates to the list
-            if (!isEmpty()) {
+            if (includeRules && !isEmpty()) {
                 ApplyBlacklistFilterPredicate predicate = new ApplyBlacklistFilterPredicate(this);
                 filterList.add(predicate);
             }
@@ -190,6 +342,7 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
     private void calculateZeitraumBoundaries() {
         try {
             var strZeitraum = MediathekGui.ui().tabFilme.getFilterConfiguration().getZeitraum();
+            zeitraum = strZeitraum;
             if (strZeitraum.equalsIgnoreCase(ZeitraumSpinnerFormatter.INFINITE_TEXT))
                 days_lower_boundary = 0;
             else {
@@ -197,6 +350,7 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
                 days_lower_boundary = System.currentTimeMillis() - days_ms;
             }
         } catch (Exception ex) {
+            zeitraum = "";
             days_lower_boundary = 0;
         }
     }
@@ -317,6 +471,31 @@ public class ListeBlacklist extends ArrayList<BlacklistRule> {
         return !(filmLength != 0 && minimumFilmLength > filmLength);
     }
 
+    private record FilterState(ListeFilme completeFilmList, int completeFilmListModificationCount,
+                               ListeFilme filteredList, int filteredListModificationCount,
+                               String zeitraum, long minimumFilmLength, boolean blacklistIsActive,
+                               boolean doNotShowFutureFilms, boolean doNotShowGeoBlockedFilms, Country geoLocation,
+                               boolean isWhitelist, boolean filterDuplicates) {
+        /**
+         * Film lists are compared by identity as their content is covered by the modification counts.
+         */
+        boolean isUnchangedSince(FilterState other) {
+            return other != null
+                    && completeFilmList == other.completeFilmList
+                    && completeFilmListModificationCount == other.completeFilmListModificationCount
+                    && filteredList == other.filteredList
+                    && filteredListModificationCount == other.filteredListModificationCount
+                    && zeitraum.equals(other.zeitraum)
+                    && minimumFilmLength == other.minimumFilmLength
+                    && blacklistIsActive == other.blacklistIsActive
+                    && doNotShowFutureFilms == other.doNotShowFutureFilms
+                    && doNotShowGeoBlockedFilms == other.doNotShowGeoBlockedFilms
+                    && geoLocation == other.geoLocation
+                    && isWhitelist == other.isWhitelist
+                    && filterDuplicates == other.filterDuplicates;
+        }
+    }
+
     static class GeoblockingPredicate implements Predicate<DatenFilm> {
         /**
          * Stores the current user´s location. Can be modified by another thread.
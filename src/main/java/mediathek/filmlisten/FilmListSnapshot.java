@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.filmlisten;
+
+import mediathek.daten.Country;
+import mediathek.daten.DatenFilm;
+import mediathek.daten.ListeFilme;
+import mediathek.tool.datum.DatumFilm;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Binary copy of the local filmlist which is much faster to read than the JSON file.
+ * It is written next to the JSON file and contains the already parsed films including the flags
+ * which do not depend on abos or other films.
+ * <p>
+ * A snapshot is only valid for the JSON file it was written with, this is checked by filmlist id,
+ * file size and modification time of the JSON file. Callers must fall back to the JSON file if it is not valid.
+ * <p>
+ * Strings which repeat in many films (sender, thema, date, time, size) are stored only once,
+ * later occurrences reference the first one by index.
+ */
+public class FilmListSnapshot {
+    private static final int MAGIC = 0x4D56_4653; // "MVFS"
+    /**
+     * Must be increased whenever the format changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private FilmListSnapshot() {
+    }
+
+    /**
+     * @param jsonPath the path to the JSON filmlist.
+     * @return the path of the snapshot belonging to the JSON filmlist.
+     */
+    public static Path getSnapshotPath(@NotNull Path jsonPath) {
+        return jsonPath.resolveSibling(jsonPath.getFileName() + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Write the snapshot for an already written JSON filmlist.
+     * The file is written to a temporary file first so that readers never see a partial snapshot.
+     *
+     * @param jsonPath   the JSON filmlist which was written from listeFilme.
+     * @param listeFilme the films.
+     */
+    public static void write(@NotNull Path jsonPath, @NotNull ListeFilme listeFilme) throws IOException {
+        final var snapshotPath = getSnapshotPath(jsonPath);
+        final var tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath), BUFFER_SIZE))) {
+            final var meta = listeFilme.getMetaData();
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(Files.size(jsonPath));
+            out.writeLong(Files.getLastModifiedTime(jsonPath).toMillis());
+            writeString(out, meta.getId());
+            out.writeInt(listeFilme.size());
+
+            var writer = new FilmWriter(out);
+            for (var film : listeFilme) {
+                writer.write(film);
+            }
+        } catch (IOException ex) {
+            Files.deleteIfExists(tempPath);
+            throw ex;
+        }
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Delete the snapshot belonging to a JSON filmlist.
+     *
+     * @param jsonPath the path to the JSON filmlist.
+     */
+    public static void delete(@NotNull Path jsonPath) throws IOException {
+        Files.deleteIfExists(getSnapshotPath(jsonPath));
+    }
+
+    /**
+     * Read a snapshot.
+     *
+     * @param in          the snapshot data.
+     * @param jsonPath    the JSON filmlist the snapshot must belong to.
+     * @param filmListId  the id of the JSON filmlist.
+     * @param consumer    receives all films in filmlist order. Films are not initialized.
+     * @return false if the snapshot does not belong to the JSON filmlist, nothing was read in this case.
+     * @throws IOException if the snapshot is corrupt. Some films may have been passed to the consumer already.
+     */
+    public static boolean read(@NotNull InputStream in, @NotNull Path jsonPath, @NotNull String filmListId,
+                               @NotNull Consumer<DatenFilm> consumer) throws IOException {
+        var data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != FORMAT_VERSION)
+            return false;
+        if (data.readLong() != Files.size(jsonPath)
+                || data.readLong() != Files.getLastModifiedTime(jsonPath).toMillis()
+                || !readString(data).equals(filmListId))
+            return false;
+
+        final int count = data.readInt();
+        var reader = new FilmReader(data);
+        for (int i = 0; i < count; i++) {
+            consumer.accept(reader.read());
+        }
+        return true;
+    }
+
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String str) throws IOException {
+        // writeUTF is limited to 64k which descriptions might exceed
+        final var bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(@NotNull DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0)
+            throw new IOException("Invalid string length: " + length);
+        final var bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class FilmWriter {
+        private final DataOutputStream out;
+        private final Map<String, Integer> sharedStrings = new HashMap<>();
+
+        FilmWriter(@NotNull DataOutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Write a string which occurs in many films, only the first occurrence gets written in full.
+         */
+        private void writeSharedString(@NotNull String str) throws IOException {
+            final var index = sharedStrings.get(str);
+            if (index != null)
+                out.writeInt(index);
+            else {
+                final int newIndex = sharedStrings.size();
+                sharedStrings.put(str, newIndex);
+                out.writeInt(newIndex);
+                writeString(out, str);
+            }
+        }
+
+        void write(@NotNull DatenFilm film) throws IOException {
+            writeSharedString(film.getSender());
+            writeSharedString(film.getThema());
+            writeString(out, film.getTitle());
+            writeSharedString(film.getSendeDatum());
+            writeSharedString(film.getSendeZeit());
+            out.writeInt(film.getFilmLength());
+            writeSharedString(film.getFileSize().toString());
+            writeString(out, film.getDescription());
+            writeString(out, film.getUrlNormalQuality());
+            writeString(out, film.getWebsiteUrl());
+            writeString(out, film.getSubtitleUrl());
+            writeString(out, film.getLowQualityUrl());
+            writeString(out, film.getHighQualityUrl());
+
+            final var filmDate = film.getDatumFilm();
+            out.writeLong(filmDate.equals(DatumFilm.UNDEFINED_FILM_DATE)
+                    ? 0 : TimeUnit.SECONDS.convert(filmDate.getTime(), TimeUnit.MILLISECONDS));
+
+            int countries = 0;
+            for (var country : film.countrySet) {
+                countries |= 1 << country.ordinal();
+            }
+            out.writeInt(countries);
+            out.writeInt(film.getFilmFlags());
+        }
+    }
+
+    private static final class FilmReader {
+        private static final Country[] COUNTRIES = Country.values();
+        private final DataInputStream in;
+        private final List<String> sharedStrings = new ArrayList<>();
+
+        FilmReader(@NotNull DataInputStream in) {
+            this.in = in;
+        }
+
+        private String readSharedString() throws IOException {
+            final int index = in.readInt();
+            if (index == sharedStrings.size()) {
+                final var str = readString(in);
+                sharedStrings.add(str);
+                return str;
+            }
+            if (index < 0 || index > sharedStrings.size())
+                throw new IOException("Invalid string reference: " + index);
+            return sharedStrings.get(index);
+        }
+
+        DatenFilm read() throws IOException {
+            var film = new DatenFilm();
+            film.setSender(readSharedString());
+            film.setThema(readSharedString());
+            film.setTitle(readString(in));
+            film.setSendeDatum(readSharedString());
+            film.setSendeZeit(readSharedString());
+            film.setFilmLength(in.readInt());
+            film.getFileSize().setSize(readSharedString());
+            film.setDescription(readString(in));
+            film.setNormalQualityUrl(readString(in));
+            film.setWebsiteUrl(readString(in));
+            film.setSubtitleUrl(readString(in));
+            film.setLowQualityUrl(readString(in));
+            film.setHighQualityUrl(readString(in));
+            film.setDatumLong(in.readLong());
+
+            final int countries = in.readInt();
+            for (var country : COUNTRIES) {
+                if ((countries & (1 << country.ordinal())) != 0)
+                    film.countrySet.add(country);
+            }
+            film.setFilmFlags(in.readInt());
+            return film;
+        }
+    }
+}
@@ -39,7 +39,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 
 public class FilmeLaden {
 
@@ -322,23 +321,8 @@ public class FilmeLaden {
         } catch (InterruptedException | InvocationTargetException e) {
             throw new RuntimeException(e);
         }
-        var workerTask = CompletableFuture.runAsync(new RefreshAboWorker(progLabel, progressBar))
-                .thenRun(new BlacklistFilterWorker(progLabel, progressBar));
-
-        var evaluateDuplicates = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.FILM_EVALUATE_DUPLICATES, true);
-        if (evaluateDuplicates) {
-            workerTask = workerTask.thenRun(new FilmDuplicateEvaluationTask());
-        }
-        workerTask = workerTask.thenRun(new CommonStatsEvaluationTask());
-
-        if (writeFilmList) {
-            workerTask = workerTask.thenRun(new FilmlistWriterWorker(progLabel, progressBar));
-        }
-        if (daten.getListeFilmeNachBlackList() instanceof IndexedFilmList) {
-            workerTask = workerTask.thenRun(new LuceneIndexWorker(progLabel, progressBar));
-        }
-
-        workerTask.thenRun(() -> SwingUtilities.invokeLater(() -> Daten.getInstance().getFilmeLaden().notifyFertig(new ListenerFilmeLadenEvent("", "", 100, 100, false))))
+        createPostLoadTasks(progLabel, progressBar, writeFilmList).execute()
+                .thenRun(() -> SwingUtilities.invokeLater(() -> Daten.getInstance().getFilmeLaden().notifyFertig(new ListenerFilmeLadenEvent("", "", 100, 100, false))))
                 .thenRun(() -> {
                     try {
                         SwingUtilities.invokeAndWait(() -> {
@@ -351,6 +335,40 @@ public class FilmeLaden {
                 });
     }
 
+    /**
+     * Create the tasks which need to be performed after a film list was loaded.
+     * Only real dependencies are declared, independent tasks run concurrently:
+     * blacklist filtering needs the duplicate flags, the lucene index needs the filtered list.
+     *
+     * @param progLabel     status bar label.
+     * @param progressBar   status bar progress.
+     * @param writeFilmList true if the film list must be written to disk.
+     * @return the task graph, not yet started.
+     */
+    public static TaskGraph createPostLoadTasks(@NotNull JLabel progLabel, @NotNull JProgressBar progressBar,
+                                                boolean writeFilmList) {
+        var graph = new TaskGraph("Post film list load", Daten.getInstance().getDecoratedPool());
+
+        graph.addStage("RefreshAbo", new RefreshAboWorker(progLabel, progressBar));
+        graph.addStage("CommonStats", new CommonStatsEvaluationTask());
+        if (writeFilmList) {
+            graph.addStage("FilmlistWriter", new FilmlistWriterWorker(progLabel, progressBar));
+        }
+
+        TaskGraph.Stage duplicates = null;
+        var evaluateDuplicates = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.FILM_EVALUATE_DUPLICATES, true);
+        if (evaluateDuplicates) {
+            duplicates = graph.addStage("DuplicateEvaluation", new FilmDuplicateEvaluationTask());
+        }
+        var blacklist = graph.addStage("BlacklistFilter", new BlacklistFilterWorker(progLabel, progressBar), duplicates);
+
+        if (Daten.getInstance().getListeFilmeNachBlackList() instanceof IndexedFilmList) {
+            graph.addStage("LuceneIndex", new LuceneIndexWorker(progLabel, progressBar), blacklist);
+        }
+
+        return graph;
+    }
+
     private void fillHash(ListeFilme listeFilme) {
         hashSet.addAll(listeFilme.parallelStream().map(DatenFilm::getUrlNormalQuality).toList());
     }
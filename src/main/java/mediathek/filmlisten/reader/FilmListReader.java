@@ -3,6 +3,7 @@ package mediathek.filmlisten.reader;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Stopwatch;
 import mediathek.config.Config;
 import mediathek.config.Konstanten;
 import mediathek.controller.SenderFilmlistLoadApprover;
@@ -11,9 +12,11 @@ import mediathek.daten.DatenFilm;
 import mediathek.daten.ListeFilme;
 import mediathek.filmeSuchen.ListenerFilmeLaden;
 import mediathek.filmeSuchen.ListenerFilmeLadenEvent;
+import mediathek.filmlisten.FilmListSnapshot;
 import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.InputStreamProgressMonitor;
 import mediathek.tool.ProgressMonitorInputStream;
+import mediathek.tool.ReadAheadInputStream;
 import mediathek.tool.TrailerTeaserChecker;
 import mediathek.tool.http.MVHttpClient;
 import okhttp3.Request;
@@ -27,6 +30,7 @@ import org.jetbrains.annotations.NotNull;
 import org.tukaani.xz.XZInputStream;
 
 import javax.swing.event.EventListenerList;
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -42,14 +46,53 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 public class FilmListReader implements AutoCloseable {
     private static final int PROGRESS_MAX = 100;
     private static final Logger logger = LogManager.getLogger(FilmListReader.class);
     private static final String THEMA_LIVE = "Livestream";
+    /**
+     * Number of film entries handed over to a worker thread at once by the parallel reader.
+     */
+    private static final int PARALLEL_BATCH_SIZE = 4096;
+    /**
+     * Upper bound for deduplicated strings per load, there are only a few tens of thousands of different themas.
+     */
+    private static final int STRING_POOL_MAX_SIZE = 200_000;
+    /**
+     * Read-ahead buffers for filmlist sources, up to 4 MiB of raw and 2 MiB of decompressed data.
+     */
+    private static final int READ_AHEAD_CHUNK_SIZE = 64 * 1024;
+    private static final int SOURCE_READ_AHEAD_CHUNKS = 64;
+    private static final int DECOMPRESSOR_READ_AHEAD_CHUNKS = 32;
+    /*
+     * Field positions of a film entry within the filmlist.
+     * Unlisted positions were deleted in DatenFilm but still exist in the filmlist file.
+     */
+    private static final int RECORD_SENDER = 0;
+    private static final int RECORD_THEMA = 1;
+    private static final int RECORD_TITEL = 2;
+    private static final int RECORD_DATUM = 3;
+    private static final int RECORD_ZEIT = 4;
+    private static final int RECORD_DAUER = 5;
+    private static final int RECORD_GROESSE = 6;
+    private static final int RECORD_BESCHREIBUNG = 7;
+    private static final int RECORD_URL = 8;
+    private static final int RECORD_WEBSITE = 9;
+    private static final int RECORD_URL_SUBTITLE = 10;
+    private static final int RECORD_URL_KLEIN = 12;
+    private static final int RECORD_URL_HD = 14;
+    private static final int RECORD_DATUM_LONG = 16;
+    private static final int RECORD_GEO = 18;
+    private static final int RECORD_NEU = 19;
+    private static final int RECORD_SIZE = 20;
     private final EventListenerList listeners = new EventListenerList();
     private final ListenerFilmeLadenEvent progressEvent = new ListenerFilmeLadenEvent("", "Download", 0, 0, false);
     private final int max;
@@ -62,6 +105,10 @@ public class FilmListReader implements AutoCloseable {
     private IDateFilter dateFilter;
     private String sender = "";
     private String thema = "";
+    /**
+     * Shares identical sender, thema, date and time strings between films, only valid during one load.
+     */
+    private StringPool stringPool = new StringPool(STRING_POOL_MAX_SIZE);
 
     public FilmListReader() {
         max = PROGRESS_MAX;
@@ -90,26 +137,47 @@ public class FilmListReader implements AutoCloseable {
         };
     }
 
-    private void parseNeu(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        final String value = jp.nextTextValue();
+    /**
+     * Reading, decompression and parsing run concurrently, decoupled by bounded read-ahead buffers.
+     *
+     * @param source the source name, selects the decompressor.
+     * @param input  the raw source data.
+     * @return the decompressed data. Closing it closes input as well.
+     */
+    private InputStream createReadAheadPipeline(String source, InputStream input) throws Exception {
+        final var readAhead = new ReadAheadInputStream(input, READ_AHEAD_CHUNK_SIZE, SOURCE_READ_AHEAD_CHUNKS,
+                "FilmList-Source");
+        final InputStream decompressed;
+        try {
+            decompressed = selectDecompressor(source, readAhead);
+        } catch (Exception ex) {
+            readAhead.close();
+            throw ex;
+        }
+        if (decompressed == readAhead)
+            return readAhead;
+
+        return new ReadAheadInputStream(decompressed, READ_AHEAD_CHUNK_SIZE, DECOMPRESSOR_READ_AHEAD_CHUNKS,
+                "FilmList-Decompressor");
+    }
+
+    private void parseNeu(String value, DatenFilm datenFilm) {
         datenFilm.setNew(Boolean.parseBoolean(value));
     }
 
-    protected void parseWebsiteLink(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        final String value = jp.nextTextValue();
+    protected void parseWebsiteLink(String value, DatenFilm datenFilm) {
         if (value != null && !value.isEmpty()) {
             datenFilm.setWebsiteUrl(value);
         }
     }
 
-    private void parseDescription(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        final String value = jp.nextTextValue();
+    private void parseDescription(String value, DatenFilm datenFilm) {
         if (value != null && !value.isEmpty())
             datenFilm.setDescription(value);
     }
 
-    protected void parseGeo(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        var geoStr = checkedString(jp);
+    protected void parseGeo(String value, DatenFilm datenFilm) {
+        var geoStr = checkedString(value);
 
         if (geoStr.isEmpty())
             datenFilm.countrySet.clear();
@@ -126,37 +194,54 @@ public class FilmListReader implements AutoCloseable {
         }
     }
 
-    private void parseSender(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        String parsedSender = checkedString(jp);
+    /**
+     * Resolve the sender carry-over compression of the filmlist.
+     * An empty sender means "same as previous entry".
+     * Must be called in filmlist order.
+     */
+    private String resolveSender(String value) {
+        String parsedSender = checkedString(value);
         if (parsedSender.isEmpty())
-            datenFilm.setSender(sender);
+            return sender;
         else {
-            datenFilm.setSender(parsedSender);
             //store for future reads
-            sender = parsedSender;
+            sender = stringPool.intern(parsedSender);
+            return sender;
+        }
+    }
+
+    /**
+     * Resolve the thema carry-over compression of the filmlist.
+     * An empty thema means "same as previous entry".
+     * Must be called in filmlist order.
+     */
+    private String resolveThema(String value) {
+        String parsedThema = checkedString(value);
+        if (parsedThema.isEmpty())
+            return thema;
+        else {
+            thema = stringPool.intern(parsedThema);
+            return thema;
         }
+    }
+
+    private void parseSender(String value, DatenFilm datenFilm) {
+        datenFilm.setSender(value);
 
         if (datenFilm.getSender().equalsIgnoreCase("rbtv")) {
             datenFilm.setSender("Radio Bremen TV");
         }
     }
 
-    private void parseThema(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        String value = checkedString(jp);
-        if (value.isEmpty())
-            datenFilm.setThema(thema);
-        else {
-            datenFilm.setThema(value);
-            thema = value;
-        }
+    private void parseThema(String value, DatenFilm datenFilm) {
+        datenFilm.setThema(value);
 
         //we need to check thema as well as (currently) ARD also puts teaser only into thema...
         if (ttc.check(datenFilm.getThema()))
             datenFilm.setTrailerTeaser(true);
     }
 
-    private String checkedString(JsonParser jp) throws IOException {
-        String value = jp.nextTextValue();
+    private String checkedString(String value) {
         //only check for null and replace for the default rows...
         if (value == null)
             value = "";
@@ -199,46 +284,36 @@ public class FilmListReader implements AutoCloseable {
         }
     }
 
-    private void parseUrlSubtitle(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        datenFilm.setSubtitleUrl(checkedString(jp));
+    private void parseUrlSubtitle(String value, DatenFilm datenFilm) {
+        datenFilm.setSubtitleUrl(checkedString(value));
     }
 
-    private void parseUrlKlein(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        datenFilm.setLowQualityUrl(checkedString(jp));
+    private void parseUrlKlein(String value, DatenFilm datenFilm) {
+        datenFilm.setLowQualityUrl(checkedString(value));
     }
 
-    private void parseUrlHd(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        datenFilm.setHighQualityUrl(checkedString(jp));
+    private void parseUrlHd(String value, DatenFilm datenFilm) {
+        datenFilm.setHighQualityUrl(checkedString(value));
     }
 
-    private void parseDatumLong(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        var str = checkedString(jp);
-        datenFilm.setDatumLong(str);
+    private void parseDatumLong(String value, DatenFilm datenFilm) {
+        datenFilm.setDatumLong(checkedString(value));
     }
 
-    private void parseSendedatum(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        datenFilm.setSendeDatum(checkedString(jp));
+    private void parseSendedatum(String value, DatenFilm datenFilm) {
+        datenFilm.setSendeDatum(checkedString(value));
     }
 
-    private void parseFilmLength(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        datenFilm.setFilmLength(checkedString(jp));
+    private void parseFilmLength(String value, DatenFilm datenFilm) {
+        datenFilm.setFilmLength(checkedString(value));
     }
 
-    private void parseGroesse(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        String value = checkedString(jp);
-        datenFilm.getFileSize().setSize(value);
+    private void parseGroesse(String value, DatenFilm datenFilm) {
+        datenFilm.getFileSize().setSize(checkedString(value));
     }
 
-    /**
-     * Skip over file entry.
-     * This is used when fields were deleted in DatenFilm but still exit in filmlist file.
-     */
-    private void skipToken(JsonParser jp) throws IOException {
-        jp.nextToken();
-    }
-
-    private void parseTime(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        String zeit = checkedString(jp);
+    private void parseTime(String value, DatenFilm datenFilm) {
+        String zeit = checkedString(value);
         if (!zeit.isEmpty() && zeit.length() < 8) {
             zeit += ":00"; // add seconds
         }
@@ -266,8 +341,8 @@ public class FilmListReader implements AutoCloseable {
             film.setTrailerTeaser(true);
     }
 
-    private void parseTitel(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        final String title = checkedString(jp);
+    private void parseTitel(String value, DatenFilm datenFilm) {
+        final String title = checkedString(value);
         datenFilm.setTitle(title);
         //check title if it is audio version
         parseAudioVersion(title, datenFilm);
@@ -279,8 +354,8 @@ public class FilmListReader implements AutoCloseable {
             datenFilm.setBurnedInSubtitles(true);
     }
 
-    private void parseUrl(JsonParser jp, DatenFilm datenFilm) throws IOException {
-        datenFilm.setNormalQualityUrl(checkedString(jp));
+    private void parseUrl(String value, DatenFilm datenFilm) {
+        datenFilm.setNormalQualityUrl(checkedString(value));
     }
 
     private void parseLivestream(DatenFilm datenFilm) {
@@ -288,9 +363,104 @@ public class FilmListReader implements AutoCloseable {
             datenFilm.setLivestream(true);
     }
 
-    private void readData(JsonParser jp, ListeFilme listeFilme) throws IOException {
-        JsonToken jsonToken;
+    /**
+     * Read the raw values of one film entry from the parser.
+     * Sender and thema carry-over compression is resolved here as it depends on filmlist order.
+     * Strings which repeat in many entries get deduplicated here as well.
+     * Fields which were deleted in DatenFilm but still exist in the filmlist file are read but ignored later on.
+     *
+     * @param jp the parser positioned at the start of a film entry array.
+     * @return the raw field values of the entry.
+     */
+    private String[] readRecord(JsonParser jp) throws IOException {
+        final String[] record = new String[RECORD_SIZE];
+        for (int i = 0; i < RECORD_SIZE; i++) {
+            record[i] = jp.nextTextValue();
+        }
+        record[RECORD_SENDER] = resolveSender(record[RECORD_SENDER]);
+        record[RECORD_THEMA] = resolveThema(record[RECORD_THEMA]);
+        record[RECORD_DATUM] = stringPool.intern(record[RECORD_DATUM]);
+        record[RECORD_ZEIT] = stringPool.intern(record[RECORD_ZEIT]);
+
+        return record;
+    }
 
+    /**
+     * Build and classify a film object from its raw values.
+     * This does not depend on any reader state and may therefore be called from multiple threads.
+     *
+     * @param record    the raw values as read by {@link #readRecord(JsonParser)}.
+     * @param datenFilm the film object to fill.
+     * @param settings  the user defined load restrictions.
+     * @return true if the film shall be loaded, false if it was rejected.
+     */
+    private boolean buildFilm(String[] record, DatenFilm datenFilm, LoadSettings settings) {
+        parseSender(record[RECORD_SENDER], datenFilm);
+        parseThema(record[RECORD_THEMA], datenFilm);
+        parseTitel(record[RECORD_TITEL], datenFilm);
+        parseSendedatum(record[RECORD_DATUM], datenFilm);
+        parseTime(record[RECORD_ZEIT], datenFilm);
+        parseFilmLength(record[RECORD_DAUER], datenFilm);
+        parseGroesse(record[RECORD_GROESSE], datenFilm);
+        parseDescription(record[RECORD_BESCHREIBUNG], datenFilm);
+        parseUrl(record[RECORD_URL], datenFilm);
+        parseWebsiteLink(record[RECORD_WEBSITE], datenFilm);
+        parseUrlSubtitle(record[RECORD_URL_SUBTITLE], datenFilm);
+        parseUrlKlein(record[RECORD_URL_KLEIN], datenFilm);
+        parseUrlHd(record[RECORD_URL_HD], datenFilm);
+        parseDatumLong(record[RECORD_DATUM_LONG], datenFilm);
+        parseGeo(record[RECORD_GEO], datenFilm);
+        parseNeu(record[RECORD_NEU], datenFilm);
+
+        //this will check after all data has been read
+        parseLivestream(datenFilm);
+        checkPlayList(datenFilm);
+
+        if (!isAccepted(datenFilm, settings))
+            return false;
+
+        //just initialize the film object, rest will be done in one of the filters
+        datenFilm.init();
+
+        return true;
+    }
+
+    /**
+     * Check the user defined load restrictions.
+     *
+     * @param datenFilm the completely parsed film.
+     * @param settings  the user defined load restrictions.
+     * @return true if the film shall be loaded.
+     */
+    private boolean isAccepted(DatenFilm datenFilm, LoadSettings settings) {
+        //if user specified he doesn´t want to load this sender, skip...
+        if (!SenderFilmlistLoadApprover.isApproved(datenFilm.getSender()))
+            return false;
+
+        if (!settings.loadTrailer()) {
+            if (datenFilm.isTrailerTeaser())
+                return false;
+        }
+
+        if (!settings.loadAudiodescription()) {
+            if (datenFilm.isAudioVersion())
+                return false;
+        }
+
+        if (!settings.loadSignLanguage()) {
+            if (datenFilm.isSignLanguage())
+                return false;
+        }
+
+        if (!settings.loadLivestreams()) {
+            if (datenFilm.isLivestream())
+                return false;
+        }
+
+        return true;
+    }
+
+    private void readData(JsonParser jp, ListeFilme listeFilme) throws IOException {
         if (jp.nextToken() != JsonToken.START_OBJECT) {
             throw new IllegalStateException("Expected data to start with an Object");
         }
@@ -300,75 +470,97 @@ public class FilmListReader implements AutoCloseable {
         skipFieldDescriptions(jp);
 
         final var config = ApplicationConfiguration.getConfiguration();
-        final boolean loadTrailer = config.getBoolean(ApplicationConfiguration.FilmList.LOAD_TRAILER, true);
-        final boolean loadAudiodescription = config.getBoolean(ApplicationConfiguration.FilmList.LOAD_AUDIO_DESCRIPTION, true);
-        final boolean loadSignLanguage = config.getBoolean(ApplicationConfiguration.FilmList.LOAD_SIGN_LANGUAGE, true);
-        final boolean loadLivestreams = config.getBoolean(ApplicationConfiguration.FilmList.LOAD_LIVESTREAMS, true);
+        final var settings = LoadSettings.fromConfig();
+
+        if (config.getBoolean(ApplicationConfiguration.FilmList.PARALLEL_READER, true))
+            readFilmEntriesParallel(jp, settings);
+        else
+            readFilmEntries(jp, settings);
+    }
 
+    /**
+     * Sequential reader, everything is done on the calling thread.
+     */
+    private void readFilmEntries(JsonParser jp, LoadSettings settings) throws IOException {
+        JsonToken jsonToken;
         while ((jsonToken = jp.nextToken()) != null) {
             if (jsonToken == JsonToken.END_OBJECT) {
                 break;
             }
             if (jp.isExpectedStartArrayToken()) {
                 DatenFilm datenFilm = new DatenFilm();
-                parseSender(jp, datenFilm);
-                parseThema(jp, datenFilm);
-                parseTitel(jp, datenFilm);
-                parseSendedatum(jp, datenFilm);
-                parseTime(jp, datenFilm);
-                parseFilmLength(jp, datenFilm);
-                parseGroesse(jp, datenFilm);
-                parseDescription(jp, datenFilm);
-                parseUrl(jp, datenFilm);
-                parseWebsiteLink(jp, datenFilm);
-                parseUrlSubtitle(jp, datenFilm);
-                skipToken(jp);
-                parseUrlKlein(jp, datenFilm);
-                skipToken(jp);
-                parseUrlHd(jp, datenFilm);
-                skipToken(jp);
-                parseDatumLong(jp, datenFilm);
-                skipToken(jp); //HISTORY_URL
-                parseGeo(jp, datenFilm);
-                parseNeu(jp, datenFilm);
-
-                //this will check after all data has been read
-                parseLivestream(datenFilm);
-                checkPlayList(datenFilm);
-
-                //if user specified he doesn´t want to load this sender, skip...
-                if (!SenderFilmlistLoadApprover.isApproved(datenFilm.getSender()))
-                    continue;
-
-                if (!loadTrailer) {
-                    if (datenFilm.isTrailerTeaser())
-                        continue;
+                if (buildFilm(readRecord(jp), datenFilm, settings)) {
+                    // this will add the film to the filmlist if it passes...
+                    dateFilter.filter(datenFilm);
                 }
+            }
+        }
+    }
 
-                if (!loadAudiodescription) {
-                    if (datenFilm.isAudioVersion())
-                        continue;
-                }
+    /**
+     * Pipelined reader.
+     * The calling thread decompresses and tokenizes the filmlist into batches of raw records.
+     * Film objects are built and classified by worker threads, results are added to the list in filmlist order.
+     * Output is identical to {@link #readFilmEntries(JsonParser, LoadSettings)} including film numbers.
+     */
+    private void readFilmEntriesParallel(JsonParser jp, LoadSettings settings) throws IOException {
+        final int maxPendingBatches = 2 * Runtime.getRuntime().availableProcessors();
+        final ArrayDeque<CompletableFuture<List<DatenFilm>>> pendingBatches = new ArrayDeque<>();
+        List<String[]> batch = new ArrayList<>(PARALLEL_BATCH_SIZE);
 
-                if (!loadSignLanguage) {
-                    if (datenFilm.isSignLanguage())
-                        continue;
+        JsonToken jsonToken;
+        while ((jsonToken = jp.nextToken()) != null) {
+            if (jsonToken == JsonToken.END_OBJECT) {
+                break;
+            }
+            if (jp.isExpectedStartArrayToken()) {
+                batch.add(readRecord(jp));
+                if (batch.size() == PARALLEL_BATCH_SIZE) {
+                    pendingBatches.add(submitBatch(batch, settings));
+                    batch = new ArrayList<>(PARALLEL_BATCH_SIZE);
+
+                    // add finished batches in order, block if workers can´t keep up
+                    while (!pendingBatches.isEmpty()
+                            && (pendingBatches.size() >= maxPendingBatches || pendingBatches.peek().isDone())) {
+                        addBatchToList(pendingBatches.poll());
+                    }
                 }
+            }
+        }
 
-                if (!loadLivestreams) {
-                    if (datenFilm.isLivestream())
-                        continue;
-                }
+        if (!batch.isEmpty())
+            pendingBatches.add(submitBatch(batch, settings));
+
+        while (!pendingBatches.isEmpty()) {
+            addBatchToList(pendingBatches.poll());
+        }
+    }
 
-                //just initialize the film object, rest will be done in one of the filters
-                datenFilm.init();
+    private CompletableFuture<List<DatenFilm>> submitBatch(@NotNull List<String[]> batch, @NotNull LoadSettings settings) {
+        // reserve film numbers in filmlist order so that numbering matches the sequential reader
+        final int firstFilmNr = DatenFilm.reserveFilmNumbers(batch.size());
+        return CompletableFuture.supplyAsync(() -> {
+            List<DatenFilm> films = new ArrayList<>(batch.size());
+            int filmNr = firstFilmNr;
+            for (var record : batch) {
+                var datenFilm = new DatenFilm(filmNr++);
+                if (buildFilm(record, datenFilm, settings))
+                    films.add(datenFilm);
+            }
+            return films;
+        });
+    }
 
+    private void addBatchToList(@NotNull CompletableFuture<List<DatenFilm>> batchFuture) throws IOException {
+        try {
+            for (var datenFilm : batchFuture.join()) {
                 // this will add the film to the filmlist if it passes...
                 dateFilter.filter(datenFilm);
             }
+        } catch (CompletionException ex) {
+            throw new IOException("Failed to process filmlist entries", ex.getCause());
         }
     }
-
     /**
      * Check if this film entry is a playlist entry, ends with .m3u8
      *
@@ -383,6 +575,7 @@ public class FilmListReader implements AutoCloseable {
         try {
             logger.trace("Liste Filme lesen von: {}", source);
             listeFilme.clear();
+            stringPool = new StringPool(STRING_POOL_MAX_SIZE);
 
             if (days == 0) {
                 dateFilter = new NoOpDateFilter(listeFilme);
@@ -402,6 +595,8 @@ public class FilmListReader implements AutoCloseable {
             logger.warn(ex);
         }
 
+        logger.trace("Deduplicated strings: {}", stringPool.size());
+        stringPool = new StringPool(STRING_POOL_MAX_SIZE);
         notifyFertig(source, listeFilme);
     }
 
@@ -420,12 +615,15 @@ public class FilmListReader implements AutoCloseable {
 
             final ProgressMonitor monitor = new ProgressMonitor(source);
 
+            if (readSnapshot(source, filePath, listeFilme, monitor))
+                return;
+
             //windows doesn´t like mem-mapped files...causes FileSystemExceptions :(
             try (var sourceFile = Okio.source(filePath);
                  var bufferedSource = Okio.buffer(sourceFile);
                  var is = bufferedSource.inputStream();
                  InputStream input = new ProgressMonitorInputStream(is, fileSize, monitor);
-                 InputStream in = selectDecompressor(source, input);
+                 InputStream in = createReadAheadPipeline(source, input);
                  JsonParser jp = new JsonFactory().createParser(in)) {
                 readData(jp, listeFilme);
             }
@@ -438,6 +636,54 @@ public class FilmListReader implements AutoCloseable {
         }
     }
 
+    /**
+     * Read the films from the binary snapshot of the local filmlist if it belongs to the JSON file.
+     *
+     * @param source     file path as string
+     * @param filePath   path of the JSON filmlist
+     * @param listeFilme the list to read to
+     * @param monitor    progress of reading the snapshot
+     * @return true if the films were read, false if the JSON file must be read instead.
+     */
+    private boolean readSnapshot(String source, Path filePath, ListeFilme listeFilme, ProgressMonitor monitor) {
+        final var snapshotPath = FilmListSnapshot.getSnapshotPath(filePath);
+        if (!source.endsWith(".json") || Files.notExists(snapshotPath))
+            return false;
+
+        try {
+            final var watch = Stopwatch.createStarted();
+            // snapshot is only valid for the filmlist id found in the JSON header
+            try (JsonParser jp = new JsonFactory().createParser(filePath.toFile())) {
+                if (jp.nextToken() != JsonToken.START_OBJECT)
+                    return false;
+                parseMetaData(jp, listeFilme);
+            }
+
+            final var settings = LoadSettings.fromConfig();
+            final boolean valid;
+            try (var is = Files.newInputStream(snapshotPath);
+                 InputStream input = new ProgressMonitorInputStream(is, Files.size(snapshotPath), monitor);
+                 var in = new BufferedInputStream(input, 256 * 1024)) {
+                valid = FilmListSnapshot.read(in, filePath, listeFilme.getMetaData().getId(), datenFilm -> {
+                    if (isAccepted(datenFilm, settings)) {
+                        datenFilm.init();
+                        dateFilter.filter(datenFilm);
+                    }
+                });
+            }
+            watch.stop();
+            if (valid)
+                logger.trace("Filmlist snapshot read in {}", watch);
+            else
+                logger.trace("Filmlist snapshot is outdated, reading JSON filmlist");
+            return valid;
+        } catch (Exception ex) {
+            logger.warn("Failed to read filmlist snapshot, reading JSON filmlist", ex);
+            listeFilme.clear();
+            return false;
+        }
+    }
+
     private String buildClientInfo()
     {
         List<Object> clientData = Arrays.asList(Konstanten.PROGRAMMNAME, Konstanten.MVVERSION, SystemUtils.OS_ARCH,
@@ -468,7 +714,7 @@ public class FilmListReader implements AutoCloseable {
                 }
                 ProgressMonitor monitor = new ProgressMonitor(source.toString());
                 try (InputStream input = new ProgressMonitorInputStream(body.byteStream(), body.contentLength(), monitor);
-                     InputStream is = selectDecompressor(source.toString(), input);
+                     InputStream is = createReadAheadPipeline(source.toString(), input);
                      JsonParser jp = new JsonFactory().createParser(is)) {
                     readData(jp, listeFilme);
                 }
@@ -520,6 +766,20 @@ public class FilmListReader implements AutoCloseable {
         removeRegisteredListeners();
     }
 
+    /**
+     * User defined restrictions which films shall be loaded.
+     */
+    private record LoadSettings(boolean loadTrailer, boolean loadAudiodescription, boolean loadSignLanguage,
+                                boolean loadLivestreams) {
+        static LoadSettings fromConfig() {
+            final var config = ApplicationConfiguration.getConfiguration();
+            return new LoadSettings(config.getBoolean(ApplicationConfiguration.FilmList.LOAD_TRAILER, true),
+                    config.getBoolean(ApplicationConfiguration.FilmList.LOAD_AUDIO_DESCRIPTION, true),
+                    config.getBoolean(ApplicationConfiguration.FilmList.LOAD_SIGN_LANGUAGE, true),
+                    config.getBoolean(ApplicationConfiguration.FilmList.LOAD_LIVESTREAMS, true));
+        }
+    }
+
     class ProgressMonitor implements InputStreamProgressMonitor {
         private final String sourceString;
         private int oldProgress;
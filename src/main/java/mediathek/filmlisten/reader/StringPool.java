@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.filmlisten.reader;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+
+/**
+ * Bounded string deduplication pool used while reading one filmlist.
+ * Identical strings of the many films share a single instance afterward which saves memory and lets
+ * {@link String#equals(Object)} succeed on the identity check.
+ * When the pool is full, unknown strings are returned as they are.
+ * Not thread-safe.
+ */
+final class StringPool {
+    private final HashMap<String, String> pool;
+    private final int maxSize;
+
+    StringPool(int maxSize) {
+        this.maxSize = maxSize;
+        pool = new HashMap<>();
+    }
+
+    /**
+     * @return the pooled instance equal to str, str itself if it is not pooled.
+     */
+    @Nullable String intern(@Nullable String str) {
+        if (str == null)
+            return null;
+
+        final var pooled = pool.get(str);
+        if (pooled != null)
+            return pooled;
+
+        if (pool.size() < maxSize)
+            pool.put(str, str);
+        return str;
+    }
+
+    int size() {
+        return pool.size();
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import mediathek.daten.Country;
 import mediathek.daten.DatenFilm;
 import mediathek.daten.ListeFilme;
+import mediathek.filmlisten.FilmListSnapshot;
 import mediathek.gui.messages.FilmListWriteStartEvent;
 import mediathek.gui.messages.FilmListWriteStopEvent;
 import mediathek.tool.MessageBus;
@@ -92,6 +93,7 @@ public class FilmListWriter {
 
             Path filePath = Paths.get(datei);
             try {
+                FilmListSnapshot.delete(filePath);
                 Files.deleteIfExists(filePath);
             }
             catch (Exception e) {
@@ -133,6 +135,8 @@ public class FilmListWriter {
                 logger.info("   --> geschrieben!");
                 logger.trace("Write duration: {} ms", TimeUnit.MILLISECONDS.convert(end - start, TimeUnit.NANOSECONDS));
             }
+
+            writeSnapshot(filePath, listeFilme);
         } catch (Exception ex) {
             logger.error("nach: {}", datei, ex);
         }
@@ -140,6 +144,20 @@ public class FilmListWriter {
         MessageBus.getMessageBus().publishAsync(new FilmListWriteStopEvent());
     }
 
+    /**
+     * Write the binary snapshot used for fast startup, the JSON file is still the reference.
+     */
+    private void writeSnapshot(@NotNull Path filePath, @NotNull ListeFilme listeFilme) {
+        try {
+            long start = System.nanoTime();
+            FilmListSnapshot.write(filePath, listeFilme);
+            long end = System.nanoTime();
+            logger.trace("Snapshot write duration: {} ms", TimeUnit.MILLISECONDS.convert(end - start, TimeUnit.NANOSECONDS));
+        } catch (IOException ex) {
+            logger.error("Failed to write filmlist snapshot", ex);
+        }
+    }
+
     private void writeDatumLong(DatenFilm datenFilm, JsonGenerator jg) throws IOException {
         var filmDate = datenFilm.getDatumFilm();
         if (filmDate.equals(DatumFilm.UNDEFINED_FILM_DATE)) {
@@ -2,14 +2,19 @@ package mediathek.gui.actions;
 
 import mediathek.config.Konstanten;
 import mediathek.config.StandardLocations;
+import mediathek.filmlisten.FilmListSnapshot;
 import mediathek.mainwindow.MediathekGui;
 import mediathek.tool.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
+import java.io.IOException;
 import java.nio.file.Paths;
 
 public class DeleteLocalFilmlistAction extends AbstractAction {
+    private static final Logger logger = LogManager.getLogger();
     private final JFrame owner;
 
     public DeleteLocalFilmlistAction(MediathekGui parent) {
@@ -24,6 +29,11 @@ public class DeleteLocalFilmlistAction extends AbstractAction {
         var filmlistPathStr = StandardLocations.getFilmlistFilePathString();
         var fimlistPath = Paths.get(filmlistPathStr);
         FileUtils.moveToTrash(fimlistPath);
+        try {
+            FilmListSnapshot.delete(fimlistPath);
+        } catch (IOException ex) {
+            logger.error("Failed to delete filmlist snapshot", ex);
+        }
         JOptionPane.showMessageDialog(owner,
                 "Filmliste wurde gelöscht.\nDas Programm wird nun beendet.",
                 Konstanten.PROGRAMMNAME, JOptionPane.INFORMATION_MESSAGE);
@@ -3,6 +3,7 @@ package mediathek.gui.dialog;
 import mediathek.config.Konstanten;
 import mediathek.config.MVColor;
 import mediathek.controller.starter.Start;
+import mediathek.controller.starter.StarterClass;
 import mediathek.daten.DatenDownload;
 import mediathek.daten.DatenProg;
 import mediathek.daten.FilmResolution;
@@ -515,6 +516,8 @@ public class DialogEditDownload extends JDialog {
     private static final Logger logger = LogManager.getLogger(DialogEditDownload.class);
 
     private boolean downloadDateiLoeschen(DatenDownload datenDownload) {
+        // incomplete segments of the old resolution are useless
+        StarterClass.deleteTemporaryFiles(datenDownload);
         try {
             File file = new File(datenDownload.arr[DatenDownload.DOWNLOAD_ZIEL_PFAD_DATEINAME]);
             if (!file.exists()) {
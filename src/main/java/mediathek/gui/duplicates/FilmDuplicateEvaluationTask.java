@@ -2,18 +2,21 @@ package mediathek.gui.duplicates;
 
 import ca.odell.glazedlists.TransactionList;
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.Sets;
 import com.google.common.hash.Hashing;
 import mediathek.config.Daten;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmIdentity;
 import mediathek.daten.ListeFilme;
+import mediathek.tool.LongPairHashSet;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class FilmDuplicateEvaluationTask implements Runnable {
     private static final Logger logger = LogManager.getLogger();
@@ -49,29 +52,72 @@ public class FilmDuplicateEvaluationTask implements Runnable {
 
     private void checkDuplicates() {
         logger.trace("Start Duplicate URL search");
-        final Set<Long> urlCache = Sets.newConcurrentHashSet();
-
-        var hf = Hashing.murmur3_128();
         Stopwatch watch = Stopwatch.createStarted();
-        listeFilme.stream()
-                .filter(f -> !f.isLivestream())
-                .sorted(new BigSenderPenaltyComparator())
-                .forEach(film -> {
-                    var hasher = hf.newHasher()
-                            .putString(film.getUrlNormalQuality(), StandardCharsets.UTF_8);
-                    if (film.isHighQuality())
-                        hasher = hasher.putString(film.getHighQualityUrl(), StandardCharsets.UTF_8);
-                    if (film.hasLowQuality())
-                        hasher = hasher.putString(film.getLowQualityUrl(), StandardCharsets.UTF_8);
-                    final var hc = hasher.hash();
-                    final var hash = hc.padToLong();
-
-                    film.setDuplicate(urlCache.contains(hash));
-                    urlCache.add(hash);
-                });
+        markDuplicates(listeFilme);
         watch.stop();
         logger.trace("Duplicate URL search took: {}", watch);
-        urlCache.clear();
+    }
+
+    /**
+     * Mark all films whose urls were already seen in a film of higher priority as duplicate.
+     * Priority is defined by {@link BigSenderPenaltyComparator}, for films of equal priority the first one in
+     * the list wins. This gives the same result as sorting the list and marking all but the first film
+     * of every url group, but only films with equal urls ever get compared.
+     * Livestreams are ignored.
+     *
+     * @param films the films to check.
+     */
+    static void markDuplicates(@NotNull List<DatenFilm> films) {
+        final int size = films.size();
+        final long[] highs = new long[size];
+        final long[] lows = new long[size];
+
+        // hashing is the expensive part and independent for every film
+        final var hf = Hashing.murmur3_128();
+        IntStream.range(0, size).parallel().forEach(i -> {
+            final var film = films.get(i);
+            if (film.isLivestream())
+                return;
+
+            var hasher = hf.newHasher()
+                    .putString(film.getUrlNormalQuality(), StandardCharsets.UTF_8);
+            if (film.isHighQuality())
+                hasher = hasher.putString(film.getHighQualityUrl(), StandardCharsets.UTF_8);
+            if (film.hasLowQuality())
+                hasher = hasher.putString(film.getLowQualityUrl(), StandardCharsets.UTF_8);
+            final var identity = FilmIdentity.fromHashCode(hasher.hash());
+            highs[i] = identity.high();
+            lows[i] = identity.low();
+        });
+
+        // resolve the film which is kept for every url group, list order makes the result deterministic
+        final var urlSet = new LongPairHashSet(size);
+        final int[] ordinals = new int[size];
+        final int[] winners = new int[size];
+        final var comparator = new BigSenderPenaltyComparator();
+        for (int i = 0; i < size; i++) {
+            final var film = films.get(i);
+            if (film.isLivestream()) {
+                ordinals[i] = -1;
+                continue;
+            }
+
+            final int knownUrls = urlSet.size();
+            final int ordinal = urlSet.addOrGetOrdinal(highs[i], lows[i]);
+            ordinals[i] = ordinal;
+            if (ordinal == knownUrls) {
+                // first film with these urls
+                winners[ordinal] = i;
+            } else if (comparator.compare(film, films.get(winners[ordinal])) < 0) {
+                winners[ordinal] = i;
+            }
+        }
+
+        IntStream.range(0, size).parallel().forEach(i -> {
+            final int ordinal = ordinals[i];
+            if (ordinal >= 0)
+                films.get(i).setDuplicate(winners[ordinal] != i);
+        });
     }
 
     @Override
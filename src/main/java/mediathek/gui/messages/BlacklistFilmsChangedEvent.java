@@ -0,0 +1,18 @@
+package mediathek.gui.messages;
+
+import mediathek.daten.DatenFilm;
+
+import java.util.List;
+
+/**
+ * Blacklist was changed incrementally, only the given films were added to or removed from the filtered film list.
+ */
+public class BlacklistFilmsChangedEvent extends BlacklistChangedEvent {
+    public final List<DatenFilm> addedFilms;
+    public final List<DatenFilm> removedFilms;
+
+    public BlacklistFilmsChangedEvent(List<DatenFilm> addedFilms, List<DatenFilm> removedFilms) {
+        this.addedFilms = addedFilms;
+        this.removedFilms = removedFilms;
+    }
+}
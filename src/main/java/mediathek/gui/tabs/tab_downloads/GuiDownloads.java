@@ -8,6 +8,7 @@ import mediathek.config.Konstanten;
 import mediathek.config.MVConfig;
 import mediathek.controller.history.MVUsedUrl;
 import mediathek.controller.starter.Start;
+import mediathek.controller.starter.StarterClass;
 import mediathek.daten.DatenDownload;
 import mediathek.daten.DatenFilm;
 import mediathek.daten.DatenPset;
@@ -684,6 +685,7 @@ public class GuiDownloads extends AGuiTabPanel {
                 if (!file.delete()) {
                     throw new Exception();
                 }
+                StarterClass.deleteTemporaryFiles(datenDownload);
             }
         } catch (Exception ex) {
             MVMessageDialog.showMessageDialog(mediathekGui, "Konnte die Datei nicht löschen!", "Film löschen", JOptionPane.ERROR_MESSAGE);
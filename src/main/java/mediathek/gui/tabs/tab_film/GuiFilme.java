@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.formdev.flatlaf.FlatClientProperties;
 import com.formdev.flatlaf.extras.FlatSVGIcon;
 import com.formdev.flatlaf.icons.FlatSearchWithHistoryIcon;
+import com.google.common.base.Stopwatch;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -32,6 +33,9 @@ import mediathek.gui.messages.history.DownloadHistoryChangedEvent;
 import mediathek.gui.tabs.AGuiTabPanel;
 import mediathek.gui.tabs.tab_film.filter.SwingFilterDialog;
 import mediathek.gui.tabs.tab_film.filter_selection.FilterSelectionComboBoxModel;
+import mediathek.gui.tabs.tab_film.helpers.FilmTableModelCache;
+import mediathek.gui.tabs.tab_film.helpers.RefiningGuiFilmeModelHelper;
+import mediathek.gui.tabs.tab_film.helpers.SearchNarrowing;
 import mediathek.gui.tabs.tab_film.helpers.GuiFilmeModelHelper;
 import mediathek.gui.tabs.tab_film.helpers.GuiModelHelper;
 import mediathek.gui.tabs.tab_film.helpers.LuceneGuiFilmeModelHelper;
@@ -69,6 +73,7 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 
@@ -120,6 +125,19 @@ public class GuiFilme extends AGuiTabPanel {
      * We perform model filtering in the background the keep UI thread alive.
      */
     private ListenableFuture<TableModel> modelFuture;
+    /**
+     * The helper of the most recent search, gets cancelled when a newer search is started.
+     */
+    private GuiModelHelper currentModelHelper;
+    /**
+     * Incremented for every search, only results of the latest search are displayed.
+     */
+    private int searchGeneration;
+    private final FilmTableModelCache modelCache = new FilmTableModelCache();
+    /**
+     * The displayed search result, used as starting point for narrower searches.
+     */
+    private LastSearch lastSearch;
 
     public GuiFilme(Daten aDaten, MediathekGui mediathekGui) {
         daten = aDaten;
@@ -402,8 +420,16 @@ public class GuiFilme extends AGuiTabPanel {
         tabelle.getTableHeader().addMouseListener(headerListener);
     }
 
+    @Handler
+    private void handleAboListChangedEvent(AboListChangedEvent e) {
+        // cached results of the abo filter are outdated
+        modelCache.invalidate();
+    }
+
     @Handler
     private void handleDownloadHistoryChangedEvent(DownloadHistoryChangedEvent e) {
+        // cached results of the unseen filter are outdated
+        modelCache.invalidate();
         SwingUtilities.invokeLater(() -> {
             if (filterConfiguration.isShowUnseenOnly()) {
                 MessageBus.getMessageBus().publish(new ReloadTableDataEvent());
@@ -662,11 +688,33 @@ public class GuiFilme extends AGuiTabPanel {
         loadTable(false);
     }
 
+    /**
+     * Filter the film list in the background and display the result.
+     * The newest request always wins: a search which is still running gets cancelled and its result is discarded.
+     * Must be called on the EDT.
+     *
+     * @param from_search_field true if the search was triggered from the search field.
+     */
     private void loadTable(boolean from_search_field) {
-        if (modelFuture != null) {
-            if (!modelFuture.isDone()) {
-                return;
-            }
+        if (currentModelHelper != null)
+            currentModelHelper.cancel();
+
+        final int generation = ++searchGeneration;
+        final var watch = Stopwatch.createStarted();
+
+        final var searchFieldData = new SearchFieldData(searchField.getText(), searchField.getSearchMode());
+        final var filter = filterConfiguration.snapshot();
+        final var cacheKey = modelCache.createKey(daten.getListeFilmeNachBlackList(), filter, searchFieldData);
+        final var cachedModel = modelCache.get(cacheKey);
+        if (cachedModel != null) {
+            stopBeob = true;
+            tabelle.getSpalten();
+            showTableModel(cachedModel, from_search_field);
+            rememberLastSearch(cacheKey, cachedModel);
+            watch.stop();
+            logger.trace("Search \"{}\" with {} results took {} (cached)",
+                    searchFieldData.searchFieldText(), cachedModel.getRowCount(), watch);
+            return;
         }
 
         final var messageBus = MessageBus.getMessageBus();
@@ -676,31 +724,49 @@ public class GuiFilme extends AGuiTabPanel {
         tabelle.getSpalten();
         tabelle.setEnabled(false);
 
+        final var helper = createModelHelper(filter, searchFieldData);
+        currentModelHelper = helper;
+
+        final var previousFuture = modelFuture;
         var decoratedPool = daten.getDecoratedPool();
         modelFuture = decoratedPool.submit(() -> {
-            var searchFieldData = new SearchFieldData(searchField.getText(), searchField.getSearchMode());
-            GuiModelHelper helper = GuiModelHelperFactory.createGuiModelHelper(
-                    historyController, searchFieldData, filterConfiguration);
+            // helpers share the seen history cache, so wait until the cancelled search has given up
+            if (previousFuture != null) {
+                try {
+                    previousFuture.get();
+                } catch (Exception ignored) {
+                }
+            }
             return helper.getFilteredTableModel();
         });
         Futures.addCallback(modelFuture,
                 new FutureCallback<>() {
                     public void onSuccess(TableModel model) {
                         SwingUtilities.invokeLater(() -> {
-                            tabelle.setModel(model);
-                            tabelle.setEnabled(true);
-                            updateStartInfoProperty();
-                            tabelle.setSpalten();
-                            updateFilmData();
-                            stopBeob = false;
-                            tabelle.scrollToSelection();
-                            messageBus.publish(new TableModelChangeEvent(false, from_search_field));
+                            if (generation != searchGeneration || helper.isCancelled())
+                                return;
+
+                            modelCache.put(cacheKey, model);
+                            showTableModel(model, from_search_field);
+                            rememberLastSearch(cacheKey, model);
+                            watch.stop();
+                            logger.trace("Search \"{}\" with {} results took {}",
+                                    searchFieldData.searchFieldText(), model.getRowCount(), watch);
                         });
                     }
 
                     public void onFailure(@NotNull Throwable thrown) {
-                        logger.error("Model filtering failed!", thrown);
+                        if (thrown instanceof CancellationException) {
+                            logger.trace("Search \"{}\" was cancelled after {}",
+                                    searchFieldData.searchFieldText(), watch);
+                        } else {
+                            logger.error("Model filtering failed!", thrown);
+                        }
+
                         SwingUtilities.invokeLater(() -> {
+                            if (generation != searchGeneration)
+                                return;
+
                             tabelle.setEnabled(true);
                             updateStartInfoProperty();
                             tabelle.setSpalten();
@@ -713,15 +779,57 @@ public class GuiFilme extends AGuiTabPanel {
                 decoratedPool);
     }
 
+    /**
+     * Create the helper for a search. If the search only narrows down the displayed result, just this result
+     * gets filtered instead of the whole film list.
+     */
+    private GuiModelHelper createModelHelper(@NotNull FilterConfiguration.Snapshot filter,
+                                             @NotNull SearchFieldData searchFieldData) {
+        final boolean lucene = daten.getListeFilmeNachBlackList() instanceof IndexedFilmList;
+        if (lastSearch != null && modelCache.isCurrent(lastSearch.key())) {
+            final var previousKey = lastSearch.key();
+            if (SearchNarrowing.isNarrowing(previousKey.filter(), previousKey.searchFieldData(),
+                    filter, searchFieldData, lucene)) {
+                logger.trace("Search narrows down the previous one, filtering {} films",
+                        lastSearch.model().getRowCount());
+                return new RefiningGuiFilmeModelHelper(historyController, searchFieldData, filter,
+                        lastSearch.model().getFilms(), !lucene);
+            }
+        }
+
+        return GuiModelHelperFactory.createGuiModelHelper(historyController, searchFieldData, filter);
+    }
+
+    private void rememberLastSearch(@Nullable FilmTableModelCache.Key key, @NotNull TableModel model) {
+        if (key != null && model instanceof TModelFilm filmModel)
+            lastSearch = new LastSearch(key, filmModel);
+        else
+            lastSearch = null;
+    }
+
+    private void showTableModel(@NotNull TableModel model, boolean from_search_field) {
+        tabelle.setModel(model);
+        tabelle.setEnabled(true);
+        updateStartInfoProperty();
+        tabelle.setSpalten();
+        updateFilmData();
+        stopBeob = false;
+        tabelle.scrollToSelection();
+        MessageBus.getMessageBus().publish(new TableModelChangeEvent(false, from_search_field));
+    }
+
+    private record LastSearch(@NotNull FilmTableModelCache.Key key, @NotNull TModelFilm model) {
+    }
+
     static class GuiModelHelperFactory {
         public static GuiModelHelper createGuiModelHelper(@NotNull SeenHistoryController historyController,
                                                           @NotNull SearchFieldData searchFieldData,
-                                                          @NotNull FilterConfiguration filterConfig) {
+                                                          @NotNull FilterConfiguration.Snapshot filter) {
             GuiModelHelper helper;
             if (Daten.getInstance().getListeFilmeNachBlackList() instanceof IndexedFilmList) {
-                helper = new LuceneGuiFilmeModelHelper(historyController, searchFieldData, filterConfig);
+                helper = new LuceneGuiFilmeModelHelper(historyController, searchFieldData, filter);
             } else {
-                helper = new GuiFilmeModelHelper(historyController, searchFieldData, filterConfig);
+                helper = new GuiFilmeModelHelper(historyController, searchFieldData, filter);
             }
             return helper;
         }
@@ -214,20 +214,7 @@ public class SwingFilterDialog extends JDialog {
      * @return list of all applicable themas.
      */
     private List<String> getThemaList(@NotNull java.util.List<String> selectedSenders) {
-        List<String> finalList = new ArrayList<>();
-
-        var blackList = Daten.getInstance().getListeFilmeNachBlackList();
-        if (selectedSenders.isEmpty()) {
-            finalList.addAll(blackList.getThemenUnprocessed(""));
-        }
-        else {
-            for (String sender : selectedSenders) {
-                finalList.addAll(blackList.getThemenUnprocessed(sender));
-            }
-        }
-
-        return finalList.parallelStream().distinct()
-                .sorted(GermanStringSorter.getInstance()).toList();
+        return Daten.getInstance().getListeFilmeNachBlackList().getThemen(selectedSenders);
     }
 
     private void updateThemaComboBox() {
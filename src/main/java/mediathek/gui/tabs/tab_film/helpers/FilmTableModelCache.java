@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.gui.tabs.tab_film.helpers;
+
+import mediathek.daten.ListeFilme;
+import mediathek.gui.tabs.tab_film.SearchFieldData;
+import mediathek.tool.FilterConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.table.TableModel;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of filtered table models for the film tab.
+ * All entries belong to one state of the film list, they are dropped as soon as the list is replaced or modified.
+ * Changes to other data which is used for filtering (abos, seen history) must be reported via {@link #invalidate()}.
+ * Results of the bookmark filter are never cached as bookmarks change without notification.
+ */
+public class FilmTableModelCache {
+    private static final int MAX_ENTRIES = 8;
+    private final Map<Key, TableModel> models = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, TableModel> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private ListeFilme listeFilme;
+    private int listModificationCount;
+    /**
+     * Incremented on every invalidation, results of searches started before are not stored.
+     */
+    private int generation;
+
+    /**
+     * Create the cache key for a search. Drops all entries if the list has changed since the last search.
+     *
+     * @param list the list which will be filtered.
+     * @return the key or null if the result must not be cached.
+     */
+    public synchronized @Nullable Key createKey(@NotNull ListeFilme list, @NotNull FilterConfiguration.Snapshot filter,
+                                                @NotNull SearchFieldData searchFieldData) {
+        if (list != listeFilme || list.getModificationCount() != listModificationCount) {
+            invalidate();
+            listeFilme = list;
+            listModificationCount = list.getModificationCount();
+        }
+
+        if (filter.showBookMarkedOnly())
+            return null;
+        // the zeitraum filter is relative to the current day
+        return new Key(filter, searchFieldData, LocalDate.now(), generation);
+    }
+
+    /**
+     * @return the cached model or null.
+     */
+    public synchronized @Nullable TableModel get(@Nullable Key key) {
+        if (key == null || key.generation != generation)
+            return null;
+        return models.get(key);
+    }
+
+    /**
+     * Store a model. It is ignored if the cache was invalidated or the list was modified since the key was created.
+     */
+    public synchronized void put(@Nullable Key key, @NotNull TableModel model) {
+        if (key == null || key.generation != generation || listeFilme.getModificationCount() != listModificationCount)
+            return;
+
+        models.put(key, model);
+    }
+
+    /**
+     * Check if a result belonging to the key may still be used, i.e. neither the list nor other data has changed.
+     */
+    public synchronized boolean isCurrent(@NotNull Key key) {
+        return key.generation == generation
+                && key.day.equals(LocalDate.now())
+                && listeFilme.getModificationCount() == listModificationCount;
+    }
+
+    /**
+     * Drop all cached models.
+     */
+    public synchronized void invalidate() {
+        models.clear();
+        generation++;
+    }
+
+    public record Key(FilterConfiguration.Snapshot filter, SearchFieldData searchFieldData, LocalDate day,
+                      int generation) {
+    }
+}
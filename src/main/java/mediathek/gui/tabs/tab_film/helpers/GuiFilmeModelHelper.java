@@ -33,67 +33,43 @@ public class GuiFilmeModelHelper extends GuiModelHelper {
 
     public GuiFilmeModelHelper(@NotNull SeenHistoryController historyController,
                                @NotNull SearchFieldData searchFieldData,
-                               @NotNull FilterConfiguration filterConfiguration) {
-        super(historyController, searchFieldData, filterConfiguration);
+                               @NotNull FilterConfiguration.Snapshot filter) {
+        super(historyController, searchFieldData, filter);
     }
 
     private void performTableFiltering() {
         calculateFilmLengthSliderValues();
 
-        if (filterConfiguration.isShowUnseenOnly())
+        if (filter.showUnseenOnly())
             historyController.prepareMemoryCache();
 
-        var stream = Daten.getInstance().getListeFilmeNachBlackList().parallelStream();
-        var selectedSenders = getSelectedSendersFromFilter();
-        if (!selectedSenders.isEmpty()) {
-            stream = stream.filter(f -> selectedSenders.contains(f.getSender()));
-        }
-        if (filterConfiguration.isShowNewOnly())
-            stream = stream.filter(DatenFilm::isNew);
-        if (filterConfiguration.isShowBookMarkedOnly())
-            stream = stream.filter(DatenFilm::isBookmarked);
-        if (filterConfiguration.isShowLivestreamsOnly())
-            stream = stream.filter(DatenFilm::isLivestream);
-        if (filterConfiguration.isShowHighQualityOnly())
-            stream = stream.filter(DatenFilm::isHighQuality);
-        if (filterConfiguration.isDontShowTrailers())
-            stream = stream.filter(film -> !film.isTrailerTeaser());
-        if (filterConfiguration.isDontShowSignLanguage())
-            stream = stream.filter(film -> !film.isSignLanguage());
-        if (filterConfiguration.isDontShowAudioVersions())
-            stream = stream.filter(film -> !film.isAudioVersion());
-        if (filterConfiguration.isDontShowAbos())
-            stream = stream.filter(film -> film.getAbo() == null);
-        if (filterConfiguration.isDontShowDuplicates()) {
-            stream = stream.filter(film -> !film.isDuplicate());
-        }
-        if (filterConfiguration.isShowSubtitlesOnly()) {
-            stream = stream.filter(DatenFilm::hasAnySubtitles);
+        try {
+            filterFilms();
+        } finally {
+            if (filter.showUnseenOnly())
+                historyController.emptyMemoryCache();
         }
+    }
 
-        stream = applyCommonFilters(stream, filterConfiguration.getThema());
+    private void filterFilms() {
+        var stream = cancellable(Daten.getInstance().getListeFilmeNachBlackList().parallelStream());
+        stream = applyFilmFilters(stream);
+        stream = applyCommonFilters(stream, filter.thema());
 
-        //final stage filtering...
-        String[] arrIrgendwo = searchFieldData.evaluateThemaTitel();
-        final boolean searchFieldEmpty = arrIrgendwo.length == 0;
-        if (!searchFieldEmpty) {
-            stream = stream.filter(FinalStageFilterFactory
-                    .createFinalStageFilter(searchFieldData.searchThroughDescriptions(), arrIrgendwo));
-        }
+        stream = applySearchFieldFilter(stream);
 
         var list = stream.toList();
         stream.close();
+        checkCancelled();
 
         //adjust initial capacity
         filmModel = new TModelFilm(list.size());
         filmModel.addAll(list);
-
-        if (filterConfiguration.isShowUnseenOnly())
-            historyController.emptyMemoryCache();
     }
 
     @Override
     public TableModel getFilteredTableModel() {
+        checkCancelled();
         final var listeFilme = Daten.getInstance().getListeFilmeNachBlackList();
 
         if (!listeFilme.isEmpty()) {
@@ -28,6 +28,7 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.swing.table.TableModel;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
@@ -35,25 +36,55 @@ public abstract class GuiModelHelper {
     private final static long UNLIMITED_LENGTH_IN_SECONDS = TimeUnit.SECONDS.convert(FilmLengthSlider.UNLIMITED_VALUE, TimeUnit.MINUTES);
     protected final SeenHistoryController historyController;
     protected final SearchFieldData searchFieldData;
-    protected final FilterConfiguration filterConfiguration;
+    protected final FilterConfiguration.Snapshot filter;
     private long minLengthInSeconds;
     private long maxLengthInSeconds = UNLIMITED_LENGTH_IN_SECONDS;
+    private volatile boolean cancelled;
 
     protected GuiModelHelper(@NotNull SeenHistoryController historyController,
                              @NotNull SearchFieldData searchFieldData,
-                             @NotNull FilterConfiguration filterConfiguration) {
+                             @NotNull FilterConfiguration.Snapshot filter) {
         this.historyController = historyController;
         this.searchFieldData = searchFieldData;
-        this.filterConfiguration = filterConfiguration;
+        this.filter = filter;
     }
 
     /**
      * Filter the filmlist.
      *
      * @return the filtered table model.
+     * @throws CancellationException if the search was cancelled.
      */
     public abstract TableModel getFilteredTableModel();
 
+    /**
+     * Cancel a running search as its result is not needed anymore.
+     * Filtering stops as soon as possible and {@link #getFilteredTableModel()} throws a {@link CancellationException}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    protected void checkCancelled() {
+        if (cancelled)
+            throw new CancellationException("Search was superseded by a newer one");
+    }
+
+    /**
+     * Make a stream abort with a {@link CancellationException} when the search gets cancelled.
+     * Works for parallel streams as well.
+     */
+    protected Stream<DatenFilm> cancellable(Stream<DatenFilm> stream) {
+        return stream.filter(_ -> {
+            checkCancelled();
+            return true;
+        });
+    }
+
     protected boolean maxLengthCheck(DatenFilm film) {
         return film.getFilmLength() < maxLengthInSeconds;
     }
@@ -66,6 +97,40 @@ public abstract class GuiModelHelper {
             return filmLength >= minLengthInSeconds;
     }
 
+    /**
+     * Apply all checkbox and sender filters which are evaluated on the film objects.
+     */
+    protected Stream<DatenFilm> applyFilmFilters(Stream<DatenFilm> stream) {
+        var selectedSenders = getSelectedSendersFromFilter();
+        if (!selectedSenders.isEmpty()) {
+            stream = stream.filter(f -> selectedSenders.contains(f.getSender()));
+        }
+        if (filter.showNewOnly())
+            stream = stream.filter(DatenFilm::isNew);
+        if (filter.showBookMarkedOnly())
+            stream = stream.filter(DatenFilm::isBookmarked);
+        if (filter.showLivestreamsOnly())
+            stream = stream.filter(DatenFilm::isLivestream);
+        if (filter.showHighQualityOnly())
+            stream = stream.filter(DatenFilm::isHighQuality);
+        if (filter.dontShowTrailers())
+            stream = stream.filter(film -> !film.isTrailerTeaser());
+        if (filter.dontShowSignLanguage())
+            stream = stream.filter(film -> !film.isSignLanguage());
+        if (filter.dontShowAudioVersions())
+            stream = stream.filter(film -> !film.isAudioVersion());
+        if (filter.dontShowAbos())
+            stream = stream.filter(film -> film.getAbo() == null);
+        if (filter.dontShowDuplicates()) {
+            stream = stream.filter(film -> !film.isDuplicate());
+        }
+        if (filter.showSubtitlesOnly()) {
+            stream = stream.filter(DatenFilm::hasAnySubtitles);
+        }
+
+        return stream;
+    }
+
     public Stream<DatenFilm> applyCommonFilters(Stream<DatenFilm> stream, final String filterThema) {
         if (!filterThema.isEmpty()) {
             stream = stream.filter(film -> film.getThema().equalsIgnoreCase(filterThema));
@@ -73,19 +138,33 @@ public abstract class GuiModelHelper {
         if (maxLengthInSeconds < UNLIMITED_LENGTH_IN_SECONDS) {
             stream = stream.filter(this::maxLengthCheck);
         }
-        if (filterConfiguration.isShowUnseenOnly()) {
+        if (filter.showUnseenOnly()) {
             stream = stream.filter(this::seenCheck);
         }
         //perform min length filtering after all others may have reduced the available entries...
         return stream.filter(this::minLengthCheck);
     }
 
+    /**
+     * Apply the thema/titel search of the search field, not to be used for lucene queries.
+     */
+    protected Stream<DatenFilm> applySearchFieldFilter(Stream<DatenFilm> stream) {
+        //final stage filtering...
+        String[] arrIrgendwo = searchFieldData.evaluateThemaTitel();
+        final boolean searchFieldEmpty = arrIrgendwo.length == 0;
+        if (!searchFieldEmpty) {
+            stream = stream.filter(FinalStageFilterFactory
+                    .createFinalStageFilter(searchFieldData.searchThroughDescriptions(), arrIrgendwo));
+        }
+        return stream;
+    }
+
     protected boolean noFiltersAreSet() {
-        return filterConfiguration.noFiltersAreSet() && searchFieldData.isEmpty();
+        return filter.noFiltersAreSet() && searchFieldData.isEmpty();
     }
 
     protected List<String> getSelectedSendersFromFilter() {
-        return filterConfiguration.getCheckedChannels().stream().filter(SenderFilmlistLoadApprover::isApproved).toList();
+        return filter.checkedChannels().stream().filter(SenderFilmlistLoadApprover::isApproved).toList();
     }
 
     protected boolean seenCheck(DatenFilm film) {
@@ -96,7 +175,7 @@ public abstract class GuiModelHelper {
      * Convert slider values for faster user later.
      */
     protected void calculateFilmLengthSliderValues() {
-        minLengthInSeconds = TimeUnit.SECONDS.convert((long)filterConfiguration.getFilmLengthMin(), TimeUnit.MINUTES);
-        maxLengthInSeconds = TimeUnit.SECONDS.convert((long)filterConfiguration.getFilmLengthMax(), TimeUnit.MINUTES);
+        minLengthInSeconds = TimeUnit.SECONDS.convert((long)filter.filmLengthMin(), TimeUnit.MINUTES);
+        maxLengthInSeconds = TimeUnit.SECONDS.convert((long)filter.filmLengthMax(), TimeUnit.MINUTES);
     }
 }
@@ -49,12 +49,12 @@ import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Stream;
 
 public class LuceneGuiFilmeModelHelper extends GuiModelHelper {
     private static final Logger logger = LogManager.getLogger();
     private static final Map<String, PointsConfig> PARSER_CONFIG_MAP = new HashMap<>();
-    private static final HashSet<String> INTEREST_SET = new HashSet<>(List.of(LuceneIndexKeys.ID));
     static {
         PARSER_CONFIG_MAP.put(LuceneIndexKeys.FILM_SIZE, new PointsConfig(new DecimalFormat(), Integer.class));
         PARSER_CONFIG_MAP.put(LuceneIndexKeys.FILM_LENGTH, new PointsConfig(new DecimalFormat(), Integer.class));
@@ -64,8 +64,8 @@ public class LuceneGuiFilmeModelHelper extends GuiModelHelper {
 
     public LuceneGuiFilmeModelHelper(@NotNull SeenHistoryController historyController,
                                      @NotNull SearchFieldData searchFieldData,
-                                     @NotNull FilterConfiguration filterConfiguration) {
-        super(historyController, searchFieldData, filterConfiguration);
+                                     @NotNull FilterConfiguration.Snapshot filter) {
+        super(historyController, searchFieldData, filter);
     }
 
     private TModelFilm performTableFiltering() {
@@ -73,11 +73,11 @@ public class LuceneGuiFilmeModelHelper extends GuiModelHelper {
         try {
             calculateFilmLengthSliderValues();
 
-            if (filterConfiguration.isShowUnseenOnly())
+            if (filter.showUnseenOnly())
                 historyController.prepareMemoryCache();
 
             String searchText = searchFieldData.searchFieldText();
-            Stream<DatenFilm> stream = listeFilme.parallelStream();
+            Stream<DatenFilm> stream = cancellable(listeFilme.parallelStream());
 
             if (!noFiltersAreSet()) {
                 var parser = new StandardQueryParser(analyzer);
@@ -93,36 +93,36 @@ public class LuceneGuiFilmeModelHelper extends GuiModelHelper {
                 qb.add(initialQuery, BooleanClause.Occur.MUST);
 
                 //Zeitraum filter on demand …
-                if (!filterConfiguration.getZeitraum().equalsIgnoreCase(ZeitraumSpinnerFormatter.INFINITE_TEXT)) {
+                if (!filter.zeitraum().equalsIgnoreCase(ZeitraumSpinnerFormatter.INFINITE_TEXT)) {
                     try {
                         qb.add(createZeitraumQuery(), BooleanClause.Occur.FILTER);
                     } catch (Exception ex) {
                         logger.error("Unable to add zeitraum filter", ex);
                     }
                 }
-                if (filterConfiguration.isShowLivestreamsOnly()) {
+                if (filter.showLivestreamsOnly()) {
                     addLivestreamQuery(qb);
                 }
-                if (filterConfiguration.isShowHighQualityOnly()) {
+                if (filter.showHighQualityOnly()) {
                     addHighQualityOnlyQuery(qb);
                 }
-                if (filterConfiguration.isDontShowTrailers()) {
+                if (filter.dontShowTrailers()) {
                     addNoTrailerTeaserQuery(qb);
                 }
-                if (filterConfiguration.isDontShowAudioVersions()) {
+                if (filter.dontShowAudioVersions()) {
                     addNoAudioVersionQuery(qb);
                 }
-                if (filterConfiguration.isDontShowSignLanguage()) {
+                if (filter.dontShowSignLanguage()) {
                     addNoSignLanguageQuery(qb);
                 }
-                if (filterConfiguration.isDontShowDuplicates()) {
+                if (filter.dontShowDuplicates()) {
                     addNoDuplicatesQuery(qb);
                 }
 
-                if (filterConfiguration.isShowSubtitlesOnly()) {
+                if (filter.showSubtitlesOnly()) {
                     addSubtitleOnlyQuery(qb);
                 }
-                if (filterConfiguration.isShowNewOnly()) {
+                if (filter.showNewOnly()) {
                     addNewOnlyQuery(qb);
                 }
                 var selectedSenders = getSelectedSendersFromFilter();
@@ -135,51 +135,52 @@ public class LuceneGuiFilmeModelHelper extends GuiModelHelper {
                 logger.info("Executing Lucene query: {}", finalQuery);
 
                 //SEARCH
-                final var searcher = new IndexSearcher(listeFilme.getReader());
-                final var docs = searcher.search(finalQuery, listeFilme.size());
-                final var hit_length = docs.scoreDocs.length;
-
-                Set<Integer> filmNrSet = HashSet.newHashSet(hit_length);
-
-                logger.trace("Hit size: {}", hit_length);
-                var watch2 = Stopwatch.createStarted();
-                var storedFields = searcher.storedFields();
-                for (final var hit : docs.scoreDocs) {
-                    var docId = hit.doc;
-                    var d = storedFields.document(docId, INTEREST_SET);
-                    filmNrSet.add(Integer.parseInt(d.get(LuceneIndexKeys.ID)));
+                // docIds are only valid for the searched reader, which may get replaced by an index update meanwhile
+                final List<DatenFilm> foundFilms;
+                try (var snapshot = listeFilme.acquireSnapshot()) {
+                    final var searcher = new IndexSearcher(snapshot.getReader());
+                    // lets lucene abort collecting hits when a newer search arrives
+                    searcher.setTimeout(this::isCancelled);
+                    final var docs = searcher.search(finalQuery, listeFilme.size());
+                    checkCancelled();
+                    final var hit_length = docs.scoreDocs.length;
+
+                    logger.trace("Hit size: {}", hit_length);
+                    var watch2 = Stopwatch.createStarted();
+                    foundFilms = listeFilme.getFilmsForHits(snapshot, docs.scoreDocs);
+                    watch2.stop();
+                    logger.trace("Populating filmlist took: {}", watch2);
                 }
+                logger.trace("Number of found Lucene index entries: {}", foundFilms.size());
 
-                //process
-                watch2.stop();
-                logger.trace("Populating filmlist took: {}", watch2);
-                logger.trace("Number of found Lucene index entries: {}", filmNrSet.size());
-
-                stream = listeFilme.parallelStream()
-                        .filter(film -> filmNrSet.contains(film.getFilmNr()));
+                stream = cancellable(foundFilms.parallelStream());
+                checkCancelled();
             }
 
-            if (filterConfiguration.isShowBookMarkedOnly())
+            if (filter.showBookMarkedOnly())
                 stream = stream.filter(DatenFilm::isBookmarked);
-            if (filterConfiguration.isDontShowAbos())
+            if (filter.dontShowAbos())
                 stream = stream.filter(film -> film.getAbo() == null);
 
-            var resultList = applyCommonFilters(stream, filterConfiguration.getThema()).toList();
+            var resultList = applyCommonFilters(stream, filter.thema()).toList();
+            checkCancelled();
             logger.trace("Resulting filmlist size after all filters applied: {}", resultList.size());
 
             //adjust initial capacity
             var filmModel = new TModelFilm(resultList.size());
             filmModel.addAll(resultList);
 
-            if (filterConfiguration.isShowUnseenOnly())
-                historyController.emptyMemoryCache();
-
             return filmModel;
+        } catch (CancellationException ex) {
+            throw ex;
         } catch (Exception ex) {
             logger.error("Lucene filtering failed!", ex);
             SwingUtilities.invokeLater(() -> SwingErrorDialog.showExceptionMessage(MediathekGui.ui(),
                     "Die Lucene Abfrage ist inkorrekt und führt zu keinen Ergebnissen.", ex));
             return new TModelFilm();
+        } finally {
+            if (filter.showUnseenOnly())
+                historyController.emptyMemoryCache();
         }
     }
 
@@ -236,7 +237,7 @@ public class LuceneGuiFilmeModelHelper extends GuiModelHelper {
 
     private Query createZeitraumQuery() throws ParseException {
 
-        var numDays = Integer.parseInt(filterConfiguration.getZeitraum());
+        var numDays = Integer.parseInt(filter.zeitraum());
         var toDate = LocalDateTime.now();
         var fromDate = toDate.minusDays(numDays);
         var utcZone = ZoneId.of("UTC");
@@ -251,6 +252,7 @@ public class LuceneGuiFilmeModelHelper extends GuiModelHelper {
 
     @Override
     public TableModel getFilteredTableModel() {
+        checkCancelled();
         var listeFilme = (IndexedFilmList) Daten.getInstance().getListeFilmeNachBlackList();
         TModelFilm filmModel;
 
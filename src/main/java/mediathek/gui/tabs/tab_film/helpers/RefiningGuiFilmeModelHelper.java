@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.gui.tabs.tab_film.helpers;
+
+import mediathek.controller.history.SeenHistoryController;
+import mediathek.daten.DatenFilm;
+import mediathek.gui.tabs.tab_film.SearchFieldData;
+import mediathek.tool.FilterConfiguration;
+import mediathek.tool.models.TModelFilm;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.table.TableModel;
+import java.util.List;
+
+/**
+ * Filters the result of a previous search instead of the whole film list.
+ * Must only be used if the search narrows down the previous one, see {@link SearchNarrowing}.
+ */
+public class RefiningGuiFilmeModelHelper extends GuiModelHelper {
+    private final List<DatenFilm> previousResult;
+    private final boolean applySearchField;
+
+    /**
+     * @param previousResult   the films found by the previous search.
+     * @param applySearchField false if the search field text was already applied to the previous result
+     *                         and is unchanged, e.g. for lucene queries.
+     */
+    public RefiningGuiFilmeModelHelper(@NotNull SeenHistoryController historyController,
+                                       @NotNull SearchFieldData searchFieldData,
+                                       @NotNull FilterConfiguration.Snapshot filter,
+                                       @NotNull List<DatenFilm> previousResult,
+                                       boolean applySearchField) {
+        super(historyController, searchFieldData, filter);
+        this.previousResult = previousResult;
+        this.applySearchField = applySearchField;
+    }
+
+    @Override
+    public TableModel getFilteredTableModel() {
+        checkCancelled();
+        calculateFilmLengthSliderValues();
+
+        if (filter.showUnseenOnly())
+            historyController.prepareMemoryCache();
+
+        try {
+            var stream = cancellable(previousResult.parallelStream());
+            stream = applyFilmFilters(stream);
+            stream = applyCommonFilters(stream, filter.thema());
+            if (applySearchField)
+                stream = applySearchFieldFilter(stream);
+
+            var list = stream.toList();
+            checkCancelled();
+
+            var filmModel = new TModelFilm(list.size());
+            filmModel.addAll(list);
+            return filmModel;
+        } finally {
+            if (filter.showUnseenOnly())
+                historyController.emptyMemoryCache();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.gui.tabs.tab_film.helpers;
+
+import mediathek.gui.tabs.tab_film.SearchFieldData;
+import mediathek.tool.Filter;
+import mediathek.tool.FilterConfiguration;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Detects if a search only narrows down a previous one.
+ * In that case the result of the new search is a subset of the previous result
+ * and it is sufficient to filter the previous result instead of the whole film list.
+ */
+public final class SearchNarrowing {
+    private SearchNarrowing() {
+    }
+
+    /**
+     * Check if every film matching the new search also matches the previous one.
+     * The check is conservative, it may return false for narrower searches which are hard to detect.
+     *
+     * @param previousFilter the filter of the previous search.
+     * @param previousSearch the search field data of the previous search.
+     * @param filter         the filter of the new search.
+     * @param search         the search field data of the new search.
+     * @param lucene         true if search field texts are lucene queries. These are only compared for equality.
+     * @return true if the new search is narrower than or equal to the previous one.
+     */
+    public static boolean isNarrowing(@NotNull FilterConfiguration.Snapshot previousFilter,
+                                      @NotNull SearchFieldData previousSearch,
+                                      @NotNull FilterConfiguration.Snapshot filter,
+                                      @NotNull SearchFieldData search,
+                                      boolean lucene) {
+        return isNarrowing(previousFilter, filter)
+                && (lucene ? previousSearch.equals(search) : isNarrowing(previousSearch, search));
+    }
+
+    private static boolean isNarrowing(@NotNull FilterConfiguration.Snapshot previous,
+                                       @NotNull FilterConfiguration.Snapshot next) {
+        // previous results of the bookmark filter may be outdated as bookmarks change without notification
+        if (previous.showBookMarkedOnly())
+            return false;
+
+        if (!previous.checkedChannels().isEmpty()) {
+            if (next.checkedChannels().isEmpty() || !previous.checkedChannels().containsAll(next.checkedChannels()))
+                return false;
+        }
+        if (!previous.thema().isEmpty() && !previous.thema().equalsIgnoreCase(next.thema()))
+            return false;
+
+        return next.filmLengthMin() >= previous.filmLengthMin()
+                && next.filmLengthMax() <= previous.filmLengthMax()
+                && next.zeitraum().equals(previous.zeitraum())
+                && implies(next.showHighQualityOnly(), previous.showHighQualityOnly())
+                && implies(next.showSubtitlesOnly(), previous.showSubtitlesOnly())
+                && implies(next.showNewOnly(), previous.showNewOnly())
+                && implies(next.showUnseenOnly(), previous.showUnseenOnly())
+                && implies(next.showLivestreamsOnly(), previous.showLivestreamsOnly())
+                && implies(next.dontShowAbos(), previous.dontShowAbos())
+                && implies(next.dontShowTrailers(), previous.dontShowTrailers())
+                && implies(next.dontShowSignLanguage(), previous.dontShowSignLanguage())
+                && implies(next.dontShowAudioVersions(), previous.dontShowAudioVersions())
+                && implies(next.dontShowDuplicates(), previous.dontShowDuplicates());
+    }
+
+    /**
+     * @return false if a filter is active in the previous search but not in the next one.
+     */
+    private static boolean implies(boolean next, boolean previous) {
+        return next || !previous;
+    }
+
+    private static boolean isNarrowing(@NotNull SearchFieldData previous, @NotNull SearchFieldData next) {
+        if (previous.isEmpty())
+            return true;
+        if (previous.searchMode() != next.searchMode())
+            return false;
+        if (previous.equals(next))
+            return true;
+        if (Filter.isPattern(previous.searchFieldText()) || Filter.isPattern(next.searchFieldText()))
+            return false;
+
+        // a film matches if it contains any of the terms, so every new term has to contain an old one
+        final var previousTerms = previous.evaluateThemaTitel();
+        final var terms = next.evaluateThemaTitel();
+        if (terms.length == 0)
+            return false;
+        for (var term : terms) {
+            boolean containsPreviousTerm = false;
+            for (var previousTerm : previousTerms) {
+                if (term.contains(previousTerm)) {
+                    containsPreviousTerm = true;
+                    break;
+                }
+            }
+            if (!containsPreviousTerm)
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.gui.tasks;
+
+import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmIdentity;
+import mediathek.tool.datum.DateUtil;
+import mediathek.tool.datum.DatumFilm;
+import org.apache.lucene.document.*;
+import org.apache.lucene.util.BytesRef;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Creates the Lucene document for a film.
+ * Document and field instances are reused for every film, therefore an instance must only be used by one thread.
+ * The returned document is only valid until the next call of {@link #build(DatenFilm, FilmIdentity, long)}.
+ */
+class FilmDocumentBuilder {
+    /**
+     * German weekday names indexed by {@link DayOfWeek#ordinal()}.
+     */
+    private static final String[] WEEKDAYS = new String[DayOfWeek.values().length];
+
+    static {
+        for (var day : DayOfWeek.values()) {
+            WEEKDAYS[day.ordinal()] = day.getDisplayName(TextStyle.FULL, Locale.GERMAN);
+        }
+    }
+
+    private final Document doc = new Document();
+    private final StringField filmKey = new StringField(LuceneIndexKeys.FILM_KEY, new BytesRef(), Field.Store.NO);
+    private final NumericDocValuesField fingerprint = new NumericDocValuesField(LuceneIndexKeys.FINGERPRINT, 0L);
+    private final StringField newFilm = new StringField(LuceneIndexKeys.NEW, "", Field.Store.NO);
+    private final TextField sender = new TextField(LuceneIndexKeys.SENDER, "", Field.Store.NO);
+    private final TextField titel = new TextField(LuceneIndexKeys.TITEL, "", Field.Store.NO);
+    private final TextField thema = new TextField(LuceneIndexKeys.THEMA, "", Field.Store.NO);
+    private final IntPoint filmLength = new IntPoint(LuceneIndexKeys.FILM_LENGTH, 0);
+    private final IntPoint filmSize = new IntPoint(LuceneIndexKeys.FILM_SIZE, 0);
+    private final TextField beschreibung = new TextField(LuceneIndexKeys.BESCHREIBUNG, "", Field.Store.NO);
+    private final StringField livestream = new StringField(LuceneIndexKeys.LIVESTREAM, "", Field.Store.NO);
+    private final StringField highQuality = new StringField(LuceneIndexKeys.HIGH_QUALITY, "", Field.Store.NO);
+    private final StringField subtitle = new StringField(LuceneIndexKeys.SUBTITLE, "", Field.Store.NO);
+    private final StringField trailerTeaser = new StringField(LuceneIndexKeys.TRAILER_TEASER, "", Field.Store.NO);
+    private final StringField audioVersion = new StringField(LuceneIndexKeys.AUDIOVERSION, "", Field.Store.NO);
+    private final StringField signLanguage = new StringField(LuceneIndexKeys.SIGN_LANGUAGE, "", Field.Store.NO);
+    private final StringField duplicate = new StringField(LuceneIndexKeys.DUPLICATE, "", Field.Store.NO);
+    private final StringField sendeDatum = new StringField(LuceneIndexKeys.SENDE_DATUM, "", Field.Store.NO);
+    private final StringField startTime = new StringField(LuceneIndexKeys.START_TIME, "", Field.Store.NO);
+    private final TextField wochentag = new TextField(LuceneIndexKeys.SENDE_WOCHENTAG, "", Field.Store.NO);
+
+    /**
+     * Thread-safe weekday lookup, replaces a shared SimpleDateFormat("EEEE").
+     *
+     * @param date the film date.
+     * @return german name of the weekday in the system time zone.
+     */
+    static String getWeekday(@NotNull DatumFilm date) {
+        var day = date.toInstant().atZone(ZoneId.systemDefault()).getDayOfWeek();
+        return WEEKDAYS[day.ordinal()];
+    }
+
+    public Document build(@NotNull DatenFilm film, @NotNull FilmIdentity key, long fingerprintValue) {
+        doc.clear();
+
+        filmKey.setBytesValue(key.toBytes());
+        doc.add(filmKey);
+        fingerprint.setLongValue(fingerprintValue);
+        doc.add(fingerprint);
+        newFilm.setStringValue(Boolean.toString(film.isNew()));
+        doc.add(newFilm);
+        sender.setStringValue(film.getSender());
+        doc.add(sender);
+        titel.setStringValue(film.getTitle());
+        doc.add(titel);
+        thema.setStringValue(film.getThema());
+        doc.add(thema);
+        filmLength.setIntValue(film.getFilmLength());
+        doc.add(filmLength);
+        filmSize.setIntValue(film.getFileSize().toInteger());
+        doc.add(filmSize);
+
+        beschreibung.setStringValue(film.getDescription());
+        doc.add(beschreibung);
+        livestream.setStringValue(Boolean.toString(film.isLivestream()));
+        doc.add(livestream);
+        highQuality.setStringValue(Boolean.toString(film.isHighQuality()));
+        doc.add(highQuality);
+        subtitle.setStringValue(Boolean.toString(film.hasSubtitle() || film.hasBurnedInSubtitles()));
+        doc.add(subtitle);
+        trailerTeaser.setStringValue(Boolean.toString(film.isTrailerTeaser()));
+        doc.add(trailerTeaser);
+        audioVersion.setStringValue(Boolean.toString(film.isAudioVersion()));
+        doc.add(audioVersion);
+        signLanguage.setStringValue(Boolean.toString(film.isSignLanguage()));
+        doc.add(signLanguage);
+        duplicate.setStringValue(Boolean.toString(film.isDuplicate()));
+        doc.add(duplicate);
+
+        addSendeDatum(film);
+        addSendeZeit(film);
+        addWochentag(film);
+
+        return doc;
+    }
+
+    private void addSendeZeit(@NotNull DatenFilm film) {
+        var startzeit = film.getSendeZeit();
+        if (!startzeit.isEmpty()) {
+            startTime.setStringValue(startzeit);
+            doc.add(startTime);
+        }
+    }
+
+    private void addWochentag(@NotNull DatenFilm film) {
+        var date = film.getDatumFilm();
+        if (date != DatumFilm.UNDEFINED_FILM_DATE) {
+            wochentag.setStringValue(getWeekday(date));
+            doc.add(wochentag);
+        }
+    }
+
+    private void addSendeDatum(@NotNull DatenFilm film) {
+        String sendeDatumStr = DateTools.timeToString(DateUtil.convertFilmDateToLuceneDate(film),
+                DateTools.Resolution.DAY);
+        sendeDatum.setStringValue(sendeDatumStr);
+        doc.add(sendeDatum);
+    }
+}
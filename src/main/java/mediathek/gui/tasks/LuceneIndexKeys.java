@@ -2,9 +2,16 @@ package mediathek.gui.tasks;
 
 public class LuceneIndexKeys {
     /**
+     * Stabile Identität des Films ({@link mediathek.daten.FilmIdentity} aus Sender, Thema, URL, Webseite). Binär.
+     * Dient der Zuordnung von Treffern zu Filmen, auch nach einem Neustart.
      * In Abfragen nicht zu verwenden!
      */
-    public static final String ID = "id";
+    public static final String FILM_KEY = "filmkey";
+    /**
+     * Prüfsumme über alle indizierten Felder. Long DocValue.
+     * Dient der Erkennung geänderter Dokumente bei inkrementellen Updates.
+     */
+    public static final String FINGERPRINT = "fingerprint";
     /**
      * String-Value
      */
@@ -19,37 +19,74 @@
 package mediathek.gui.tasks;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import mediathek.config.Daten;
 import mediathek.config.StandardLocations;
 import mediathek.daten.DatenFilm;
+import mediathek.daten.FilmIdentity;
 import mediathek.daten.IndexedFilmList;
 import mediathek.mainwindow.MediathekGui;
+import mediathek.tool.ApplicationConfiguration;
 import mediathek.tool.FileUtils;
+import mediathek.tool.LongPairHashSet;
 import mediathek.tool.LuceneDefaultAnalyzer;
 import mediathek.tool.SwingErrorDialog;
-import mediathek.tool.datum.DateUtil;
-import mediathek.tool.datum.DatumFilm;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.lucene.document.*;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.apache.lucene.util.BytesRef;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
 public class LuceneIndexWorker extends SwingWorker<Void, Void> {
     private static final Logger logger = LogManager.getLogger();
+    /**
+     * Commit user data key for the index layout version.
+     */
+    private static final String COMMIT_DATA_SCHEMA_VERSION = "schema_version";
+    /**
+     * Commit user data key for the id of the filmlist the index was built from.
+     */
+    private static final String COMMIT_DATA_FILMLIST_ID = "filmlist_id";
+    /**
+     * Commit user data key for the fingerprint of the blacklist rules and settings.
+     */
+    private static final String COMMIT_DATA_BLACKLIST = "blacklist";
+    /**
+     * Commit user data key for the number of indexed films and a checksum over their keys and fingerprints.
+     */
+    private static final String COMMIT_DATA_CONTENT = "content";
+    /**
+     * Must be increased whenever fields are added, removed or change their type.
+     * Indices with a different version are rebuilt from scratch.
+     */
+    private static final String SCHEMA_VERSION = "5";
+    /**
+     * Lucene allows only one writer per index directory, workers started from different places must wait for each other.
+     */
+    private static final ReentrantLock INDEX_LOCK = new ReentrantLock();
     private final JProgressBar progressBar;
     private final JLabel progLabel;
-    private final DateFormat weekdayFormatter = new SimpleDateFormat("EEEE", Locale.GERMAN);
-    private int oldProgress;
+    private final AtomicInteger oldProgress = new AtomicInteger();
 
     public LuceneIndexWorker(@NotNull JLabel progLabel, @NotNull JProgressBar progressBar) {
         this.progressBar = progressBar;
@@ -66,52 +103,165 @@ public class LuceneIndexWorker extends SwingWorker<Void, Void> {
         });
     }
 
-    private void indexFilm(@NotNull IndexWriter writer, @NotNull DatenFilm film) throws IOException {
-        var doc = new Document();
-        // store fields for debugging, otherwise they should stay disabled
-        doc.add(new StringField(LuceneIndexKeys.ID, Integer.toString(film.getFilmNr()), Field.Store.YES));
-        doc.add(new StringField(LuceneIndexKeys.NEW, Boolean.toString(film.isNew()), Field.Store.NO));
-        doc.add(new TextField(LuceneIndexKeys.SENDER, film.getSender(), Field.Store.NO));
-        doc.add(new TextField(LuceneIndexKeys.TITEL, film.getTitle(), Field.Store.NO));
-        doc.add(new TextField(LuceneIndexKeys.THEMA, film.getThema(), Field.Store.NO));
-        doc.add(new IntPoint(LuceneIndexKeys.FILM_LENGTH, film.getFilmLength()));
-        doc.add(new IntPoint(LuceneIndexKeys.FILM_SIZE, film.getFileSize().toInteger()));
-
-        doc.add(new TextField(LuceneIndexKeys.BESCHREIBUNG, film.getDescription(), Field.Store.NO));
-        doc.add(new StringField(LuceneIndexKeys.LIVESTREAM, Boolean.toString(film.isLivestream()), Field.Store.NO));
-        doc.add(new StringField(LuceneIndexKeys.HIGH_QUALITY, Boolean.toString(film.isHighQuality()), Field.Store.NO));
-        doc.add(new StringField(LuceneIndexKeys.SUBTITLE, Boolean.toString(film.hasSubtitle() || film.hasBurnedInSubtitles()), Field.Store.NO));
-        doc.add(new StringField(LuceneIndexKeys.TRAILER_TEASER, Boolean.toString(film.isTrailerTeaser()), Field.Store.NO));
-        doc.add(new StringField(LuceneIndexKeys.AUDIOVERSION, Boolean.toString(film.isAudioVersion()), Field.Store.NO));
-        doc.add(new StringField(LuceneIndexKeys.SIGN_LANGUAGE, Boolean.toString(film.isSignLanguage()), Field.Store.NO));
-        doc.add(new StringField(LuceneIndexKeys.DUPLICATE, Boolean.toString(film.isDuplicate()), Field.Store.NO));
-
-        addSendeDatum(doc, film);
-        addSendeZeit(doc, film);
-        addWochentag(doc, film);
-
-        writer.addDocument(doc);
+    /**
+     * Calculate a checksum over all indexed values of a film.
+     * Used to detect films which need to be reindexed during incremental updates.
+     */
+    private static long calculateFingerprint(@NotNull DatenFilm film) {
+        return Hashing.murmur3_128().newHasher()
+                .putUnencodedChars(film.getSender())
+                .putUnencodedChars(film.getTitle())
+                .putUnencodedChars(film.getThema())
+                .putUnencodedChars(film.getDescription())
+                .putUnencodedChars(film.getSendeZeit())
+                .putLong(film.getDatumFilm().getTime())
+                .putInt(film.getFilmLength())
+                .putInt(film.getFileSize().toInteger())
+                .putBoolean(film.isNew())
+                .putBoolean(film.isLivestream())
+                .putBoolean(film.isHighQuality())
+                .putBoolean(film.hasSubtitle() || film.hasBurnedInSubtitles())
+                .putBoolean(film.isTrailerTeaser())
+                .putBoolean(film.isAudioVersion())
+                .putBoolean(film.isSignLanguage())
+                .putBoolean(film.isDuplicate())
+                .hash().asLong();
     }
 
-    private void addSendeZeit(@NotNull Document doc, @NotNull DatenFilm film) {
-        var startzeit = film.getSendeZeit();
-        if (!startzeit.isEmpty()) {
-            doc.add(new StringField(LuceneIndexKeys.START_TIME, startzeit, Field.Store.NO));
+    /**
+     * Describe the state the index is built for, stored as commit user data.
+     */
+    private static Map<String, String> createCommitData(@NotNull IndexedFilmList filmListe,
+                                                        @NotNull FilmIdentity[] filmKeys, long[] fingerprints) {
+        // summed up as the order of the films does not matter for the index
+        final long content = IntStream.range(0, filmKeys.length).parallel()
+                .mapToLong(i -> Hashing.murmur3_128().newHasher()
+                        .putLong(filmKeys[i].high())
+                        .putLong(filmKeys[i].low())
+                        .putLong(fingerprints[i])
+                        .hash().asLong())
+                .sum();
+
+        return Map.of(COMMIT_DATA_SCHEMA_VERSION, SCHEMA_VERSION,
+                COMMIT_DATA_FILMLIST_ID, Objects.requireNonNullElse(filmListe.getMetaData().getId(), ""),
+                COMMIT_DATA_BLACKLIST, Daten.getInstance().getListeBlacklist().getFingerprint(),
+                COMMIT_DATA_CONTENT, filmKeys.length + ":" + Long.toHexString(content));
+    }
+
+    /**
+     * Check if an existing index was built for exactly the same films, e.g. after a plain restart.
+     */
+    private static boolean isIndexUpToDate(@NotNull Directory directory, @NotNull Map<String, String> commitData) throws IOException {
+        if (!DirectoryReader.indexExists(directory))
+            return false;
+
+        final var commits = DirectoryReader.listCommits(directory);
+        return commits.getLast().getUserData().equals(commitData);
+    }
+
+    private static Term createFilmKeyTerm(long high, long low) {
+        return new Term(LuceneIndexKeys.FILM_KEY, new BytesRef(new FilmIdentity(high, low).toBytes()));
+    }
+
+    /**
+     * Read the accumulated fingerprints of all documents per film key from an existing index.
+     * Keys are unique per film, fingerprints of stale duplicate documents are summed up so that they get replaced.
+     *
+     * @return accumulated fingerprint per film key, empty if there is no usable index.
+     */
+    private KeyFingerprints readIndexedFingerprints(@NotNull Directory directory) throws IOException {
+        var indexedFingerprints = new KeyFingerprints(0);
+        if (!DirectoryReader.indexExists(directory))
+            return indexedFingerprints;
+
+        try (var reader = DirectoryReader.open(directory)) {
+            var schemaVersion = reader.getIndexCommit().getUserData().get(COMMIT_DATA_SCHEMA_VERSION);
+            if (!SCHEMA_VERSION.equals(schemaVersion)) {
+                logger.trace("Lucene index schema version {} is outdated", schemaVersion);
+                return indexedFingerprints;
+            }
+
+            for (var leafContext : reader.leaves()) {
+                var leaf = leafContext.reader();
+                var terms = leaf.terms(LuceneIndexKeys.FILM_KEY);
+                var docValues = leaf.getNumericDocValues(LuceneIndexKeys.FINGERPRINT);
+                if (terms == null || docValues == null)
+                    continue;
+
+                // doc values must be read in doc order, terms are not...
+                final long[] fingerprints = new long[leaf.maxDoc()];
+                for (int doc = docValues.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docValues.nextDoc()) {
+                    fingerprints[doc] = docValues.longValue();
+                }
+
+                final var liveDocs = leaf.getLiveDocs();
+                var termsEnum = terms.iterator();
+                PostingsEnum postings = null;
+                BytesRef term;
+                while ((term = termsEnum.next()) != null) {
+                    final var filmKey = FilmIdentity.fromHashCode(HashCode.fromBytes(BytesRef.deepCopyOf(term).bytes));
+                    postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                    for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                        if (liveDocs == null || liveDocs.get(doc)) {
+                            indexedFingerprints.add(filmKey.high(), filmKey.low(), fingerprints[doc]);
+                        }
+                    }
+                }
+            }
         }
+
+        return indexedFingerprints;
     }
 
-    private void addWochentag(@NotNull Document doc, @NotNull DatenFilm film) {
-        var date = film.getDatumFilm();
-        if (date != DatumFilm.UNDEFINED_FILM_DATE) {
-            String strDate = weekdayFormatter.format(date);
-            doc.add(new TextField(LuceneIndexKeys.SENDE_WOCHENTAG, strDate, Field.Store.NO));
+    /**
+     * Add the documents of all selected films to the index.
+     * In parallel mode the films are split into contiguous chunks, each indexed by its own thread with its own
+     * reusable document.
+     *
+     * @return number of indexed documents.
+     */
+    private int indexFilms(@NotNull IndexWriter writer, @NotNull List<DatenFilm> films, @NotNull FilmIdentity[] filmKeys,
+                           long[] fingerprints, @NotNull IntPredicate needsIndexing) throws Exception {
+        final int[] filmIndices = IntStream.range(0, films.size()).filter(needsIndexing).toArray();
+        final var counter = new AtomicInteger();
+        final boolean parallel = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.FILM_INDEX_PARALLEL, true);
+        final int numThreads = parallel ? Runtime.getRuntime().availableProcessors() : 1;
+        final int chunkSize = Math.max(1, (filmIndices.length + numThreads - 1) / numThreads);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int start = 0; start < filmIndices.length; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(start + chunkSize, filmIndices.length);
+            tasks.add(() -> {
+                var builder = new FilmDocumentBuilder();
+                for (int i = from; i < to; i++) {
+                    final int filmIdx = filmIndices[i];
+                    writer.addDocument(builder.build(films.get(filmIdx), filmKeys[filmIdx], fingerprints[filmIdx]));
+                    updateProgress(counter.incrementAndGet(), filmIndices.length);
+                }
+                return null;
+            });
         }
+
+        if (tasks.size() == 1) {
+            tasks.getFirst().call();
+        } else if (!tasks.isEmpty()) {
+            try (var executor = Executors.newFixedThreadPool(numThreads)) {
+                for (var future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+            }
+        }
+
+        return filmIndices.length;
     }
 
-    private void addSendeDatum(@NotNull Document doc, @NotNull DatenFilm film) {
-        String sendeDatumStr = DateTools.timeToString(DateUtil.convertFilmDateToLuceneDate(film),
-                DateTools.Resolution.DAY);
-        doc.add(new StringField(LuceneIndexKeys.SENDE_DATUM, sendeDatumStr, Field.Store.NO));
+    private void updateProgress(int counter, int total) {
+        final var progress = (int) (100.0f * counter / total);
+        final int old = oldProgress.get();
+        if (progress != old && oldProgress.compareAndSet(old, progress)) {
+            SwingUtilities.invokeLater(() -> progressBar.setValue(progress));
+        }
     }
 
     @Override
@@ -129,34 +279,79 @@ public class LuceneIndexWorker extends SwingWorker<Void, Void> {
         IndexWriterConfig indexWriterConfig = new IndexWriterConfig(LuceneDefaultAnalyzer.buildAnalyzer());
         indexWriterConfig.setRAMBufferSizeMB(256d);
 
-        try (var writer = new IndexWriter(filmListe.getLuceneDirectory(), indexWriterConfig)) {
-            var totalSize = (float) filmListe.size();
-
-            int counter = 0;
+        INDEX_LOCK.lock();
+        try {
             Stopwatch watch = Stopwatch.createStarted();
-            //for safety delete all entries
-            writer.deleteAll();
+            final var directory = filmListe.getLuceneDirectory();
+            final var films = List.copyOf(filmListe);
+            // unique per film, even if several films share the same identity
+            final FilmIdentity[] filmKeys = IndexedFilmList.createDocumentKeys(films);
+            final long[] fingerprints = new long[films.size()];
+            IntStream.range(0, films.size()).parallel().forEach(i -> fingerprints[i] = calculateFingerprint(films.get(i)));
+
+            final var commitData = createCommitData(filmListe, filmKeys, fingerprints);
+            if (isIndexUpToDate(directory, commitData)) {
+                watch.stop();
+                logger.trace("Lucene index is up to date, check took {}", watch);
+            } else {
+                final var indexedFingerprints = readIndexedFingerprints(directory);
+
+                try (var writer = new IndexWriter(directory, indexWriterConfig)) {
+                    var currentFingerprints = new KeyFingerprints(films.size());
+                    final int[] filmKeyOrdinals = new int[films.size()];
+                    for (int i = 0; i < films.size(); i++) {
+                        filmKeyOrdinals[i] = currentFingerprints.add(filmKeys[i].high(), filmKeys[i].low(), fingerprints[i]);
+                    }
 
-            for (var film : filmListe) {
-                counter++;
-                indexFilm(writer, film);
+                    // keys whose documents must be (re)added
+                    final boolean[] changedKeys = new boolean[currentFingerprints.size()];
+                    int numChangedKeys = 0;
+                    for (int ordinal = 0; ordinal < changedKeys.length; ordinal++) {
+                        final int indexedOrdinal = indexedFingerprints.ordinalOf(currentFingerprints, ordinal);
+                        if (indexedOrdinal == -1 || indexedFingerprints.sum(indexedOrdinal) != currentFingerprints.sum(ordinal)) {
+                            changedKeys[ordinal] = true;
+                            numChangedKeys++;
+                        }
+                    }
 
-                final var progress = (int) (100.0f * (counter / totalSize));
-                if (progress != oldProgress) {
-                    oldProgress = progress;
-                    SwingUtilities.invokeLater(() -> progressBar.setValue(progress));
+                    final boolean fullRebuild = indexedFingerprints.size() == 0
+                            || numChangedKeys > indexedFingerprints.size() / 2;
+                    if (fullRebuild) {
+                        writer.deleteAll();
+                    } else {
+                        // remove outdated documents of changed films and films which do not exist anymore
+                        List<Term> obsoleteTerms = new ArrayList<>();
+                        for (int ordinal = 0; ordinal < indexedFingerprints.size(); ordinal++) {
+                            final int currentOrdinal = currentFingerprints.ordinalOf(indexedFingerprints, ordinal);
+                            if (currentOrdinal == -1 || changedKeys[currentOrdinal])
+                                obsoleteTerms.add(indexedFingerprints.createTerm(ordinal));
+                        }
+                        writer.deleteDocuments(obsoleteTerms.toArray(new Term[0]));
+                        logger.trace("Lucene incremental update: {} films changed, {} keys deleted", numChangedKeys,
+                                obsoleteTerms.size());
+                    }
+
+                    final int numIndexed = indexFilms(writer, films, filmKeys, fingerprints,
+                            i -> fullRebuild || changedKeys[filmKeyOrdinals[i]]);
+                    writer.setLiveCommitData(commitData.entrySet());
+                    writer.commit();
+                    watch.stop();
+                    final var seconds = watch.elapsed(TimeUnit.MILLISECONDS) / 1000d;
+                    logger.trace("Lucene index {} took {}, {} documents ({} docs/sec)", fullRebuild ? "creation" : "update",
+                            watch, numIndexed, seconds > 0 ? (long) (numIndexed / seconds) : numIndexed);
                 }
             }
-            writer.commit();
-            watch.stop();
-            logger.trace("Lucene index creation took {}", watch);
 
-            var reader = filmListe.getReader();
-            if (reader != null) {
-                reader.close();
+            // searches still using the old reader keep it open until they are finished
+            final var oldReader = filmListe.getReader();
+            filmListe.setReader(DirectoryReader.open(filmListe.getLuceneDirectory()));
+            if (oldReader != null) {
+                oldReader.close();
             }
-            reader = DirectoryReader.open(filmListe.getLuceneDirectory());
-            filmListe.setReader(reader);
+        }
+        catch (LockObtainFailedException ex) {
+            // index is in use by another writer, it is not damaged
+            logger.error("Lucene index is locked, update skipped", ex);
         }
         catch (Exception ex) {
             logger.error("Lucene film index most probably damaged, deleting it.");
@@ -175,6 +370,9 @@ public class LuceneIndexWorker extends SwingWorker<Void, Void> {
                 MediathekGui.ui().quitApplication();
             });
         }
+        finally {
+            INDEX_LOCK.unlock();
+        }
 
         return null;
     }
@@ -187,4 +385,46 @@ public class LuceneIndexWorker extends SwingWorker<Void, Void> {
         ui.loadFilmListAction.setEnabled(true);
     }
 
+    /**
+     * Accumulated fingerprints per film key without boxing.
+     */
+    private static final class KeyFingerprints {
+        private final LongPairHashSet keys;
+        private long[] sums;
+
+        KeyFingerprints(int expectedSize) {
+            keys = new LongPairHashSet(expectedSize);
+            sums = new long[Math.max(expectedSize, 16)];
+        }
+
+        /**
+         * @return the ordinal of the key.
+         */
+        int add(long high, long low, long fingerprint) {
+            final int ordinal = keys.addOrGetOrdinal(high, low);
+            if (ordinal == sums.length)
+                sums = Arrays.copyOf(sums, sums.length * 2);
+            sums[ordinal] += fingerprint;
+            return ordinal;
+        }
+
+        /**
+         * @return the ordinal in this object of a key from another instance, -1 if not present.
+         */
+        int ordinalOf(@NotNull KeyFingerprints other, int otherOrdinal) {
+            return keys.ordinalOf(other.keys.getHigh(otherOrdinal), other.keys.getLow(otherOrdinal));
+        }
+
+        long sum(int ordinal) {
+            return sums[ordinal];
+        }
+
+        Term createTerm(int ordinal) {
+            return createFilmKeyTerm(keys.getHigh(ordinal), keys.getLow(ordinal));
+        }
+
+        int size() {
+            return keys.size();
+        }
+    }
 }
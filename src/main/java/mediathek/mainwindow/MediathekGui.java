@@ -23,8 +23,6 @@ import mediathek.gui.actions.import_actions.ImportOldReplacementListAction;
 import mediathek.gui.dialog.DialogBeenden;
 import mediathek.gui.dialog.LoadFilmListDialog;
 import mediathek.gui.dialogEinstellungen.DialogEinstellungen;
-import mediathek.gui.duplicates.CommonStatsEvaluationTask;
-import mediathek.gui.duplicates.FilmDuplicateEvaluationTask;
 import mediathek.gui.duplicates.overview.FilmDuplicateOverviewDialog;
 import mediathek.gui.filmInformation.FilmInfoDialog;
 import mediathek.gui.history.ResetAboHistoryAction;
@@ -32,9 +30,7 @@ import mediathek.gui.history.ResetDownloadHistoryAction;
 import mediathek.gui.messages.*;
 import mediathek.gui.tabs.tab_downloads.GuiDownloads;
 import mediathek.gui.tabs.tab_film.GuiFilme;
-import mediathek.gui.tasks.BlacklistFilterWorker;
 import mediathek.gui.tasks.LuceneIndexWorker;
-import mediathek.gui.tasks.RefreshAboWorker;
 import mediathek.res.GetIcon;
 import mediathek.tool.*;
 import mediathek.tool.notification.GenericNotificationCenter;
@@ -59,12 +55,16 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static mediathek.tool.ApplicationConfiguration.CONFIG_AUTOMATIC_UPDATE_CHECK;
@@ -110,6 +110,15 @@ public class MediathekGui extends JFrame {
     private final ManageAboAction manageAboAction = new ManageAboAction();
     private final ShowBandwidthUsageAction showBandwidthUsageAction = new ShowBandwidthUsageAction(this);
     private final ShowDuplicateStatisticsAction showDuplicateStatisticsAction = new ShowDuplicateStatisticsAction(this);
+    /**
+     * Index updates after blacklist changes run one after another.
+     */
+    private final ExecutorService indexUpdateExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("LuceneIndexUpdate").factory());
+    /**
+     * True if an index update is queued but not yet started, further requests are merged into it.
+     */
+    private final AtomicBoolean indexUpdatePending = new AtomicBoolean();
     public FixedRedrawStatusBar swingStatusBar;
     public GuiFilme tabFilme;
     public GuiDownloads tabDownloads;
@@ -571,8 +580,6 @@ public class MediathekGui extends JFrame {
         swingStatusBar.add(progressLabel);
         swingStatusBar.add(progressBar);
 
-        var evaluateDuplicates = ApplicationConfiguration.getConfiguration().getBoolean(ApplicationConfiguration.FILM_EVALUATE_DUPLICATES, true);
-
         var worker = CompletableFuture.runAsync(() -> {
                     logger.trace("Reading local filmlist");
                     MessageBus.getMessageBus().publishAsync(new FilmListReadStartEvent());
@@ -588,19 +595,8 @@ public class MediathekGui extends JFrame {
                     if (GuiFunktionen.getFilmListUpdateType() == FilmListUpdateType.AUTOMATIC && daten.getListeFilme().needsUpdate()) {
                         daten.getFilmeLaden().loadFilmlist("", true);
                     }
-                });
-
-        if (evaluateDuplicates) {
-            worker = worker.thenRun(new FilmDuplicateEvaluationTask());
-        }
-
-        worker.thenRun(new CommonStatsEvaluationTask())
-                .thenRun(new RefreshAboWorker(progressLabel, progressBar))
-                .thenRun(new BlacklistFilterWorker(progressLabel, progressBar));
-
-        if (daten.getListeFilmeNachBlackList() instanceof IndexedFilmList) {
-            worker = worker.thenRun(new LuceneIndexWorker(progressLabel, progressBar));
-        }
+                })
+                .thenCompose(_ -> FilmeLaden.createPostLoadTasks(progressLabel, progressBar, false).execute());
 
         worker.thenRun(() -> SwingUtilities.invokeLater(() -> Daten.getInstance().getFilmeLaden().notifyFertig(new ListenerFilmeLadenEvent("", "", 100, 100, false))))
                 .thenRun(() -> Daten.dontWriteFilmlistOnStartup.set(false))
@@ -1005,6 +1001,20 @@ public class MediathekGui extends JFrame {
         fontManager.restoreConfigData();
     }
 
+    @Handler
+    private void handleBlacklistFilmsChangedEvent(BlacklistFilmsChangedEvent e) {
+        // films which were filtered before are not part of the search index yet
+        if (!e.addedFilms.isEmpty() && daten.getListeFilmeNachBlackList() instanceof IndexedFilmList
+                && indexUpdatePending.compareAndSet(false, true)) {
+            indexUpdateExecutor.execute(() -> {
+                // the worker indexes the current film list, so later requests are covered by this run as well
+                indexUpdatePending.set(false);
+                new LuceneIndexWorker(progressLabel, progressBar).run();
+                MessageBus.getMessageBus().publishAsync(new ReloadTableDataEvent());
+            });
+        }
+    }
+
     @Handler
     private void handleFilmlistWriteStartEvent(FilmListWriteStartEvent e) {
         SwingUtilities.invokeLater(() -> loadFilmListAction.setEnabled(false));
@@ -1171,6 +1181,7 @@ public class MediathekGui extends JFrame {
 
         logger.trace("Stop all downloads.");
         stopDownloads();
+        daten.getStarterClass().shutdown(Duration.ofSeconds(2));
 
         logger.trace("Save app data.");
         daten.allesSpeichern();
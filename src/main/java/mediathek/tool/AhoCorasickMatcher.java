@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Immutable multi-pattern substring matcher (Aho-Corasick automaton).
+ * Finds all patterns contained in a text with a single pass over the text.
+ * Matching is case-sensitive, callers must normalize patterns and text themselves.
+ * Instances are thread-safe after construction.
+ */
+public final class AhoCorasickMatcher {
+    private static final int[] NO_OUTPUT = new int[0];
+    /**
+     * Sorted transition characters per node.
+     */
+    private final char[][] transitionChars;
+    /**
+     * Target nodes per node, same order as {@link #transitionChars}.
+     */
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    /**
+     * Pattern ids which end in a node, including those reachable via failure links.
+     */
+    private final int[][] output;
+    private final int numPatterns;
+
+    /**
+     * Build the automaton.
+     *
+     * @param patterns the patterns, id of a pattern is its list index. Empty patterns never match.
+     */
+    public AhoCorasickMatcher(@NotNull List<String> patterns) {
+        numPatterns = patterns.size();
+
+        // build the trie
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> nodeOutput = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        nodeOutput.add(new ArrayList<>());
+        for (int id = 0; id < patterns.size(); id++) {
+            final var pattern = patterns.get(id);
+            if (pattern.isEmpty())
+                continue;
+
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                final char c = pattern.charAt(i);
+                Integer next = trie.get(node).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    nodeOutput.add(new ArrayList<>());
+                    trie.get(node).put(c, next);
+                }
+                node = next;
+            }
+            nodeOutput.get(node).add(id);
+        }
+
+        final int numNodes = trie.size();
+        transitionChars = new char[numNodes][];
+        transitionTargets = new int[numNodes][];
+        for (int node = 0; node < numNodes; node++) {
+            var transitions = trie.get(node);
+            transitionChars[node] = new char[transitions.size()];
+            transitionTargets[node] = new int[transitions.size()];
+            int i = 0;
+            for (var entry : transitions.entrySet()) {
+                transitionChars[node][i] = entry.getKey();
+                transitionTargets[node][i] = entry.getValue();
+                i++;
+            }
+        }
+
+        // breadth first calculation of failure links, outputs get merged along the way
+        failure = new int[numNodes];
+        output = new int[numNodes][];
+        output[0] = toArray(nodeOutput.get(0));
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : transitionTargets[0]) {
+            failure[target] = 0;
+            output[target] = toArray(nodeOutput.get(target));
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            final int node = queue.poll();
+            for (int i = 0; i < transitionChars[node].length; i++) {
+                final char c = transitionChars[node][i];
+                final int target = transitionTargets[node][i];
+
+                int fallback = failure[node];
+                int next;
+                while ((next = nextNode(fallback, c)) == -1 && fallback != 0) {
+                    fallback = failure[fallback];
+                }
+                failure[target] = next == -1 ? 0 : next;
+
+                var merged = new ArrayList<>(nodeOutput.get(target));
+                for (int id : output[failure[target]]) {
+                    merged.add(id);
+                }
+                output[target] = toArray(merged);
+                queue.add(target);
+            }
+        }
+    }
+
+    private static int[] toArray(@NotNull List<Integer> list) {
+        if (list.isEmpty())
+            return NO_OUTPUT;
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int nextNode(int node, char c) {
+        final int idx = Arrays.binarySearch(transitionChars[node], c);
+        return idx < 0 ? -1 : transitionTargets[node][idx];
+    }
+
+    /**
+     * @return the number of patterns this matcher was built with.
+     */
+    public int size() {
+        return numPatterns;
+    }
+
+    /**
+     * Find all patterns contained in the text.
+     *
+     * @param text    the text to search.
+     * @param matches receives the ids of all found patterns.
+     */
+    public void findAll(@NotNull CharSequence text, @NotNull BitSet matches) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            int next;
+            while ((next = nextNode(node, c)) == -1 && node != 0) {
+                node = failure[node];
+            }
+            node = next == -1 ? 0 : next;
+
+            for (int id : output[node]) {
+                matches.set(id);
+            }
+        }
+    }
+
+    /**
+     * Check if any pattern is contained in the text.
+     *
+     * @param text the text to search.
+     * @return true if at least one pattern was found.
+     */
+    public boolean containsAny(@NotNull CharSequence text) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            int next;
+            while ((next = nextNode(node, c)) == -1 && node != 0) {
+                node = failure[node];
+            }
+            node = next == -1 ? 0 : next;
+
+            if (output[node].length != 0)
+                return true;
+        }
+        return false;
+    }
+}
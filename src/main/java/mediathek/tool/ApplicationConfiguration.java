@@ -69,10 +69,12 @@ public class ApplicationConfiguration {
     public static final String DOWNLOAD_MAX_SIMULTANEOUS_NUM = "download.max_simultaneous.number";
     public static final String DOWNLOAD_FETCH_FILE_SIZE = "download.fetch_file_size";
     public static final String DOWNLOAD_CONTINUATION_TIME = "download.continuation.time";
+    public static final String DOWNLOAD_MAX_SEGMENTS_NUM = "download.max_segments.number";
     public static final String SEARCH_USE_FILM_DESCRIPTIONS =
             "searchfield.film.search_through_description";
     public static final String FILM_SHOW_DESCRIPTION = "film.show_description";
     public static final String FILM_EVALUATE_DUPLICATES = "film.evaluate_duplicates";
+    public static final String FILM_INDEX_PARALLEL = "film.index.parallel";
     public static final String CONFIG_AUTOMATIC_UPDATE_CHECK = "application.automatic_update_check";
     public static final String CLI_CLIENT_DOWNLOAD_LIST_FORMAT = "cli.client.download_list_format";
     public static final String BLACKLIST_FILTER_DUPLICATES = "blacklist.filter_duplicates";
@@ -237,6 +239,10 @@ public class ApplicationConfiguration {
         public static final String LOAD_NUM_DAYS = "filmlist.load.days";
         public static final String LOAD_LIVESTREAMS = "filmlist.load.livestreams";
         public static final String EXTEND_OLD_FILMLIST = "filmlist.extend_old_filmlist";
+        /**
+         * Build film objects on worker threads while reading. false uses the single-threaded reader.
+         */
+        public static final String PARALLEL_READER = "filmlist.load.parallel_reader";
     }
 
     public static class HttpProxy {
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import mediathek.daten.DatenFilm;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Set of filter rules (blacklist entries, abos) compiled for fast evaluation against many films.
+ * Each rule has the semantics of {@link Filter#filterAufFilmPruefen(String, String, String[], String[], String[], DatenFilm)}.
+ * <p>
+ * Rules are bucketed by sender and thema so that only rules which can apply to a film get checked.
+ * All plain search terms are merged into one Aho-Corasick automaton which scans title, thema and description
+ * of a film at most once each, regardless of the number of rules.
+ * Evaluation is thread-safe.
+ *
+ * @param <T> the payload type returned for matching rules.
+ */
+public class CompiledFilmFilter<T> {
+    /**
+     * Bucket key for rules without sender or thema restriction.
+     */
+    private static final String ANY = "";
+    /**
+     * sender -> folded thema -> rules
+     */
+    private final Map<String, Map<String, Bucket<T>>> buckets;
+    private final AhoCorasickMatcher termMatcher;
+    /**
+     * True if any rule is restricted to a thema, otherwise we don´t need to fold the film thema.
+     */
+    private final boolean hasThemaBuckets;
+
+    private CompiledFilmFilter(@NotNull Map<String, Map<String, Bucket<T>>> buckets, @NotNull List<String> terms) {
+        this.buckets = buckets;
+        termMatcher = new AhoCorasickMatcher(terms);
+        hasThemaBuckets = buckets.values().stream().anyMatch(m -> m.size() > 1 || !m.containsKey(ANY));
+    }
+
+    /**
+     * Normalize a string so that two strings are equal if and only if {@link String#equalsIgnoreCase(String)} is true.
+     */
+    static String foldCase(@NotNull String str) {
+        StringBuilder sb = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            sb.append(Character.toLowerCase(Character.toUpperCase(str.charAt(i))));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Check if any rule matches the film.
+     *
+     * @param film the film to check.
+     * @return true if at least one rule matches.
+     */
+    public boolean matches(@NotNull DatenFilm film) {
+        return findFirstRule(film, false) != null;
+    }
+
+    /**
+     * Find the first matching rule in the order the rules were added.
+     *
+     * @param film the film to check.
+     * @return the payload of the first matching rule or null if no rule matches.
+     */
+    public @Nullable T findFirst(@NotNull DatenFilm film) {
+        final var rule = findFirstRule(film, true);
+        return rule == null ? null : rule.payload;
+    }
+
+    private Rule<T> findFirstRule(@NotNull DatenFilm film, boolean ordered) {
+        final var filmText = new FilmText(film, termMatcher);
+        Rule<T> result = null;
+
+        final var senderBuckets = buckets.get(film.getSender());
+        if (senderBuckets != null) {
+            result = findInThemaBuckets(senderBuckets, filmText, null, ordered);
+            if (result != null && !ordered)
+                return result;
+        }
+
+        if (!ANY.equals(film.getSender())) {
+            final var anySenderBuckets = buckets.get(ANY);
+            if (anySenderBuckets != null)
+                result = findInThemaBuckets(anySenderBuckets, filmText, result, ordered);
+        }
+
+        return result;
+    }
+
+    private Rule<T> findInThemaBuckets(@NotNull Map<String, Bucket<T>> themaBuckets, @NotNull FilmText filmText,
+                                       Rule<T> best, boolean ordered) {
+        final var anyThema = themaBuckets.get(ANY);
+        if (anyThema != null) {
+            best = anyThema.findFirst(filmText, best);
+            if (best != null && !ordered)
+                return best;
+        }
+
+        if (hasThemaBuckets) {
+            final var foldedThema = filmText.foldedThema();
+            if (!foldedThema.isEmpty()) {
+                final var bucket = themaBuckets.get(foldedThema);
+                if (bucket != null)
+                    best = bucket.findFirst(filmText, best);
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Lazily evaluated text data of one film.
+     */
+    private static final class FilmText {
+        private final DatenFilm film;
+        private final AhoCorasickMatcher termMatcher;
+        private String foldedThema;
+        private BitSet titleTerms;
+        private BitSet themaTerms;
+        private BitSet descriptionTerms;
+
+        FilmText(@NotNull DatenFilm film, @NotNull AhoCorasickMatcher termMatcher) {
+            this.film = film;
+            this.termMatcher = termMatcher;
+        }
+
+        String foldedThema() {
+            if (foldedThema == null)
+                foldedThema = foldCase(film.getThema());
+            return foldedThema;
+        }
+
+        BitSet titleTerms() {
+            if (titleTerms == null)
+                titleTerms = findTerms(film.getTitle());
+            return titleTerms;
+        }
+
+        BitSet themaTerms() {
+            if (themaTerms == null)
+                themaTerms = findTerms(film.getThema());
+            return themaTerms;
+        }
+
+        BitSet descriptionTerms() {
+            if (descriptionTerms == null)
+                descriptionTerms = findTerms(film.getDescription());
+            return descriptionTerms;
+        }
+
+        private BitSet findTerms(@NotNull String text) {
+            BitSet result = new BitSet(termMatcher.size());
+            termMatcher.findAll(text.toLowerCase(), result);
+            return result;
+        }
+    }
+
+    /**
+     * Compiled form of a {@link Filter#pruefen(String[], String)} condition.
+     *
+     * @param pattern regexp or null
+     * @param termIds ids of the plain terms in the automaton, null if the condition is always true
+     */
+    private record Condition(Pattern pattern, int[] termIds) {
+        static final Condition ALWAYS = new Condition(null, null);
+
+        boolean isAlways() {
+            return pattern == null && termIds == null;
+        }
+
+        boolean matches(@NotNull String text, @NotNull BitSet foundTerms) {
+            if (pattern != null)
+                return pattern.matcher(text).matches();
+
+            for (int id : termIds) {
+                if (foundTerms.get(id))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    private record Rule<T>(int index, T payload, Condition titel, Condition themaTitel, Condition irgendwo) {
+        boolean matches(@NotNull FilmText filmText) {
+            final var film = filmText.film;
+            if (!titel.isAlways() && !titel.matches(film.getTitle(), filmText.titleTerms()))
+                return false;
+
+            if (!themaTitel.isAlways()
+                    && !themaTitel.matches(film.getThema(), filmText.themaTerms())
+                    && !themaTitel.matches(film.getTitle(), filmText.titleTerms()))
+                return false;
+
+            return irgendwo.isAlways()
+                    || irgendwo.matches(film.getDescription(), filmText.descriptionTerms())
+                    || irgendwo.matches(film.getThema(), filmText.themaTerms())
+                    || irgendwo.matches(film.getTitle(), filmText.titleTerms());
+        }
+    }
+
+    private static final class Bucket<T> {
+        /**
+         * Rules in the order they were added.
+         */
+        private final List<Rule<T>> rules = new ArrayList<>();
+
+        /**
+         * @param best the best match found so far, only rules added before it need to be checked.
+         * @return the first matching rule of this bucket if it was added before best, otherwise best.
+         */
+        Rule<T> findFirst(@NotNull FilmText filmText, Rule<T> best) {
+            final int limit = best == null ? Integer.MAX_VALUE : best.index;
+            for (var rule : rules) {
+                if (rule.index >= limit)
+                    break;
+                if (rule.matches(filmText))
+                    return rule;
+            }
+            return best;
+        }
+    }
+
+    public static final class Builder<T> {
+        private static final String[] EMPTY = new String[0];
+        private final Map<String, Map<String, Bucket<T>>> buckets = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private int numRules;
+
+        /**
+         * Add a rule without an irgendwo condition.
+         *
+         * @see #addRule(Object, String, String, String[], String[], String[])
+         */
+        public Builder<T> addRule(T payload, @NotNull String sender, @NotNull String thema,
+                                  @NotNull String[] titel, @NotNull String[] themaTitel) {
+            return addRule(payload, sender, thema, titel, themaTitel, EMPTY);
+        }
+
+        /**
+         * Add a rule. The search terms have the same format as used by {@link Filter#pruefen(String[], String)}.
+         *
+         * @param payload    returned by {@link CompiledFilmFilter#findFirst(DatenFilm)} if this rule matches.
+         * @param sender     exact sender or empty for all senders.
+         * @param thema      thema, case-insensitive, or empty for all.
+         * @param titel      the lowercase titel search terms.
+         * @param themaTitel the lowercase search terms for thema or titel.
+         * @param irgendwo   the lowercase search terms for description, thema or titel.
+         */
+        public Builder<T> addRule(T payload, @NotNull String sender, @NotNull String thema,
+                                  @NotNull String[] titel, @NotNull String[] themaTitel, @NotNull String[] irgendwo) {
+            var rule = new Rule<>(numRules++, payload, compile(titel), compile(themaTitel), compile(irgendwo));
+            buckets.computeIfAbsent(sender, _ -> new HashMap<>())
+                    .computeIfAbsent(foldCase(thema), _ -> new Bucket<>())
+                    .rules.add(rule);
+            return this;
+        }
+
+        private Condition compile(@NotNull String[] filter) {
+            if (filter.length == 0)
+                return Condition.ALWAYS;
+
+            if (filter.length == 1) {
+                if (filter[0].isEmpty())
+                    return Condition.ALWAYS;
+
+                final var pattern = Filter.makePattern(filter[0]);
+                if (pattern != null)
+                    return new Condition(pattern, null);
+            }
+
+            int[] ids = new int[filter.length];
+            for (int i = 0; i < filter.length; i++) {
+                // an empty term is contained in every string
+                if (filter[i].isEmpty())
+                    return Condition.ALWAYS;
+                ids[i] = termIds.computeIfAbsent(filter[i], term -> {
+                    terms.add(term);
+                    return terms.size() - 1;
+                });
+            }
+            return new Condition(null, ids);
+        }
+
+        public CompiledFilmFilter<T> build() {
+            return new CompiledFilmFilter<>(buckets, terms);
+        }
+    }
+}
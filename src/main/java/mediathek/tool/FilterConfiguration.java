@@ -11,7 +11,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -100,31 +99,7 @@ public class FilterConfiguration {
     }
 
     public boolean noFiltersAreSet() {
-        /*
-         * If conditions are met, no filmlength filter is set.
-         * return true if filtering is not needed, false if needed.
-         */
-        final BooleanSupplier filmLengthFilterIsNotSet = () -> {
-            var filmLengthMin = (long)getFilmLengthMin();
-            var filmLengthMax = (long)getFilmLengthMax();
-            return filmLengthMin == 0 && filmLengthMax == FilmLengthSlider.UNLIMITED_VALUE;
-        };
-
-        return getCheckedChannels().isEmpty()
-                && getThema().isEmpty()
-                && filmLengthFilterIsNotSet.getAsBoolean()
-                && !isDontShowAbos()
-                && !isShowUnseenOnly()
-                && !isShowHighQualityOnly()
-                && !isShowSubtitlesOnly()
-                && !isShowLivestreamsOnly()
-                && !isShowNewOnly()
-                && !isShowBookMarkedOnly()
-                && !isDontShowTrailers()
-                && !isDontShowSignLanguage()
-                && !isDontShowAudioVersions()
-                && !isDontShowDuplicates()
-                && getZeitraum().equalsIgnoreCase(ZeitraumSpinnerFormatter.INFINITE_TEXT);
+        return snapshot().noFiltersAreSet();
     }
 
     public boolean isShowHighQualityOnly() {
@@ -305,6 +280,60 @@ public class FilterConfiguration {
     }
 
 
+    /**
+     * Create an immutable copy of all values of the current filter.
+     * Two snapshots are equal if the filters select the same films.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(Set.copyOf(getCheckedChannels()),
+                getThema(),
+                getFilmLengthMin(),
+                getFilmLengthMax(),
+                getZeitraum(),
+                isShowHighQualityOnly(),
+                isShowSubtitlesOnly(),
+                isShowNewOnly(),
+                isShowBookMarkedOnly(),
+                isShowUnseenOnly(),
+                isShowLivestreamsOnly(),
+                isDontShowAbos(),
+                isDontShowTrailers(),
+                isDontShowSignLanguage(),
+                isDontShowAudioVersions(),
+                isDontShowDuplicates());
+    }
+
+    public record Snapshot(Set<String> checkedChannels, String thema, double filmLengthMin, double filmLengthMax,
+                           String zeitraum, boolean showHighQualityOnly, boolean showSubtitlesOnly,
+                           boolean showNewOnly, boolean showBookMarkedOnly, boolean showUnseenOnly,
+                           boolean showLivestreamsOnly, boolean dontShowAbos, boolean dontShowTrailers,
+                           boolean dontShowSignLanguage, boolean dontShowAudioVersions,
+                           boolean dontShowDuplicates) {
+        /**
+         * @return true if filtering is not needed.
+         */
+        public boolean noFiltersAreSet() {
+            final boolean filmLengthFilterIsNotSet = (long) filmLengthMin == 0
+                    && (long) filmLengthMax == FilmLengthSlider.UNLIMITED_VALUE;
+
+            return checkedChannels.isEmpty()
+                    && thema.isEmpty()
+                    && filmLengthFilterIsNotSet
+                    && !dontShowAbos
+                    && !showUnseenOnly
+                    && !showHighQualityOnly
+                    && !showSubtitlesOnly
+                    && !showLivestreamsOnly
+                    && !showNewOnly
+                    && !showBookMarkedOnly
+                    && !dontShowTrailers
+                    && !dontShowSignLanguage
+                    && !dontShowAudioVersions
+                    && !dontShowDuplicates
+                    && zeitraum.equalsIgnoreCase(ZeitraumSpinnerFormatter.INFINITE_TEXT);
+        }
+    }
+
     public FilterConfiguration clearCurrentFilter() {
         Arrays.stream(FilterConfigurationKeys.values()).map(FilterConfigurationKeys::getKey).map(this::toFilterConfigNameWithCurrentFilter).forEach(configuration::clearProperty);
         return this;
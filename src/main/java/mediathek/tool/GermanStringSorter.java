@@ -2,6 +2,7 @@ package mediathek.tool;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.text.CollationKey;
 import java.text.Collator;
 import java.util.Comparator;
 import java.util.Locale;
@@ -28,4 +29,15 @@ public class GermanStringSorter implements Comparator<String> {
     public int compare(@NotNull String o1, @NotNull String o2) {
         return collator.compare(o1, o2);
     }
+
+    /**
+     * Get a precomputed sort key. Comparing keys gives the same order as {@link #compare(String, String)}
+     * but is much faster if strings are compared multiple times.
+     *
+     * @param str the string.
+     * @return the collation key of str.
+     */
+    public CollationKey getCollationKey(@NotNull String str) {
+        return collator.getCollationKey(str);
+    }
 }
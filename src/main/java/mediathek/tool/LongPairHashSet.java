@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import com.google.common.hash.HashCode;
+import com.google.common.primitives.Longs;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of 128-bit values stored as pairs of longs.
+ * Avoids boxing and per-entry objects of {@code HashSet<HashCode>}.
+ * Every pair gets a dense ordinal in insertion order which can be used to store associated values in plain arrays.
+ * Not thread-safe.
+ */
+public final class LongPairHashSet {
+    private static final float LOAD_FACTOR = 0.6f;
+    private long[] highs;
+    private long[] lows;
+    /**
+     * ordinal + 1 of the pair stored in a slot, 0 if the slot is empty.
+     */
+    private int[] slots;
+    private int size;
+
+    public LongPairHashSet(int expectedSize) {
+        final int capacity = Math.max(expectedSize, 4);
+        highs = new long[capacity];
+        lows = new long[capacity];
+        slots = new int[tableSizeFor(capacity)];
+    }
+
+    private static int tableSizeFor(int capacity) {
+        final int minSize = (int) Math.ceil(capacity / LOAD_FACTOR);
+        return Math.max(Integer.highestOneBit(minSize - 1) << 1, 8);
+    }
+
+    private static int hash(long high, long low) {
+        // values are usually already good hashes, just mix both halves
+        final long h = high * 0x9E3779B97F4A7C15L ^ low;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Add a pair if not yet present.
+     *
+     * @return the ordinal of the pair.
+     */
+    public int addOrGetOrdinal(long high, long low) {
+        final int mask = slots.length - 1;
+        int slot = hash(high, low) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            final int ordinal = entry - 1;
+            if (highs[ordinal] == high && lows[ordinal] == low)
+                return ordinal;
+            slot = (slot + 1) & mask;
+        }
+
+        final int ordinal = size++;
+        if (ordinal == highs.length) {
+            highs = Arrays.copyOf(highs, highs.length * 2);
+            lows = Arrays.copyOf(lows, lows.length * 2);
+        }
+        highs[ordinal] = high;
+        lows[ordinal] = low;
+        slots[slot] = ordinal + 1;
+
+        if (size > slots.length * LOAD_FACTOR)
+            rehash();
+        return ordinal;
+    }
+
+    /**
+     * @return true if the pair was added, false if it was already present.
+     */
+    public boolean add(long high, long low) {
+        final int oldSize = size;
+        return addOrGetOrdinal(high, low) == oldSize;
+    }
+
+    /**
+     * Add the first 128 bits of a hash code.
+     *
+     * @return true if the value was added, false if it was already present.
+     */
+    public boolean add(@NotNull HashCode hashCode) {
+        final byte[] b = hashCode.asBytes();
+        return add(Longs.fromBytes(b[0], b[1], b[2], b[3], b[4], b[5], b[6], b[7]),
+                Longs.fromBytes(b[8], b[9], b[10], b[11], b[12], b[13], b[14], b[15]));
+    }
+
+    /**
+     * @return the ordinal of the pair or -1 if it is not contained.
+     */
+    public int ordinalOf(long high, long low) {
+        final int mask = slots.length - 1;
+        int slot = hash(high, low) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            final int ordinal = entry - 1;
+            if (highs[ordinal] == high && lows[ordinal] == low)
+                return ordinal;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean contains(long high, long low) {
+        return ordinalOf(high, low) != -1;
+    }
+
+    public long getHigh(int ordinal) {
+        return highs[ordinal];
+    }
+
+    public long getLow(int ordinal) {
+        return lows[ordinal];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void rehash() {
+        final int[] newSlots = new int[slots.length * 2];
+        final int mask = newSlots.length - 1;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int slot = hash(highs[ordinal], lows[ordinal]) & mask;
+            while (newSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots[slot] = ordinal + 1;
+        }
+        slots = newSlots;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads the source stream on its own thread into a bounded queue of chunks.
+ * This decouples a slow producer (network, decompressor) from the consumer, both run concurrently.
+ * The producer blocks when the queue is full, so memory usage is limited to about chunkSize * maxChunks.
+ * Errors of the source stream are rethrown to the consumer in stream order.
+ * <p>
+ * Like most streams this class must be used by one consumer thread only.
+ */
+public class ReadAheadInputStream extends InputStream {
+    private static final Chunk END_OF_STREAM = new Chunk(new byte[0], 0, null);
+    private final InputStream in;
+    private final int chunkSize;
+    private final BlockingQueue<Chunk> queue;
+    private final Thread producer;
+    private volatile boolean closed;
+    private Chunk current;
+    private int position;
+
+    /**
+     * Start reading ahead.
+     *
+     * @param in         the source stream, will be closed by {@link #close()}.
+     * @param chunkSize  number of bytes handed over at once.
+     * @param maxChunks  maximum number of chunks buffered.
+     * @param threadName name of the reading thread.
+     */
+    public ReadAheadInputStream(@NotNull InputStream in, int chunkSize, int maxChunks, @NotNull String threadName) {
+        if (chunkSize <= 0 || maxChunks <= 0)
+            throw new IllegalArgumentException("chunkSize and maxChunks must be positive");
+
+        this.in = in;
+        this.chunkSize = chunkSize;
+        queue = new ArrayBlockingQueue<>(maxChunks);
+        producer = Thread.ofPlatform().name(threadName).daemon().start(this::readAhead);
+    }
+
+    private void readAhead() {
+        try {
+            while (!closed) {
+                final byte[] buffer = new byte[chunkSize];
+                final int length = in.readNBytes(buffer, 0, chunkSize);
+                if (length == 0) {
+                    queue.put(END_OF_STREAM);
+                    return;
+                }
+                queue.put(new Chunk(buffer, length, null));
+            }
+        } catch (InterruptedException ignored) {
+            // stream was closed
+        } catch (Exception ex) {
+            if (closed)
+                return;
+            final var error = ex instanceof IOException ioException ? ioException : new IOException(ex);
+            try {
+                queue.put(new Chunk(null, 0, error));
+            } catch (InterruptedException ignored) {
+                // stream was closed
+            }
+        }
+    }
+
+    /**
+     * @return true if there is data available, false at the end of the stream.
+     */
+    private boolean fill() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        if (current == END_OF_STREAM)
+            return false;
+        if (current != null) {
+            if (current.error != null)
+                throw current.error;
+            if (position < current.length)
+                return true;
+        }
+
+        try {
+            current = queue.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for data");
+        }
+        position = 0;
+        if (current.error != null)
+            throw current.error;
+        return current != END_OF_STREAM;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill())
+            return -1;
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte @NotNull [] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0)
+            return 0;
+        if (!fill())
+            return -1;
+
+        final int count = Math.min(len, current.length - position);
+        System.arraycopy(current.data, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+        return current == null || current == END_OF_STREAM ? 0 : current.length - position;
+    }
+
+    /**
+     * Stop reading ahead and close the source stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        producer.interrupt();
+        queue.clear();
+        in.close();
+    }
+
+    private record Chunk(byte[] data, int length, IOException error) {
+    }
+}
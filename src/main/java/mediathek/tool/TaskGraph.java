@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import com.google.common.base.Stopwatch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Small scheduler for a set of tasks with dependencies.
+ * Every stage starts as soon as all of its dependencies are finished, independent stages run concurrently.
+ * As dependencies must be added before the stages depending on them, the graph is always acyclic.
+ * A failing stage is logged and does not prevent dependent stages from running.
+ */
+public class TaskGraph {
+    private static final Logger logger = LogManager.getLogger();
+    private final String name;
+    private final Executor executor;
+    /**
+     * Stages in insertion order which is also a valid execution order.
+     */
+    private final List<Stage> stages = new ArrayList<>();
+
+    public TaskGraph(@NotNull String name, @NotNull Executor executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    /**
+     * Add a stage to the graph.
+     *
+     * @param stageName    name used for logging.
+     * @param task         the work to be done.
+     * @param dependencies stages which must be finished before this one starts. null entries are ignored
+     *                     which simplifies optional stages.
+     * @return the new stage to be used as dependency of other stages.
+     */
+    public Stage addStage(@NotNull String stageName, @NotNull Runnable task, Stage... dependencies) {
+        List<Stage> stageDependencies = new ArrayList<>();
+        for (var dependency : dependencies) {
+            if (dependency == null)
+                continue;
+            if (dependency.graph != this)
+                throw new IllegalArgumentException("Stage " + dependency.name + " does not belong to graph " + name);
+            stageDependencies.add(dependency);
+        }
+
+        var stage = new Stage(this, stageName, task, stageDependencies);
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Start all stages.
+     *
+     * @return future which completes when all stages are finished.
+     */
+    public CompletableFuture<Void> execute() {
+        final var watch = Stopwatch.createStarted();
+        Map<Stage, CompletableFuture<Void>> futures = new HashMap<>();
+        for (var stage : stages) {
+            final var dependencies = stage.dependencies.stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(stage, CompletableFuture.allOf(dependencies).thenRunAsync(stage::run, executor));
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+                .thenRun(() -> {
+                    watch.stop();
+                    logger.trace("{} finished all stages in {}", name, watch);
+                });
+    }
+
+    public static final class Stage {
+        private final TaskGraph graph;
+        private final String name;
+        private final Runnable task;
+        private final List<Stage> dependencies;
+
+        private Stage(@NotNull TaskGraph graph, @NotNull String name, @NotNull Runnable task, @NotNull List<Stage> dependencies) {
+            this.graph = graph;
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+
+        private void run() {
+            final var watch = Stopwatch.createStarted();
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("{}: stage {} failed", graph.name, name, e);
+            }
+            watch.stop();
+            logger.trace("{}: stage {} took {}", graph.name, name, watch);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import mediathek.tool.datum.DatumFilm;
 
 import javax.swing.table.AbstractTableModel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class TModelFilm extends AbstractTableModel {
@@ -85,6 +86,13 @@ public class TModelFilm extends AbstractTableModel {
         };
     }
 
+    /**
+     * @return unmodifiable view of the films in table order.
+     */
+    public List<DatenFilm> getFilms() {
+        return Collections.unmodifiableList(dataList);
+    }
+
     public void addAll(List<DatenFilm> listeFilme) {
         final int oldRowCount = dataList.size();
         dataList.addAll(listeFilme);
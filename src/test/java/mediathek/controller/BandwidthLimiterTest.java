@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller;
+
+import com.google.common.base.Stopwatch;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BandwidthLimiterTest {
+    private static final int CHUNK = 16 * 1024;
+
+    @Test
+    void unlimitedDoesNotWait() throws InterruptedIOException {
+        var limiter = new BandwidthLimiter(BandwidthLimiter.UNLIMITED);
+        try (var participant = limiter.register("test", 1)) {
+            final var watch = Stopwatch.createStarted();
+            for (int i = 0; i < 10_000; i++) {
+                participant.acquire(CHUNK);
+            }
+            assertTrue(watch.elapsed(TimeUnit.MILLISECONDS) < 1000);
+        }
+    }
+
+    @Test
+    void limitsTotalRate() throws InterruptedIOException {
+        final long rate = 1024 * 1024;
+        var limiter = new BandwidthLimiter(rate);
+        try (var participant = limiter.register("test", 1)) {
+            final var watch = Stopwatch.createStarted();
+            for (long acquired = 0; acquired < 2 * rate; acquired += CHUNK) {
+                participant.acquire(CHUNK);
+            }
+            // the first chunk waits for tokens, the last one is paid in advance
+            assertTrue(watch.elapsed(TimeUnit.MILLISECONDS) >= 1500);
+        }
+    }
+
+    @Test
+    void sharesByWeight() throws Exception {
+        var limiter = new BandwidthLimiter(4 * 1024 * 1024);
+        final var stop = new AtomicBoolean();
+        final var low = new AtomicLong();
+        final var high = new AtomicLong();
+        try (var lowParticipant = limiter.register("low", 1);
+             var highParticipant = limiter.register("high", 3)) {
+            var lowFuture = CompletableFuture.runAsync(() -> consume(lowParticipant, low, stop));
+            var highFuture = CompletableFuture.runAsync(() -> consume(highParticipant, high, stop));
+            TimeUnit.MILLISECONDS.sleep(1500);
+            stop.set(true);
+            CompletableFuture.allOf(lowFuture, highFuture).get(5, TimeUnit.SECONDS);
+        }
+
+        final double ratio = (double) high.get() / low.get();
+        assertTrue(ratio > 2 && ratio < 4, "ratio was " + ratio);
+    }
+
+    private static void consume(BandwidthLimiter.Participant participant, AtomicLong counter, AtomicBoolean stop) {
+        try {
+            while (!stop.get()) {
+                participant.acquire(CHUNK);
+                counter.addAndGet(CHUNK);
+            }
+        } catch (InterruptedIOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void rateChangeReleasesWaitingDownloads() throws Exception {
+        var limiter = new BandwidthLimiter(1);
+        try (var participant = limiter.register("test", 1)) {
+            var future = CompletableFuture.runAsync(() -> {
+                try {
+                    participant.acquire(CHUNK);
+                    participant.acquire(CHUNK);
+                } catch (InterruptedIOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertFalse(future.isDone());
+
+            limiter.setRate(BandwidthLimiter.UNLIMITED);
+            future.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void accountedBytesReduceBudget() throws InterruptedIOException {
+        final long rate = 256 * 1024;
+        var limiter = new BandwidthLimiter(rate);
+        try (var external = limiter.register("external", 1);
+             var direct = limiter.register("direct", 1)) {
+            final var watch = Stopwatch.createStarted();
+            // more than the maximum debt of one second
+            external.account(10 * rate);
+            direct.acquire(CHUNK);
+            assertTrue(watch.elapsed(TimeUnit.MILLISECONDS) >= 900);
+        }
+    }
+
+    @Test
+    void accountedBytesDoNotCancelDebt() throws InterruptedIOException {
+        final long rate = 256 * 1024;
+        var limiter = new BandwidthLimiter(rate);
+        try (var external = limiter.register("external", 1);
+             var direct = limiter.register("direct", 1)) {
+            final var watch = Stopwatch.createStarted();
+            // runs about 2.5 seconds into debt, more than the maximum debt of accounted bytes
+            direct.acquire((int) (3 * rate));
+            external.account(1);
+            direct.acquire(CHUNK);
+            assertTrue(watch.elapsed(TimeUnit.MILLISECONDS) >= 2000);
+        }
+    }
+
+    @Test
+    void newParticipantStartsLevelWithOthers() throws Exception {
+        var limiter = new BandwidthLimiter(4 * 1024 * 1024);
+        final var stop = new AtomicBoolean();
+        final var early = new AtomicLong();
+        final var late = new AtomicLong();
+        try (var earlyParticipant = limiter.register("early", 1)) {
+            var earlyFuture = CompletableFuture.runAsync(() -> consume(earlyParticipant, early, stop));
+            TimeUnit.MILLISECONDS.sleep(1000);
+
+            try (var lateParticipant = limiter.register("late", 1)) {
+                final long earlyBeforeJoin = early.get();
+                var lateFuture = CompletableFuture.runAsync(() -> consume(lateParticipant, late, stop));
+                TimeUnit.MILLISECONDS.sleep(1000);
+                stop.set(true);
+                CompletableFuture.allOf(earlyFuture, lateFuture).get(5, TimeUnit.SECONDS);
+
+                // without leveling the late participant would get nearly all bandwidth for the whole second
+                final double ratio = (double) late.get() / (early.get() - earlyBeforeJoin);
+                assertTrue(ratio < 2, "ratio was " + ratio);
+            }
+        }
+    }
+
+    @Test
+    void calculatesRateFromSettings() {
+        assertEquals(BandwidthLimiter.UNLIMITED, BandwidthLimiter.calculateRate(0, true));
+        assertEquals(BandwidthLimiter.UNLIMITED, BandwidthLimiter.calculateRate(100, false));
+        assertEquals(100 * 1024, BandwidthLimiter.calculateRate(100, true));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import mediathek.daten.DatenDownload;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DownloadQueueTest {
+    private static DatenDownload createDownload(String sender) {
+        var download = new DatenDownload();
+        download.arr[DatenDownload.DOWNLOAD_SENDER] = sender;
+        download.start = new Start();
+        return download;
+    }
+
+    @Test
+    void respectsMaximumNumberOfDownloads() {
+        var first = createDownload("ARD");
+        var second = createDownload("ZDF");
+        var queue = new DownloadQueue();
+        queue.rebuild(List.of(first, second));
+
+        assertSame(first, queue.next(1));
+        assertNull(queue.next(1));
+
+        queue.finished(first.start);
+        assertSame(second, queue.next(1));
+        assertNull(queue.next(1));
+    }
+
+    @Test
+    void prefersSenderWithoutRunningDownloads() {
+        var ard1 = createDownload("ARD");
+        var ard2 = createDownload("ARD");
+        var zdf = createDownload("ZDF");
+        var queue = new DownloadQueue();
+        queue.rebuild(List.of(ard1, ard2, zdf));
+
+        assertSame(ard1, queue.next(3));
+        assertSame(zdf, queue.next(3));
+        // all senders are busy, fall back to list order
+        assertSame(ard2, queue.next(3));
+        assertEquals(3, queue.getRunning());
+    }
+
+    @Test
+    void dropsDownloadsWhichAreNoLongerWaiting() {
+        var removed = createDownload("ARD");
+        var restarted = createDownload("ARD");
+        var waiting = createDownload("ARD");
+        var queue = new DownloadQueue();
+        queue.rebuild(List.of(removed, restarted, waiting));
+
+        removed.resetDownload();
+        restarted.start = new Start();
+        assertSame(waiting, queue.next(2));
+        assertNull(queue.next(2));
+    }
+
+    @Test
+    void rebuildSkipsRunningDownloads() {
+        var running = createDownload("ARD");
+        var waiting = createDownload("ZDF");
+        var queue = new DownloadQueue();
+        queue.rebuild(List.of(running, waiting));
+        assertSame(running, queue.next(2));
+
+        // the download thread did not yet switch the status from STATUS_INIT to STATUS_RUN
+        queue.rebuild(List.of(running, waiting));
+        assertSame(waiting, queue.next(2));
+        assertNull(queue.next(2));
+        assertEquals(2, queue.getRunning());
+    }
+
+    @Test
+    void restartedDownloadIsQueuedWhileOldRunIsEnding() {
+        var download = createDownload("ARD");
+        var queue = new DownloadQueue();
+        queue.rebuild(List.of(download));
+        final var oldStart = download.start;
+        assertSame(download, queue.next(2));
+
+        // stopped and started again by the user, the old run has not finished yet
+        download.start = new Start();
+        queue.rebuild(List.of(download));
+        assertSame(download, queue.next(2));
+        assertEquals(2, queue.getRunning());
+
+        queue.finished(oldStart);
+        assertEquals(1, queue.getRunning());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import com.google.common.base.Stopwatch;
+import com.sun.net.httpserver.HttpServer;
+import mediathek.controller.BandwidthLimiter;
+import mediathek.controller.MVBandwidthCountingInputStream;
+import mediathek.controller.ThrottlingInputStream;
+import mediathek.tool.MVFilmSize;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the former 1 KB copy loop with per-read progress bookkeeping against {@link FileTransfer}.
+ * A local HTTP server stands in for the CDN, so the numbers show the client side CPU cost only.
+ * <p>
+ * Not run by surefire, start the main method with an optional size in MiB.
+ */
+public class FileTransferBenchmark {
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        final long size = (args.length > 0 ? Long.parseLong(args[0]) : 512) * 1024 * 1024;
+        final byte[] block = new byte[64 * 1024];
+        final var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/film.mp4", exchange -> {
+            exchange.sendResponseHeaders(200, size);
+            try (var out = exchange.getResponseBody()) {
+                for (long sent = 0; sent < size; sent += block.length) {
+                    out.write(block, 0, (int) Math.min(block.length, size - sent));
+                }
+            }
+        });
+        server.start();
+
+        final var client = new OkHttpClient();
+        final var request = new Request.Builder().url("http://127.0.0.1:" + server.getAddress().getPort() + "/film.mp4").build();
+        final var file = Files.createTempFile("transfer", ".mp4");
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                measure("1 KB loop", size, () -> {
+                    try (var response = client.newCall(request).execute()) {
+                        return legacyCopy(response.body().byteStream(), file, size);
+                    }
+                });
+                measure("FileTransfer", size, () -> {
+                    try (var response = client.newCall(request).execute()) {
+                        return transferCopy(response.body().byteStream(), file);
+                    }
+                });
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            server.stop(0);
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+
+    private static void measure(String name, long size, IoTask task) throws IOException {
+        final var watch = Stopwatch.createStarted();
+        final long result = task.run();
+        final long ms = Math.max(1, watch.elapsed(TimeUnit.MILLISECONDS));
+        // printing the result keeps the JIT from dropping the measured work
+        System.out.printf("%-13s %6d ms %8.1f MiB/s (result %d)%n", name, ms, size / 1024.0 / 1024.0 * 1000.0 / ms, result);
+    }
+
+    private static InputStream wrap(InputStream in) {
+        return new ThrottlingInputStream(in, new BandwidthLimiter(BandwidthLimiter.UNLIMITED).register("benchmark", 1));
+    }
+
+    /**
+     * The copy loop as it was before, including the display calculations done after every read.
+     *
+     * @return the last progress value plus the summed up bandwidth samples.
+     */
+    private static long legacyCopy(InputStream in, Path file, long size) throws IOException {
+        final var filmSize = new MVFilmSize();
+        filmSize.setSize(size);
+        filmSize.setAktSize(0);
+        try (var sink = Okio.buffer(Okio.sink(file));
+             var mvis = new MVBandwidthCountingInputStream(wrap(in))) {
+            final byte[] buffer = new byte[1024];
+            long aktSize = 0, pp = 0, bandwidth = 0;
+            int len;
+            while ((len = mvis.read(buffer)) != -1) {
+                sink.write(buffer, 0, len);
+                filmSize.addAktSize(len);
+                if (aktSize != filmSize.getAktSize())
+                    aktSize = filmSize.getAktSize();
+                final long p = aktSize * 1000L / filmSize.getSize();
+                if (p != pp)
+                    pp = p;
+                bandwidth += mvis.getBandwidth();
+            }
+            return pp + bandwidth;
+        }
+    }
+
+    /**
+     * @return the number of copied bytes.
+     */
+    private static long transferCopy(InputStream in, Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             var mvis = new MVBandwidthCountingInputStream(wrap(in))) {
+            return FileTransfer.copy(mvis, channel, new AtomicLong(), () -> false);
+        }
+    }
+
+    private interface IoTask {
+        long run() throws IOException;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import com.google.common.base.Stopwatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileTransferTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void appendsToChannel() throws IOException {
+        final var data = new byte[3 * FileTransfer.BUFFER_SIZE + 17];
+        new Random(3).nextBytes(data);
+        final var file = tempDir.resolve("film.mp4");
+        Files.write(file, Arrays.copyOf(data, 100));
+
+        final var transferred = new AtomicLong();
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            final var in = new ByteArrayInputStream(data, 100, data.length - 100);
+            assertEquals(data.length - 100, FileTransfer.copy(in, channel, transferred, () -> false));
+        }
+
+        assertEquals(data.length - 100, transferred.get());
+        assertArrayEquals(data, Files.readAllBytes(file));
+    }
+
+    @Test
+    void stopsWhenRequested() throws IOException {
+        final var data = new byte[3 * FileTransfer.BUFFER_SIZE];
+        final var file = tempDir.resolve("film.mp4");
+        final var transferred = new AtomicLong();
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileTransfer.copy(new ByteArrayInputStream(data), channel, transferred, () -> transferred.get() > 0);
+        }
+
+        assertEquals(FileTransfer.BUFFER_SIZE, transferred.get());
+        assertEquals(FileTransfer.BUFFER_SIZE, Files.size(file));
+    }
+
+    @Test
+    void slowSourceDoesNotDelayStop() throws IOException {
+        // delivers 1 KiB every 10 ms and never ends
+        final var slowSource = new InputStream() {
+            @Override
+            public int read() {
+                return 0;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return Math.min(len, 1024);
+            }
+        };
+        final var file = tempDir.resolve("film.mp4");
+        final var transferred = new AtomicLong();
+
+        final var watch = Stopwatch.createStarted();
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileTransfer.copy(slowSource, channel, transferred, () -> transferred.get() > 0);
+        }
+
+        assertEquals(1024, transferred.get());
+        assertTrue(watch.elapsed(TimeUnit.MILLISECONDS) < 1000);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.controller.starter;
+
+import com.sun.net.httpserver.HttpServer;
+import mediathek.controller.BandwidthLimiter;
+import mediathek.controller.MVBandwidthCountingInputStream;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedDownloadTest {
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private final byte[] content = new byte[1_000_003];
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    @TempDir
+    Path tempDir;
+    private HttpServer server;
+    private boolean ignoreRange;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        new Random(7).nextBytes(content);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/film.mp4", exchange -> {
+            final var matcher = RANGE.matcher(String.valueOf(exchange.getRequestHeaders().getFirst("Range")));
+            int from = 0;
+            int to = content.length - 1;
+            if (matcher.matches() && !ignoreRange) {
+                from = Integer.parseInt(matcher.group(1));
+                to = Integer.parseInt(matcher.group(2));
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + from + '-' + to + '/' + content.length);
+                exchange.sendResponseHeaders(206, to - from + 1);
+            } else {
+                exchange.sendResponseHeaders(200, content.length);
+            }
+            bytesServed.addAndGet(to - from + 1);
+            try (var out = exchange.getResponseBody()) {
+                out.write(content, from, to - from + 1);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private SegmentedDownload createDownload(Path file, List<SegmentedDownload.Segment> segments) {
+        final var url = HttpUrl.get("http://127.0.0.1:" + server.getAddress().getPort() + "/film.mp4");
+        return new SegmentedDownload(httpClient, url, "test", file, content.length, segments, new BandwidthLimiter(BandwidthLimiter.UNLIMITED).register("test", 1));
+    }
+
+    private long download(SegmentedDownload download) throws IOException {
+        final var progress = new AtomicLong();
+        try (var counter = new MVBandwidthCountingInputStream(InputStream.nullInputStream())) {
+            download.download(counter, () -> false, progress::addAndGet);
+            assertEquals(bytesServed.get(), counter.getSumByte());
+        }
+        return progress.get();
+    }
+
+    @Test
+    void planCoversContentWithoutGaps() {
+        final var segments = SegmentedDownload.plan(content.length, 4);
+        assertEquals(4, segments.size());
+        assertEquals(0, segments.getFirst().start);
+        assertEquals(content.length, segments.getLast().end);
+        for (int i = 1; i < segments.size(); i++) {
+            assertEquals(segments.get(i - 1).end, segments.get(i).start);
+        }
+    }
+
+    @Test
+    void segmentCountDependsOnSize() {
+        assertEquals(1, SegmentedDownload.getSegmentCount(-1, 4));
+        assertEquals(1, SegmentedDownload.getSegmentCount(SegmentedDownload.MIN_SEGMENT_SIZE, 4));
+        assertEquals(3, SegmentedDownload.getSegmentCount(3 * SegmentedDownload.MIN_SEGMENT_SIZE, 4));
+        assertEquals(4, SegmentedDownload.getSegmentCount(100 * SegmentedDownload.MIN_SEGMENT_SIZE, 4));
+        assertEquals(1, SegmentedDownload.getSegmentCount(100 * SegmentedDownload.MIN_SEGMENT_SIZE, 1));
+    }
+
+    @Test
+    void stateRoundTrip() throws IOException {
+        final var file = tempDir.resolve("film.mp4");
+        final var segments = SegmentedDownload.plan(1000, 3);
+        segments.get(1).addDownloaded(17);
+        SegmentedDownload.writeState(file, 1000, segments);
+
+        final var read = SegmentedDownload.readState(file, 1000);
+        assertNotNull(read);
+        assertEquals(3, read.size());
+        assertEquals(0, read.get(0).getDownloaded());
+        assertEquals(segments.get(1).start + 17, read.get(1).getPosition());
+        assertEquals(1000, read.get(2).end);
+
+        assertNull(SegmentedDownload.readState(file, 999));
+        SegmentedDownload.deleteState(file);
+        assertNull(SegmentedDownload.readState(file, 1000));
+    }
+
+    @Test
+    void downloadsAllSegments() throws IOException {
+        final var file = tempDir.resolve("film.mp4");
+        final var download = createDownload(file, SegmentedDownload.plan(content.length, 4));
+
+        assertEquals(content.length, download(download));
+        assertArrayEquals(content, Files.readAllBytes(file));
+        assertEquals(content.length, bytesServed.get());
+        assertFalse(Files.exists(SegmentedDownload.getStatePath(file)));
+        assertFalse(Files.exists(SegmentedDownload.getPartPath(file)));
+    }
+
+    @Test
+    void continuesFromStoredState() throws IOException {
+        final var file = tempDir.resolve("film.mp4");
+        final var segments = SegmentedDownload.plan(content.length, 2);
+        // first segment is complete, the second one half done
+        final var first = segments.get(0);
+        final var second = segments.get(1);
+        first.addDownloaded(first.end - first.start);
+        final long secondDone = (second.end - second.start) / 2;
+        second.addDownloaded(secondDone);
+        final var partial = Arrays.copyOf(content, content.length);
+        Arrays.fill(partial, (int) (second.start + secondDone), partial.length, (byte) 0);
+        Files.write(SegmentedDownload.getPartPath(file), partial);
+        SegmentedDownload.writeState(file, content.length, segments);
+
+        final var stored = SegmentedDownload.readState(file, content.length);
+        assertNotNull(stored);
+        final var download = createDownload(file, stored);
+        assertEquals(second.start + secondDone, download.getDownloaded());
+
+        assertEquals(content.length - second.start - secondDone, download(download));
+        assertArrayEquals(content, Files.readAllBytes(file));
+        assertEquals(content.length - second.start - secondDone, bytesServed.get());
+    }
+
+    @Test
+    void keepsStateIfServerIgnoresRange() {
+        ignoreRange = true;
+        final var file = tempDir.resolve("film.mp4");
+        final var download = createDownload(file, SegmentedDownload.plan(content.length, 2));
+
+        assertThrows(IOException.class, () -> download(download));
+        assertNotNull(SegmentedDownload.readState(file, content.length));
+        assertTrue(Files.exists(SegmentedDownload.getPartPath(file)));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void stoppedDownloadLeavesTargetUntouched() throws IOException {
+        final var file = tempDir.resolve("film.mp4");
+        final var download = createDownload(file, SegmentedDownload.plan(content.length, 2));
+        try (var counter = new MVBandwidthCountingInputStream(InputStream.nullInputStream())) {
+            download.download(counter, () -> true, _ -> {});
+        }
+
+        assertFalse(Files.exists(file));
+        assertNotNull(SegmentedDownload.readState(file, content.length));
+
+        SegmentedDownload.deleteTemporaryFiles(file);
+        assertFalse(Files.exists(SegmentedDownload.getPartPath(file)));
+        assertFalse(Files.exists(SegmentedDownload.getStatePath(file)));
+    }
+}
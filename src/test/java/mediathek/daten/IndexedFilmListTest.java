@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.daten;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedFilmListTest {
+
+    private static DatenFilm film(String thema, String title) {
+        var film = new DatenFilm();
+        film.setSender("ARD");
+        film.setThema(thema);
+        film.setTitle(title);
+        return film;
+    }
+
+    @Test
+    void documentKeysAreUniqueForSharedIdentities() {
+        // same sender, thema and urls, only the title differs
+        var first = film("Tagesschau", "20 Uhr");
+        var second = film("Tagesschau", "20 Uhr, Gebärdensprache");
+        var other = film("Sportschau", "Bundesliga");
+        assertEquals(first.getIdentity(), second.getIdentity());
+
+        var keys = IndexedFilmList.createDocumentKeys(List.of(first, second, other));
+        assertEquals(first.getIdentity(), keys[0]);
+        assertEquals(other.getIdentity(), keys[2]);
+        assertEquals(3, new HashSet<>(List.of(keys)).size());
+    }
+
+    @Test
+    void documentKeysDependOnOccurrenceOnly() {
+        var first = film("Tagesschau", "20 Uhr");
+        var second = film("Tagesschau", "20 Uhr, Gebärdensprache");
+        var other = film("Sportschau", "Bundesliga");
+
+        var keys = IndexedFilmList.createDocumentKeys(List.of(first, second));
+        var keysWithOther = IndexedFilmList.createDocumentKeys(List.of(other, first, second));
+        assertArrayEquals(keys, new FilmIdentity[]{keysWithOther[1], keysWithOther[2]});
+    }
+}
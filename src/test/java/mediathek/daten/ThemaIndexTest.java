@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.daten;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThemaIndexTest {
+
+    private static DatenFilm film(String sender, String thema) {
+        var film = new DatenFilm();
+        film.setSender(sender);
+        film.setThema(thema);
+        return film;
+    }
+
+    private static ListeFilme createList() {
+        var list = new ListeFilme();
+        list.add(film("ARD", "Tagesschau"));
+        list.add(film("ARD", "Ärger im Revier"));
+        list.add(film("ARD", "tagesschau"));
+        list.add(film("ARD", "Tagesschau"));
+        list.add(film("ZDF", "Zoo"));
+        list.add(film("ZDF", "Auslandsjournal"));
+        return list;
+    }
+
+    @Test
+    void themenOfSenderAreSortedAndDistinctIgnoringCase() {
+        var list = createList();
+        assertEquals(List.of("Ärger im Revier", "Tagesschau"), list.getThemen("ARD"));
+        assertEquals(List.of("Auslandsjournal", "Zoo"), list.getThemen("ZDF"));
+        assertTrue(list.getThemen("3Sat").isEmpty());
+        assertEquals(List.of("Ärger im Revier", "Auslandsjournal", "Tagesschau", "Zoo"), list.getThemen(""));
+    }
+
+    @Test
+    void themenOfSeveralSendersAreMerged() {
+        var list = createList();
+        assertEquals(List.of("Auslandsjournal", "Tagesschau", "tagesschau", "Zoo"), list.getThemen(List.of("zdf", "ARD")).stream()
+                .filter(t -> !t.startsWith("Ä")).toList());
+        assertEquals(list.getThemen(List.of("ARD", "ZDF")), list.getThemen(List.<String>of()));
+    }
+
+    @Test
+    void indexIsRebuiltAfterModification() {
+        var list = createList();
+        assertEquals(List.of("Auslandsjournal", "Zoo"), list.getThemen("ZDF"));
+        list.add(film("ZDF", "heute"));
+        assertEquals(List.of("Auslandsjournal", "heute", "Zoo"), list.getThemen("ZDF"));
+    }
+}
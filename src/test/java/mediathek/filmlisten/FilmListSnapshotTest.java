@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.filmlisten;
+
+import mediathek.daten.Country;
+import mediathek.daten.DatenFilm;
+import mediathek.daten.ListeFilme;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmListSnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private static DatenFilm createFilm(String thema, String title) {
+        var film = new DatenFilm();
+        film.setSender("ARD");
+        film.setThema(thema);
+        film.setTitle(title);
+        film.setSendeDatum("01.02.2024");
+        film.setSendeZeit("20:15:00");
+        film.setFilmLength("00:15:00");
+        film.getFileSize().setSize("250");
+        film.setDescription("Beschreibung " + "x".repeat(70_000));
+        film.setNormalQualityUrl("https://example.org/" + title + ".mp4");
+        film.setHighQualityUrl("https://example.org/" + title + "_hd.mp4");
+        film.setSubtitleUrl("https://example.org/" + title + ".xml");
+        film.setWebsiteUrl("https://example.org/" + title);
+        film.setDatumLong("1706814900");
+        film.countrySet.add(Country.DE);
+        film.countrySet.add(Country.AT);
+        film.setNew(true);
+        film.setAudioVersion(true);
+        film.setDuplicate(true);
+        film.init();
+        return film;
+    }
+
+    private ListeFilme createList() {
+        var list = new ListeFilme();
+        var meta = list.getMetaData();
+        meta.setId("abc123");
+        list.add(createFilm("Tagesschau", "Ausgabe 1"));
+        list.add(createFilm("Tagesschau", "Ausgabe 2"));
+        list.add(new DatenFilm());
+        return list;
+    }
+
+    private List<DatenFilm> read(Path jsonPath, String id) throws IOException {
+        List<DatenFilm> films = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(FilmListSnapshot.getSnapshotPath(jsonPath))) {
+            if (!FilmListSnapshot.read(in, jsonPath, id, films::add))
+                return null;
+        }
+        return films;
+    }
+
+    @Test
+    void filmsSurviveRoundTrip() throws IOException {
+        var jsonPath = tempDir.resolve("filme.json");
+        Files.writeString(jsonPath, "{}");
+        var list = createList();
+        FilmListSnapshot.write(jsonPath, list);
+
+        var films = read(jsonPath, "abc123");
+        assertNotNull(films);
+        assertEquals(list.size(), films.size());
+        for (int i = 0; i < list.size(); i++) {
+            var expected = list.get(i);
+            var actual = films.get(i);
+            actual.init();
+            assertEquals(expected.getSender(), actual.getSender());
+            assertEquals(expected.getThema(), actual.getThema());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getSendeDatum(), actual.getSendeDatum());
+            assertEquals(expected.getSendeZeit(), actual.getSendeZeit());
+            assertEquals(expected.getFilmLength(), actual.getFilmLength());
+            assertEquals(expected.getFileSize().toString(), actual.getFileSize().toString());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getUrlNormalQuality(), actual.getUrlNormalQuality());
+            assertEquals(expected.getHighQualityUrl(), actual.getHighQualityUrl());
+            assertEquals(expected.getLowQualityUrl(), actual.getLowQualityUrl());
+            assertEquals(expected.getSubtitleUrl(), actual.getSubtitleUrl());
+            assertEquals(expected.getWebsiteUrl(), actual.getWebsiteUrl());
+            assertEquals(expected.getDatumFilm(), actual.getDatumFilm());
+            assertEquals(expected.countrySet, actual.countrySet);
+            assertEquals(expected.isNew(), actual.isNew());
+            assertEquals(expected.isAudioVersion(), actual.isAudioVersion());
+            assertEquals(expected.getIdentity(), actual.getIdentity());
+            // duplicates depend on the whole list and are evaluated after loading
+            assertFalse(actual.isDuplicate());
+        }
+    }
+
+    @Test
+    void snapshotOfOtherFilmlistIsRejected() throws IOException {
+        var jsonPath = tempDir.resolve("filme.json");
+        Files.writeString(jsonPath, "{}");
+        FilmListSnapshot.write(jsonPath, createList());
+
+        assertNull(read(jsonPath, "other"));
+
+        Files.writeString(jsonPath, "{ }");
+        assertNull(read(jsonPath, "abc123"));
+    }
+}
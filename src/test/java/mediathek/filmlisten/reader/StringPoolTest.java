@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.filmlisten.reader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    @Test
+    void equalStringsShareOneInstance() {
+        var pool = new StringPool(10);
+        var first = pool.intern(new String("Tagesschau"));
+        var second = pool.intern(new String("Tagesschau"));
+
+        assertSame(first, second);
+        assertEquals(1, pool.size());
+        assertNull(pool.intern(null));
+    }
+
+    @Test
+    void fullPoolReturnsUnknownStringsUnchanged() {
+        var pool = new StringPool(1);
+        pool.intern("ARD");
+        var zdf = new String("ZDF");
+
+        assertSame(zdf, pool.intern(zdf));
+        assertNotSame(pool.intern(new String("ZDF")), zdf);
+        assertEquals(1, pool.size());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.gui.duplicates;
+
+import mediathek.daten.DatenFilm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FilmDuplicateEvaluationTaskTest {
+
+    private static DatenFilm createFilm(String sender, String thema, String url) {
+        var film = new DatenFilm();
+        film.setSender(sender);
+        film.setThema(thema);
+        film.setNormalQualityUrl(url);
+        return film;
+    }
+
+    @Test
+    void smallSenderWinsOverBigSender() {
+        var ard = createFilm("ARD", "Tatort", "https://example.org/tatort.mp4");
+        var zdf = createFilm("ZDF", "Tatort", "https://example.org/tatort.mp4");
+        var one = createFilm("ONE", "Tatort", "https://example.org/tatort.mp4");
+        FilmDuplicateEvaluationTask.markDuplicates(List.of(ard, zdf, one));
+
+        assertFalse(one.isDuplicate());
+        assertTrue(ard.isDuplicate());
+        assertTrue(zdf.isDuplicate());
+    }
+
+    @Test
+    void firstBigSenderFilmWins() {
+        var zdf = createFilm("ZDF", "Tatort", "https://example.org/tatort.mp4");
+        var ard = createFilm("ARD", "Tatort", "https://example.org/tatort.mp4");
+        FilmDuplicateEvaluationTask.markDuplicates(List.of(zdf, ard));
+
+        assertFalse(zdf.isDuplicate());
+        assertTrue(ard.isDuplicate());
+    }
+
+    @Test
+    void alphabeticalOrderForSmallSenders() {
+        var wdr = createFilm("WDR", "Sport", "https://example.org/sport.mp4");
+        var br = createFilm("BR", "Sport", "https://example.org/sport.mp4");
+        var other = createFilm("WDR", "Sport", "https://example.org/other.mp4");
+        FilmDuplicateEvaluationTask.markDuplicates(List.of(wdr, br, other));
+
+        assertFalse(br.isDuplicate());
+        assertTrue(wdr.isDuplicate());
+        assertFalse(other.isDuplicate());
+    }
+
+    @Test
+    void livestreamsAreIgnored() {
+        var live = createFilm("ONE", "Livestream", "https://example.org/live.m3u8");
+        live.setLivestream(true);
+        live.setDuplicate(false);
+        var film = createFilm("ARD", "Livestream", "https://example.org/live.m3u8");
+        FilmDuplicateEvaluationTask.markDuplicates(List.of(live, film));
+
+        assertFalse(live.isDuplicate());
+        assertFalse(film.isDuplicate());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.gui.tabs.tab_film.helpers;
+
+import mediathek.daten.DatenFilm;
+import mediathek.daten.ListeFilme;
+import mediathek.gui.tabs.tab_film.SearchControlFieldMode;
+import mediathek.gui.tabs.tab_film.SearchFieldData;
+import mediathek.tool.FilterConfiguration;
+import mediathek.tool.models.TModelFilm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmTableModelCacheTest {
+    private static final SearchFieldData SEARCH = new SearchFieldData("tatort", SearchControlFieldMode.THEMA_TITEL);
+
+    private static FilterConfiguration.Snapshot createFilter(boolean showBookMarkedOnly) {
+        return new FilterConfiguration.Snapshot(Set.of("ARD"), "", 0, 110, "∞",
+                false, false, false, showBookMarkedOnly, false, false, false, false, false, false, false);
+    }
+
+    @Test
+    void cachedModelIsReturnedForEqualKey() {
+        var cache = new FilmTableModelCache();
+        var list = new ListeFilme();
+        var model = new TModelFilm();
+
+        cache.put(cache.createKey(list, createFilter(false), SEARCH), model);
+
+        assertSame(model, cache.get(cache.createKey(list, createFilter(false), SEARCH)));
+        assertNull(cache.get(cache.createKey(list, createFilter(false),
+                new SearchFieldData("tatort", SearchControlFieldMode.IRGENDWO))));
+    }
+
+    @Test
+    void listModificationDropsEntries() {
+        var cache = new FilmTableModelCache();
+        var list = new ListeFilme();
+        cache.put(cache.createKey(list, createFilter(false), SEARCH), new TModelFilm());
+
+        list.clear();
+        list.add(new DatenFilm());
+
+        assertNull(cache.get(cache.createKey(list, createFilter(false), SEARCH)));
+        assertNull(cache.get(cache.createKey(new ListeFilme(), createFilter(false), SEARCH)));
+    }
+
+    @Test
+    void resultsOfInvalidatedSearchesAreNotStored() {
+        var cache = new FilmTableModelCache();
+        var list = new ListeFilme();
+        var key = cache.createKey(list, createFilter(false), SEARCH);
+
+        cache.invalidate();
+        cache.put(key, new TModelFilm());
+
+        assertNull(cache.get(cache.createKey(list, createFilter(false), SEARCH)));
+    }
+
+    @Test
+    void bookmarkFilterIsNotCached() {
+        var cache = new FilmTableModelCache();
+        assertNull(cache.createKey(new ListeFilme(), createFilter(true), SEARCH));
+    }
+}
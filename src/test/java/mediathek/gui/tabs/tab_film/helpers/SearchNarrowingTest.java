@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.gui.tabs.tab_film.helpers;
+
+import mediathek.gui.tabs.tab_film.SearchControlFieldMode;
+import mediathek.gui.tabs.tab_film.SearchFieldData;
+import mediathek.tool.FilterConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchNarrowingTest {
+    private static final FilterConfiguration.Snapshot NO_FILTER = createFilter(Set.of(), false, 0);
+
+    private static FilterConfiguration.Snapshot createFilter(Set<String> senders, boolean dontShowTrailers, double minLength) {
+        return new FilterConfiguration.Snapshot(senders, "", minLength, 110, "∞",
+                false, false, false, false, false, false, false, dontShowTrailers, false, false, false);
+    }
+
+    private static SearchFieldData search(String text) {
+        return new SearchFieldData(text, SearchControlFieldMode.THEMA_TITEL);
+    }
+
+    @Test
+    void longerSearchTextNarrows() {
+        assertTrue(SearchNarrowing.isNarrowing(NO_FILTER, search(""), NO_FILTER, search("tat"), false));
+        assertTrue(SearchNarrowing.isNarrowing(NO_FILTER, search("tat"), NO_FILTER, search("tatort"), false));
+        assertTrue(SearchNarrowing.isNarrowing(NO_FILTER, search("tatort,krimi"), NO_FILTER, search("tatort"), false));
+        assertFalse(SearchNarrowing.isNarrowing(NO_FILTER, search("tatort"), NO_FILTER, search("tat"), false));
+        assertFalse(SearchNarrowing.isNarrowing(NO_FILTER, search("tatort"), NO_FILTER, search("tatort,krimi"), false));
+        assertFalse(SearchNarrowing.isNarrowing(NO_FILTER, search("tatort"), NO_FILTER, search(""), false));
+        assertFalse(SearchNarrowing.isNarrowing(NO_FILTER, search("tat"), NO_FILTER,
+                new SearchFieldData("tatort", SearchControlFieldMode.IRGENDWO), false));
+    }
+
+    @Test
+    void patternsMustBeEqual() {
+        assertTrue(SearchNarrowing.isNarrowing(NO_FILTER, search("#:tat.*"), NO_FILTER, search("#:tat.*"), false));
+        assertFalse(SearchNarrowing.isNarrowing(NO_FILTER, search("#:tat.*"), NO_FILTER, search("#:tatort.*"), false));
+    }
+
+    @Test
+    void luceneQueriesMustBeEqual() {
+        assertTrue(SearchNarrowing.isNarrowing(NO_FILTER, search("tatort"),
+                createFilter(Set.of(), true, 0), search("tatort"), true));
+        assertFalse(SearchNarrowing.isNarrowing(NO_FILTER, search("tat"), NO_FILTER, search("tatort"), true));
+    }
+
+    @Test
+    void filterChanges() {
+        assertTrue(SearchNarrowing.isNarrowing(NO_FILTER, search(""), createFilter(Set.of("ARD"), true, 10), search(""), false));
+        assertTrue(SearchNarrowing.isNarrowing(createFilter(Set.of("ARD", "ZDF"), false, 0), search(""),
+                createFilter(Set.of("ARD"), false, 0), search(""), false));
+        assertFalse(SearchNarrowing.isNarrowing(createFilter(Set.of("ARD"), false, 0), search(""),
+                createFilter(Set.of("ARD", "ZDF"), false, 0), search(""), false));
+        assertFalse(SearchNarrowing.isNarrowing(createFilter(Set.of("ARD"), false, 0), search(""), NO_FILTER, search(""), false));
+        assertFalse(SearchNarrowing.isNarrowing(createFilter(Set.of(), true, 0), search(""), NO_FILTER, search(""), false));
+        assertFalse(SearchNarrowing.isNarrowing(createFilter(Set.of(), false, 10), search(""), NO_FILTER, search(""), false));
+    }
+}
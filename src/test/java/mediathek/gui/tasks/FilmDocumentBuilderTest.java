@@ -0,0 +1,24 @@
+package mediathek.gui.tasks;
+
+import mediathek.tool.datum.DatumFilm;
+import org.junit.jupiter.api.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FilmDocumentBuilderTest {
+
+    @Test
+    void weekdayMatchesSimpleDateFormat() {
+        var formatter = new SimpleDateFormat("EEEE", Locale.GERMAN);
+        // check two weeks starting at 2024-03-25, covers daylight saving time switch
+        final long start = 1711324800000L;
+        for (int i = 0; i < 14; i++) {
+            var date = new DatumFilm(start + TimeUnit.MILLISECONDS.convert(i, TimeUnit.DAYS) + 12345L);
+            assertEquals(formatter.format(date), FilmDocumentBuilder.getWeekday(date));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import mediathek.daten.DatenFilm;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledFilmFilterTest {
+
+    private static DatenFilm createFilm(String sender, String thema, String title) {
+        var film = new DatenFilm();
+        film.setSender(sender);
+        film.setThema(thema);
+        film.setTitle(title);
+        return film;
+    }
+
+    @Test
+    void senderAndThemaBuckets() {
+        var builder = new CompiledFilmFilter.Builder<String>();
+        builder.addRule("rule", "ARD", "Tagesschau", new String[]{""}, new String[]{""});
+        var filter = builder.build();
+
+        assertTrue(filter.matches(createFilm("ARD", "TAGESSCHAU", "Tagesschau 20:00 Uhr")));
+        assertFalse(filter.matches(createFilm("ZDF", "Tagesschau", "Tagesschau 20:00 Uhr")));
+        assertFalse(filter.matches(createFilm("ARD", "Tagesschau24", "Tagesschau 20:00 Uhr")));
+    }
+
+    @Test
+    void titleTerms() {
+        var builder = new CompiledFilmFilter.Builder<String>();
+        builder.addRule("rule", "", "", new String[]{"hörfassung", "trailer"}, new String[]{""});
+        builder.addRule("rule", "ZDF", "", new String[]{"heute"}, new String[]{""});
+        var filter = builder.build();
+
+        assertTrue(filter.matches(createFilm("ARD", "Tatort", "Tatort (Hörfassung)")));
+        assertTrue(filter.matches(createFilm("ARD", "Tatort", "TRAILER: Tatort")));
+        assertTrue(filter.matches(createFilm("ZDF", "Nachrichten", "heute journal")));
+        assertFalse(filter.matches(createFilm("ARD", "Nachrichten", "heute journal")));
+        assertFalse(filter.matches(createFilm("ARD", "Tatort", "Tatort")));
+    }
+
+    @Test
+    void themaTitelChecksThemaAndTitle() {
+        var builder = new CompiledFilmFilter.Builder<String>();
+        builder.addRule("rule", "", "", new String[]{"folge"}, new String[]{"krimi"});
+        var filter = builder.build();
+
+        assertTrue(filter.matches(createFilm("ARD", "Krimi am Abend", "Folge 1")));
+        assertTrue(filter.matches(createFilm("ARD", "Abend", "Krimi Folge 1")));
+        assertFalse(filter.matches(createFilm("ARD", "Krimi am Abend", "Teil 1")));
+        assertFalse(filter.matches(createFilm("ARD", "Abend", "Folge 1")));
+    }
+
+    @Test
+    void regexPattern() {
+        var builder = new CompiledFilmFilter.Builder<String>();
+        builder.addRule("rule", "", "", new String[]{"#:.*[0-9]{4}"}, new String[]{""});
+        var filter = builder.build();
+
+        assertTrue(filter.matches(createFilm("ARD", "Tatort", "Tatort 2024")));
+        assertFalse(filter.matches(createFilm("ARD", "Tatort", "Tatort 2024 neu")));
+    }
+
+    @Test
+    void emptyTermMatchesEverything() {
+        var builder = new CompiledFilmFilter.Builder<String>();
+        builder.addRule("rule", "ARD", "", new String[]{"a", "", "b"}, new String[]{""});
+        var filter = builder.build();
+
+        assertTrue(filter.matches(createFilm("ARD", "Tatort", "xyz")));
+    }
+
+    @Test
+    void findFirstUsesRuleOrder() {
+        var builder = new CompiledFilmFilter.Builder<String>();
+        builder.addRule("any", "", "", new String[]{"tatort"}, new String[]{""});
+        builder.addRule("ard", "ARD", "Tatort", new String[]{""}, new String[]{""});
+        builder.addRule("ard-early", "ARD", "", new String[]{""}, new String[]{""});
+        var filter = builder.build();
+
+        assertEquals("any", filter.findFirst(createFilm("ARD", "Tatort", "Tatort: Borowski")));
+        assertEquals("ard", filter.findFirst(createFilm("ARD", "Tatort", "Polizeiruf")));
+        assertEquals("ard-early", filter.findFirst(createFilm("ARD", "Krimi", "Polizeiruf")));
+        assertNull(filter.findFirst(createFilm("ZDF", "Krimi", "Polizeiruf")));
+    }
+
+    @Test
+    void irgendwoChecksDescription() {
+        var film = createFilm("ARD", "Doku", "Natur");
+        film.setDescription("Ein Film über Wölfe");
+        var builder = new CompiledFilmFilter.Builder<String>();
+        builder.addRule("abo", "", "", new String[]{""}, new String[]{""}, new String[]{"wölfe", "bären"});
+        var filter = builder.build();
+
+        assertEquals("abo", filter.findFirst(film));
+        assertNull(filter.findFirst(createFilm("ARD", "Doku", "Natur")));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongPairHashSetTest {
+
+    @Test
+    void addAndContains() {
+        var set = new LongPairHashSet(2);
+        assertTrue(set.add(1, 2));
+        assertTrue(set.add(2, 1));
+        assertFalse(set.add(1, 2));
+        assertTrue(set.contains(2, 1));
+        assertFalse(set.contains(1, 1));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void ordinalsFollowInsertionOrderAfterGrowing() {
+        var random = new Random(42);
+        var set = new LongPairHashSet(1);
+        Set<List<Long>> reference = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            final long high = random.nextInt(5000);
+            final long low = random.nextInt(3);
+            final int oldSize = set.size();
+            final int ordinal = set.addOrGetOrdinal(high, low);
+            if (reference.add(List.of(high, low)))
+                assertEquals(oldSize, ordinal);
+            assertEquals(high, set.getHigh(ordinal));
+            assertEquals(low, set.getLow(ordinal));
+        }
+        assertEquals(reference.size(), set.size());
+        for (var pair : reference) {
+            assertTrue(set.contains(pair.get(0), pair.get(1)));
+        }
+    }
+}
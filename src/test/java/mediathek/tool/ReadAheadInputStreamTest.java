@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadAheadInputStreamTest {
+
+    @Test
+    void deliversAllBytesInOrder() throws IOException {
+        var data = new byte[100_000];
+        new Random(42).nextBytes(data);
+
+        try (var in = new ReadAheadInputStream(new ByteArrayInputStream(data), 1000, 3, "test")) {
+            assertEquals(data[0] & 0xFF, in.read());
+            var rest = in.readAllBytes();
+            assertEquals(data.length - 1, rest.length);
+            for (int i = 0; i < rest.length; i++) {
+                assertEquals(data[i + 1], rest[i]);
+            }
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void errorsArePassedToReader() throws IOException {
+        var failing = new InputStream() {
+            private int count;
+
+            @Override
+            public int read() throws IOException {
+                if (count++ >= 10)
+                    throw new IOException("broken");
+                return 1;
+            }
+        };
+
+        try (var in = new ReadAheadInputStream(failing, 4, 2, "test")) {
+            var ex = assertThrows(IOException.class, in::readAllBytes);
+            assertEquals("broken", ex.getMessage());
+            assertThrows(IOException.class, in::read);
+        }
+    }
+
+    @Test
+    void closeStopsEndlessSource() throws IOException {
+        var endless = new InputStream() {
+            @Override
+            public int read() {
+                return 0;
+            }
+        };
+
+        var in = new ReadAheadInputStream(endless, 16, 2, "test");
+        assertEquals(0, in.read());
+        in.close();
+        assertThrows(IOException.class, in::read);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025 derreisende77.
+ * This code was developed as part of the MediathekView project https://github.com/mediathekview/MediathekView
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package mediathek.tool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskGraphTest {
+
+    @Test
+    void dependenciesAreRespected() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var graph = new TaskGraph("test", executor);
+            var first = graph.addStage("first", () -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(50);
+                } catch (InterruptedException ignored) {
+                }
+                order.add("first");
+            });
+            graph.addStage("independent", () -> order.add("independent"));
+            var second = graph.addStage("second", () -> order.add("second"), first, null);
+            graph.addStage("third", () -> order.add("third"), second);
+
+            graph.execute().get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(4, order.size());
+        assertTrue(order.indexOf("first") < order.indexOf("second"));
+        assertTrue(order.indexOf("second") < order.indexOf("third"));
+    }
+
+    @Test
+    void failingStageDoesNotBlockDependents() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var graph = new TaskGraph("test", executor);
+            var failing = graph.addStage("failing", () -> {
+                throw new IllegalStateException("expected");
+            });
+            graph.addStage("dependent", () -> order.add("dependent"), failing);
+
+            graph.execute().get(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("dependent"), order);
+    }
+
+    @Test
+    void foreignStageIsRejected() {
+        var executor = Executors.newSingleThreadExecutor();
+        var graph = new TaskGraph("test", executor);
+        var other = new TaskGraph("other", executor);
+        var stage = other.addStage("stage", () -> {
+        });
+        assertThrows(IllegalArgumentException.class, () -> graph.addStage("dependent", () -> {
+        }, stage));
+        executor.shutdown();
+    }
+}